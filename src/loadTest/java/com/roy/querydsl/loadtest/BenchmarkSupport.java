@@ -0,0 +1,63 @@
+package com.roy.querydsl.loadtest;
+
+import com.roy.querydsl.QuerydslApplication;
+import com.roy.querydsl.datagen.ScaleTier;
+import com.roy.querydsl.datagen.SoccerPlayerDataGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        String[] args = {
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--logging.level.org.hibernate.SQL=info"
+        };
+        String[] merged = Arrays.copyOf(args, args.length + extraArgs.length);
+        System.arraycopy(extraArgs, 0, merged, args.length, extraArgs.length);
+        return new SpringApplicationBuilder(QuerydslApplication.class).run(merged);
+    }
+
+    public static SoccerPlayerDataGenerator load(ConfigurableApplicationContext context) {
+        ScaleTier tier = ScaleTier.valueOf(System.getProperty("benchmark.tier", ScaleTier.TINY.name()));
+        SoccerPlayerDataGenerator generator = SoccerPlayerDataGenerator.of(tier, Long.getLong("benchmark.seed", 42L));
+        generator.loadWithCsvRead(context.getBean(DataSource.class), Path.of("build/benchmark"));
+        return generator;
+    }
+
+    public static double measure(String name, Supplier<?> body) {
+        int warmup = Integer.getInteger("benchmark.warmup", 5);
+        int iterations = Integer.getInteger("benchmark.iterations", 20);
+        for (int i = 0; i < warmup; i++) {
+            body.get();
+        }
+
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < iterations; i++) {
+            long started = System.nanoTime();
+            body.get();
+            long elapsed = System.nanoTime() - started;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+
+        double average = total / (double) iterations / 1_000_000.0;
+        System.out.printf("%-40s avg %10.3f ms  best %10.3f ms%n", name, average, best / 1_000_000.0);
+        return average;
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.roy.querydsl.loadtest;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import com.roy.querydsl.repository.support.ReadOnlyJPAQueryFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+
+/**
+ * 임의 크기의 id 목록 조회를 그대로 IN 절에 넣는 방식과 findAllByIdInOrder 로 비교한다.
+ * Hibernate 의 in_clause_parameter_padding 은 끄고 실행하며, 실행 계획 캐시 적중률과 서로 다른 SQL 의 수를 함께 출력한다.
+ * 예: -Pbenchmark=InListBenchmark -Dbenchmark.lookups=200 -Dbenchmark.max-ids=3000
+ */
+public class InListBenchmark {
+
+    public static void main(String[] args) {
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start(
+                "--spring.main.web-application-type=none",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--spring.jpa.properties.hibernate.query.in_clause_parameter_padding=false",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn")) {
+            BenchmarkSupport.load(context);
+            EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+            SoccerPlayerRepository repository = context.getBean(SoccerPlayerRepository.class);
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            List<Long> pool = new ReadOnlyJPAQueryFactory(entityManager)
+                    .select(soccerPlayer.id).from(soccerPlayer).fetch();
+            List<List<Long>> lookups = lookups(pool);
+
+            run("soccerPlayer.id.in(ids)", statistics, lookups, ids -> {
+                entityManager.clear();
+                return new ReadOnlyJPAQueryFactory(entityManager)
+                        .selectFrom(soccerPlayer)
+                        .where(soccerPlayer.id.in(ids))
+                        .fetch();
+            });
+            run("findAllByIdInOrder(ids)", statistics, lookups, repository::findAllByIdInOrder);
+            run("findAllByIdInOrderAsync(ids)", statistics, lookups, ids -> repository.findAllByIdInOrderAsync(ids).join());
+            entityManager.close();
+        }
+    }
+
+    private static List<List<Long>> lookups(List<Long> pool) {
+        Random random = new Random(Long.getLong("benchmark.seed", 42L));
+        int count = Integer.getInteger("benchmark.lookups", 200);
+        int maxIds = Math.min(Integer.getInteger("benchmark.max-ids", 3000), pool.size());
+        List<List<Long>> lookups = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int size = 1 + random.nextInt(maxIds);
+            List<Long> ids = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                ids.add(pool.get(random.nextInt(pool.size())));
+            }
+            lookups.add(ids);
+        }
+        return lookups;
+    }
+
+    private static void run(String name, Statistics statistics, List<List<Long>> lookups,
+                            Function<List<Long>, List<SoccerPlayer>> lookup) {
+        statistics.clear();
+        Supplier<Object> all = () -> {
+            lookups.forEach(lookup::apply);
+            return null;
+        };
+        BenchmarkSupport.measure(name, all);
+
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        System.out.printf("%-40s plan cache hit %6.2f%% (%d hits, %d misses), distinct statements %d%n",
+                name, 100.0 * hits / Math.max(1, hits + misses), hits, misses, statistics.getQueries().length);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.roy.querydsl.loadtest;
+
+import com.roy.querydsl.datagen.ScaleTier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+public class LoadTestConfig {
+
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final PredicateMix mix;
+    private final ScaleTier tier;
+    private final long seed;
+    private final Path outputDir;
+    private final Path baseline;
+
+    private LoadTestConfig(int rate, Duration warmup, Duration duration, PredicateMix mix,
+                           ScaleTier tier, long seed, Path outputDir, Path baseline) {
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.mix = mix;
+        this.tier = tier;
+        this.seed = seed;
+        this.outputDir = outputDir;
+        this.baseline = baseline;
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        String baseline = System.getProperty("loadtest.baseline");
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.rate", 200),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10L)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60L)),
+                PredicateMix.parse(System.getProperty("loadtest.mix", PredicateMix.DEFAULT)),
+                ScaleTier.valueOf(System.getProperty("loadtest.tier", ScaleTier.TINY.name())),
+                Long.getLong("loadtest.seed", 42L),
+                Path.of(System.getProperty("loadtest.out", "build/load-test")),
+                Objects.nonNull(baseline) ? Path.of(baseline) : null);
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public PredicateMix getMix() {
+        return mix;
+    }
+
+    public ScaleTier getTier() {
+        return tier;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Path getOutputDir() {
+        return outputDir;
+    }
+
+    public Path getBaseline() {
+        return baseline;
+    }
+
+    @Override
+    public String toString() {
+        return "rate=" + rate + "/s, warmup=" + warmup.getSeconds() + "s, duration=" + duration.getSeconds()
+                + "s, tier=" + tier + ", seed=" + seed + ", mix=" + mix;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.roy.querydsl.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 한 번의 부하 테스트 결과.
+ * 같은 키를 가진 properties 파일로 저장하므로 실행 결과끼리 diff 하거나 baseline 과 비교할 수 있다.
+ */
+public class LoadTestReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    private LoadTestReport() {
+    }
+
+    public static LoadTestReport of(LoadTestConfig config, Histogram histogram, long requests, long errors, double elapsedSeconds) {
+        LoadTestReport report = new LoadTestReport();
+        report.values.put("config", config.toString());
+        report.values.put("requests", String.valueOf(requests));
+        report.values.put("errors", String.valueOf(errors));
+        report.values.put("throughput_rps", format(requests / elapsedSeconds));
+        report.values.put("p50_ms", millis(histogram.getValueAtPercentile(50)));
+        report.values.put("p90_ms", millis(histogram.getValueAtPercentile(90)));
+        report.values.put("p99_ms", millis(histogram.getValueAtPercentile(99)));
+        report.values.put("p99.9_ms", millis(histogram.getValueAtPercentile(99.9)));
+        report.values.put("max_ms", millis(histogram.getMaxValue()));
+        return report;
+    }
+
+    public static LoadTestReport read(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, UTF_8)) {
+            properties.load(reader);
+        }
+        LoadTestReport report = new LoadTestReport();
+        properties.stringPropertyNames().forEach(key -> report.values.put(key, properties.getProperty(key)));
+        return report;
+    }
+
+    public void write(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (Writer writer = Files.newBufferedWriter(path, UTF_8)) {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + System.lineSeparator());
+            }
+        }
+    }
+
+    public void print(PrintStream out) {
+        values.forEach((key, value) -> out.printf("%-16s %s%n", key, value));
+    }
+
+    public void printComparison(LoadTestReport baseline, PrintStream out) {
+        out.printf("%-16s %14s %14s %9s%n", "metric", "baseline", "current", "delta");
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String before = baseline.values.get(entry.getKey());
+            if (before == null || entry.getKey().equals("config")) {
+                continue;
+            }
+            double previous = Double.parseDouble(before);
+            double current = Double.parseDouble(entry.getValue());
+            String delta = previous == 0 ? "n/a" : format((current - previous) * 100 / previous) + "%";
+            out.printf("%-16s %14s %14s %9s%n", entry.getKey(), before, entry.getValue(), delta);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return format(nanos / NANOS_PER_MILLI);
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.roy.querydsl.loadtest;
+
+import com.roy.querydsl.datagen.SoccerPlayerDataGenerator;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * /soccer-player 에 대한 open-loop 부하 테스트.
+ * 요청은 응답과 무관하게 정해진 도착 간격으로 발생시키고, 지연 시간은 실제 전송 시각이 아니라 예정된 전송 시각부터 측정하여
+ * coordinated omission 으로 인해 지연이 과소 측정되지 않도록 한다.
+ */
+public class LoadTestRunner {
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final LoadTestConfig config;
+    private final SoccerPlayerDataGenerator generator;
+    private final URI endpoint;
+    private final HttpClient client;
+    private final Random random;
+
+    private LoadTestRunner(LoadTestConfig config, SoccerPlayerDataGenerator generator, URI endpoint) {
+        this.config = config;
+        this.generator = generator;
+        this.endpoint = endpoint;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.random = new Random(config.getSeed());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        SoccerPlayerDataGenerator generator = SoccerPlayerDataGenerator.of(config.getTier(), config.getSeed());
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start("--server.port=0")) {
+            generator.loadWithCsvRead(context.getBean(DataSource.class), config.getOutputDir());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            LoadTestRunner runner = new LoadTestRunner(config, generator, URI.create("http://localhost:" + port + "/soccer-player"));
+            runner.drive(config.getWarmup(), new ConcurrentHistogram(3));
+
+            Histogram histogram = new ConcurrentHistogram(3);
+            long started = System.nanoTime();
+            Result result = runner.drive(config.getDuration(), histogram);
+            double elapsedSeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+            report(config, LoadTestReport.of(config, histogram, result.requests, result.errors, elapsedSeconds), histogram);
+        }
+    }
+
+    private static void report(LoadTestConfig config, LoadTestReport report, Histogram histogram) throws Exception {
+        String runId = LocalDateTime.now().format(RUN_ID);
+        Path outputDir = config.getOutputDir();
+        report.write(outputDir.resolve("report-" + runId + ".properties"));
+        try (PrintStream out = new PrintStream(Files.newOutputStream(outputDir.resolve("latency-" + runId + ".hgrm")))) {
+            histogram.outputPercentileDistribution(out, 1_000_000.0);
+        }
+
+        report.print(System.out);
+        if (Objects.nonNull(config.getBaseline())) {
+            report.printComparison(LoadTestReport.read(config.getBaseline()), System.out);
+        }
+    }
+
+    private Result drive(Duration duration, Histogram histogram) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+        long durationNanos = duration.toNanos();
+        LongAdder errors = new LongAdder();
+        ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        long requests = 0;
+        for (long intended = start; intended - start < durationNanos; intended += intervalNanos) {
+            waitUntil(intended);
+            long scheduledAt = intended;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint + "?" + config.getMix().next(random, generator)))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        histogram.recordValue(System.nanoTime() - scheduledAt);
+                        if (Objects.nonNull(e) || response.statusCode() >= 400) {
+                            errors.increment();
+                        }
+                    }));
+            requests++;
+            inFlight.removeIf(CompletableFuture::isDone);
+        }
+
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .exceptionally(e -> null)
+                .join();
+        return new Result(requests, errors.sum());
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static class Result {
+
+        private final long requests;
+        private final long errors;
+
+        private Result(long requests, long errors) {
+            this.requests = requests;
+            this.errors = errors;
+        }
+    }
+
+}
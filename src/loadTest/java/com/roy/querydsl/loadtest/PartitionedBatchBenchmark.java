@@ -0,0 +1,44 @@
+package com.roy.querydsl.loadtest;
+
+import com.roy.querydsl.batch.BatchReport;
+import com.roy.querydsl.batch.PartitionedBatchRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+
+/**
+ * 작업자 수를 늘려가며 전체 선수의 weight 를 갱신하고 처리량이 얼마나 늘어나는지 본다.
+ * -Dbenchmark.workers=1,2,4,8 로 작업자 수를 정하며, 커넥션 풀이 작업자 수보다 커야 한다.
+ */
+public class PartitionedBatchBenchmark {
+
+    public static void main(String[] args) {
+        int[] workers = Arrays.stream(System.getProperty("benchmark.workers", "1,2,4,8").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int maxWorkers = Arrays.stream(workers).max().orElse(1);
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.hikari.maximum-pool-size=" + (maxWorkers + 2),
+                "--logging.level.com.roy.querydsl.batch=warn")) {
+            BenchmarkSupport.load(context);
+            PartitionedBatchRunner runner = context.getBean(PartitionedBatchRunner.class);
+            runner.run("warmup", soccerPlayer, soccerPlayer.id, maxWorkers, (chunk, entityManager) -> {
+            });
+
+            double baseline = 0;
+            for (int count : workers) {
+                BatchReport report = runner.run("recalculate", soccerPlayer, soccerPlayer.id, count,
+                        (chunk, entityManager) -> chunk.forEach(player -> player.setWeight(player.getWeight() + 1)));
+                baseline = baseline == 0 ? report.getRowsPerSecond() : baseline;
+                System.out.printf("%2d workers %12.0f rows/s  speedup x%.2f%n",
+                        count, report.getRowsPerSecond(), report.getRowsPerSecond() / baseline);
+                report.getPartitions().forEach(partition -> System.out.println("    " + partition));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.roy.querydsl.loadtest;
+
+import com.roy.querydsl.datagen.SoccerPlayerDataGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * 가중치가 붙은 요청 파라미터 목록.
+ * "name={player}:3,team.name={team}:2,:1" 형식이며 {player}, {team} 은 시드 데이터에 존재하는 값으로 치환된다.
+ */
+public class PredicateMix {
+
+    public static final String DEFAULT =
+            "name={player}:3,team.name={team}:3,height=180:1,team.name={team}&sort=name:1,page=5&size=20:2";
+
+    private final List<String> queries;
+    private final int[] cumulativeWeights;
+
+    private PredicateMix(List<String> queries, int[] cumulativeWeights) {
+        this.queries = queries;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    public static PredicateMix parse(String spec) {
+        List<String> queries = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            if (separator < 0) {
+                queries.add(entry.trim());
+                weights.add(1);
+            } else {
+                queries.add(entry.substring(0, separator).trim());
+                weights.add(Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+
+        int[] cumulative = new int[weights.size()];
+        int total = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            total += weights.get(i);
+            cumulative[i] = total;
+        }
+        return new PredicateMix(queries, cumulative);
+    }
+
+    public String next(Random random, SoccerPlayerDataGenerator generator) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (cumulativeWeights[index] <= pick) {
+            index++;
+        }
+        return queries.get(index)
+                .replace("{player}", generator.randomPlayerName(random))
+                .replace("{team}", generator.randomTeamName(random));
+    }
+
+    @Override
+    public String toString() {
+        return queries.stream()
+                .map(query -> query.isEmpty() ? "(none)" : query)
+                .collect(Collectors.joining(","));
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.roy.querydsl.loadtest;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Projections;
+import com.roy.querydsl.dto.QSoccerPlayerDTO;
+import com.roy.querydsl.dto.SoccerPlayerDTO;
+import com.roy.querydsl.repository.support.projection.HandleProjections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+
+/**
+ * 결과 행을 SoccerPlayerDTO 로 바꾸는 비용만 비교한다.
+ * DB 왕복을 빼고 {@link FactoryExpression#newInstance(Object...)} 를 행 수만큼 호출하며,
+ * -Dbenchmark.rows 로 행 수를 바꾸고 GC 프로파일러로 행당 할당량을 함께 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    @Param("10000")
+    private int rows;
+
+    private Object[][] values;
+
+    private final FactoryExpression<SoccerPlayerDTO> bean =
+            Projections.bean(SoccerPlayerDTO.class, soccerPlayer.name, soccerPlayer.height);
+    private final FactoryExpression<SoccerPlayerDTO> fields =
+            Projections.fields(SoccerPlayerDTO.class, soccerPlayer.name, soccerPlayer.height);
+    private final FactoryExpression<SoccerPlayerDTO> constructor =
+            Projections.constructor(SoccerPlayerDTO.class, soccerPlayer.name, soccerPlayer.height);
+    private final FactoryExpression<SoccerPlayerDTO> queryProjection =
+            new QSoccerPlayerDTO(soccerPlayer.name, soccerPlayer.height);
+    private final FactoryExpression<SoccerPlayerDTO> handleBean =
+            HandleProjections.bean(SoccerPlayerDTO.class, soccerPlayer.name, soccerPlayer.height);
+    private final FactoryExpression<SoccerPlayerDTO> handleFields =
+            HandleProjections.fields(SoccerPlayerDTO.class, soccerPlayer.name, soccerPlayer.height);
+    private final FactoryExpression<SoccerPlayerDTO> handleConstructor =
+            HandleProjections.constructor(SoccerPlayerDTO.class, soccerPlayer.name, soccerPlayer.height);
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        values = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            values[i] = new Object[]{"player-" + i, 150 + random.nextInt(50)};
+        }
+    }
+
+    @Benchmark
+    public void projectionsBean(Blackhole blackhole) {
+        run(bean, blackhole);
+    }
+
+    @Benchmark
+    public void projectionsFields(Blackhole blackhole) {
+        run(fields, blackhole);
+    }
+
+    @Benchmark
+    public void projectionsConstructor(Blackhole blackhole) {
+        run(constructor, blackhole);
+    }
+
+    @Benchmark
+    public void queryProjection(Blackhole blackhole) {
+        run(queryProjection, blackhole);
+    }
+
+    @Benchmark
+    public void handleBean(Blackhole blackhole) {
+        run(handleBean, blackhole);
+    }
+
+    @Benchmark
+    public void handleFields(Blackhole blackhole) {
+        run(handleFields, blackhole);
+    }
+
+    @Benchmark
+    public void handleConstructor(Blackhole blackhole) {
+        run(handleConstructor, blackhole);
+    }
+
+    private void run(FactoryExpression<SoccerPlayerDTO> projection, Blackhole blackhole) {
+        for (Object[] row : values) {
+            blackhole.consume(projection.newInstance(row));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProjectionBenchmark.class.getSimpleName())
+                .param("rows", System.getProperty("benchmark.rows", "10000"))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.roy.querydsl.loadtest;
+
+import com.querydsl.sql.codegen.DefaultNamingStrategy;
+import com.querydsl.sql.codegen.MetaDataExporter;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 엔티티 매핑으로 만든 H2 스키마에서 soccer_player, team 테이블의 querydsl-sql 메타데이터(SSoccerPlayer, STeam)를 생성한다.
+ * 엔티티의 컬럼이 바뀌면 ./gradlew generateSqlMetadata 로 다시 생성하여 함께 커밋한다.
+ * 생성된 클래스가 H2 에만 맞지 않도록 스키마는 비워 두어 연결의 기본 스키마를 쓰게 하고(SQLTemplates 의 printSchema 는 켜지 않는다),
+ * H2 가 자동으로 붙인 제약 조건 이름이 남지 않도록 기본 키와 외래 키는 내보내지 않는다. 조인은 on 절로 직접 쓴다.
+ */
+public class SqlMetadataExport {
+
+    public static void main(String[] args) throws SQLException {
+        String target = System.getProperty("sql-metadata.target", "src/main/java");
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start("--spring.main.web-application-type=none");
+             Connection connection = context.getBean(DataSource.class).getConnection()) {
+            MetaDataExporter exporter = new MetaDataExporter();
+            exporter.setPackageName("com.roy.querydsl.repository.sql");
+            exporter.setNamePrefix("S");
+            exporter.setSchemaPattern("PUBLIC");
+            exporter.setTableNamePattern("SOCCER_PLAYER,TEAM");
+            exporter.setExportPrimaryKeys(false);
+            exporter.setExportForeignKeys(false);
+            exporter.setNamingStrategy(new DefaultNamingStrategy() {
+                @Override
+                public String normalizeSchemaName(String schemaName) {
+                    return "";
+                }
+            });
+            exporter.setTargetFolder(new File(target));
+            exporter.export(connection.getMetaData());
+        }
+    }
+
+}
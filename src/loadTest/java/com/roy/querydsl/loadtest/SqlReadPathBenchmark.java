@@ -0,0 +1,75 @@
+package com.roy.querydsl.loadtest;
+
+import com.roy.querydsl.datagen.SoccerPlayerDataGenerator;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import com.roy.querydsl.repository.dsl.SoccerPlayerDslRepository;
+import com.roy.querydsl.repository.sql.SoccerPlayerSqlRepository;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 같은 검색 조건 목록을 JPA 구현(SoccerPlayerRepository)과 querydsl-sql 구현(SoccerPlayerSqlRepository)의
+ * searchSimplePage 로 실행하여 초당 검색 수와 검색당 할당 바이트를 비교한다. 페이지 캐시는 끄고 실행한다.
+ * 예: -Pbenchmark=SqlReadPathBenchmark -Dbenchmark.tier=SMALL -Dbenchmark.searches=500 -Dbenchmark.page-size=20
+ */
+public class SqlReadPathBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start(
+                "--spring.main.web-application-type=none",
+                "--querydsl.page-cache.max-bytes=0")) {
+            SoccerPlayerDataGenerator generator = BenchmarkSupport.load(context);
+            List<SoccerPlayerSearchDTO> searches = searches(generator);
+            int pageSize = Integer.getInteger("benchmark.page-size", 20);
+
+            run("jpa searchSimplePage", context.getBean(SoccerPlayerRepository.class), searches, pageSize);
+            run("querydsl-sql searchSimplePage", context.getBean(SoccerPlayerSqlRepository.class), searches, pageSize);
+        }
+    }
+
+    private static List<SoccerPlayerSearchDTO> searches(SoccerPlayerDataGenerator generator) {
+        Random random = new Random(Long.getLong("benchmark.seed", 42L));
+        int count = Integer.getInteger("benchmark.searches", 500);
+        List<SoccerPlayerSearchDTO> searches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+            switch (i % 3) {
+                case 0:
+                    dto.setTeamName(generator.randomTeamName(random));
+                    break;
+                case 1:
+                    dto.setPlayerName(generator.randomPlayerName(random));
+                    break;
+                default:
+                    dto.setHeightGt(150 + random.nextInt(40));
+                    dto.setWeightGt(50 + random.nextInt(40));
+            }
+            searches.add(dto);
+        }
+        return searches;
+    }
+
+    private static void run(String name, SoccerPlayerDslRepository repository, List<SoccerPlayerSearchDTO> searches, int pageSize) {
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+        double average = BenchmarkSupport.measure(name, () -> {
+            searches.forEach(dto -> repository.searchSimplePage(dto, pageable));
+            return null;
+        });
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+        int rounds = Integer.getInteger("benchmark.warmup", 5) + Integer.getInteger("benchmark.iterations", 20);
+        System.out.printf("%-40s %10.0f searches/s  %10.1f KB/search%n",
+                name, searches.size() / (average / 1000.0), allocated / 1024.0 / rounds / searches.size());
+    }
+
+}
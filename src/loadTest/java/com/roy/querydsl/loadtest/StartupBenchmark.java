@@ -0,0 +1,70 @@
+package com.roy.querydsl.loadtest;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 기본 기동과 lazy-startup 프로필 기동의 time-to-first-request 를 비교한다.
+ * 클래스 로딩과 JIT 상태가 섞이지 않도록 측정마다 새 JVM 으로 StartupProbe 를 실행한다.
+ * 두 모드 모두 ddl-auto=create 로 스키마를 만들므로 ddl 을 끄는 효과는 포함되지 않는다.
+ * 예: -Pbenchmark=StartupBenchmark -Dbenchmark.iterations=5
+ */
+public class StartupBenchmark {
+
+    private static final Map<String, List<String>> MODES = Map.of(
+            "eager", List.of(),
+            "lazy-startup", List.of("--spring.profiles.active=lazy-startup"));
+
+    public static void main(String[] args) throws Exception {
+        int iterations = Integer.getInteger("benchmark.iterations", 5);
+        for (String mode : List.of("eager", "lazy-startup")) {
+            List<Long> ready = new ArrayList<>();
+            List<Long> firstResponse = new ArrayList<>();
+            for (int i = 0; i < iterations; i++) {
+                long[] result = probe(MODES.get(mode));
+                ready.add(result[0]);
+                firstResponse.add(result[1]);
+            }
+            System.out.printf("%-14s ready median %6d ms (min %6d)  first response median %6d ms (min %6d)%n",
+                    mode, median(ready), Collections.min(ready), median(firstResponse), Collections.min(firstResponse));
+        }
+    }
+
+    private static long[] probe(List<String> args) throws Exception {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                StartupProbe.class.getName()));
+        command.addAll(args);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith(StartupProbe.RESULT_PREFIX)) {
+                    result = line.substring(StartupProbe.RESULT_PREFIX.length());
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Startup probe failed: " + command);
+        }
+        String[] values = result.split(" ");
+        if (!"200".equals(values[2])) {
+            throw new IllegalStateException("First request returned " + values[2] + ": " + command);
+        }
+        return new long[]{Long.parseLong(values[0]), Long.parseLong(values[1])};
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.roy.querydsl.loadtest;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+/**
+ * StartupBenchmark 가 새 JVM 으로 실행하는 기동 측정용 main.
+ * JVM 시작부터 컨텍스트 준비까지, 그리고 첫 /soccer-player 응답까지의 시간을 한 줄로 출력한다.
+ */
+public class StartupProbe {
+
+    static final String RESULT_PREFIX = "STARTUP ";
+
+    public static void main(String[] args) throws Exception {
+        long jvmStarted = ManagementFactory.getRuntimeMXBean().getStartTime();
+        String[] merged = Arrays.copyOf(args, args.length + 1);
+        merged[args.length] = "--server.port=0";
+
+        int status;
+        long ready;
+        long firstResponse;
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start(merged)) {
+            ready = System.currentTimeMillis();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/soccer-player?size=1")).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            firstResponse = System.currentTimeMillis();
+            status = response.statusCode();
+        }
+        System.out.println(RESULT_PREFIX + (ready - jvmStarted) + " " + (firstResponse - jvmStarted) + " " + status);
+        System.exit(0);
+    }
+
+}
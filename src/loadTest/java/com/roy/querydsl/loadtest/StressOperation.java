@@ -0,0 +1,28 @@
+package com.roy.querydsl.loadtest;
+
+import java.util.Arrays;
+
+public enum StressOperation {
+
+    INSERT("insert"),
+    CHANGE_TEAM("changeTeam"),
+    BULK_UPDATE("bulkUpdate");
+
+    private final String key;
+
+    StressOperation(String key) {
+        this.key = key;
+    }
+
+    public static StressOperation of(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation " + key));
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.roy.querydsl.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class StressTestConfig {
+
+    public static final String DEFAULT_MIX = "insert:40,changeTeam:40,bulkUpdate:20";
+
+    private final int threads;
+    private final Duration duration;
+    private final int teams;
+    private final int players;
+    private final long seed;
+    private final Map<StressOperation, Integer> mix;
+    private final int totalWeight;
+
+    private StressTestConfig(int threads, Duration duration, int teams, int players, long seed, Map<StressOperation, Integer> mix) {
+        this.threads = threads;
+        this.duration = duration;
+        this.teams = teams;
+        this.players = players;
+        this.seed = seed;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public static StressTestConfig fromSystemProperties() {
+        return new StressTestConfig(
+                Integer.getInteger("stress.threads", 8),
+                Duration.ofSeconds(Long.getLong("stress.duration", 30L)),
+                Integer.getInteger("stress.teams", 20),
+                Integer.getInteger("stress.players", 10_000),
+                Long.getLong("stress.seed", 42L),
+                parseMix(System.getProperty("stress.mix", DEFAULT_MIX)));
+    }
+
+    private static Map<StressOperation, Integer> parseMix(String mix) {
+        Map<StressOperation, Integer> weights = new EnumMap<>(StressOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entry must be operation:weight but was " + entry);
+            }
+            weights.put(StressOperation.of(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    public StressOperation nextOperation(SplittableRandom random) {
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<StressOperation, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getTeams() {
+        return teams;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return "threads=" + threads + ", duration=" + duration.getSeconds() + "s, teams=" + teams
+                + ", players=" + players + ", seed=" + seed + ", mix=" + mix;
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.roy.querydsl.loadtest;
+
+import com.roy.querydsl.datagen.SoccerPlayerDataGenerator;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 선수 등록, 팀 변경, 팀 단위 일괄 수정을 여러 스레드에서 동시에 실행하는 스트레스 테스트.
+ * 작업별 처리량과 지연 시간, 락 대기 타임아웃과 교착 상태 비율을 측정하고,
+ * 종료 후 선수 수, 팀 수, weight 합계, 외래 키 무결성이 커밋된 작업과 일치하는지 확인한다.
+ * 불변식이 깨지면 0 이 아닌 코드로 종료한다.
+ */
+public class StressTestRunner {
+
+    private static final String BULK_UPDATE =
+            "update SoccerPlayer p set p.weight = p.weight + 1 where p.team.id = :teamId";
+
+    private final StressTestConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<StressOperation, OperationStats> stats = new EnumMap<>(StressOperation.class);
+
+    private final LongAdder inserted = new LongAdder();
+    private final LongAdder insertedWeight = new LongAdder();
+    private final LongAdder bulkIncrements = new LongAdder();
+    private final AtomicLong maxPlayerId = new AtomicLong();
+    private long minPlayerId;
+
+    private StressTestRunner(StressTestConfig config, ConfigurableApplicationContext context) {
+        this.config = config;
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+        this.entityManager = context.getBean(EntityManager.class);
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (StressOperation operation : StressOperation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        StressTestConfig config = StressTestConfig.fromSystemProperties();
+        boolean passed;
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.hikari.maximum-pool-size=" + (config.getThreads() + 2))) {
+            new SoccerPlayerDataGenerator(config.getTeams(), config.getPlayers(), config.getPlayers(), 1.1, config.getSeed())
+                    .loadWithJdbcBatch(context.getBean(DataSource.class));
+            passed = new StressTestRunner(config, context).run();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws InterruptedException {
+        System.out.println("stress test: " + config);
+        Snapshot before = snapshot();
+        minPlayerId = config.getTeams() + 1;
+        maxPlayerId.set(config.getTeams() + config.getPlayers());
+
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + config.getDuration().toNanos();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < config.getThreads(); i++) {
+            SplittableRandom random = new SplittableRandom(config.getSeed() + i);
+            Thread worker = new Thread(() -> {
+                awaitQuietly(start);
+                while (System.nanoTime() < deadline) {
+                    execute(config.nextOperation(random), random);
+                }
+            }, "stress-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        printStats(seconds);
+        return verify(before, snapshot());
+    }
+
+    private void execute(StressOperation operation, SplittableRandom random) {
+        OperationStats operationStats = stats.get(operation);
+        long started = System.nanoTime();
+        try {
+            switch (operation) {
+                case INSERT:
+                    insert(random);
+                    break;
+                case CHANGE_TEAM:
+                    changeTeam(random);
+                    break;
+                case BULK_UPDATE:
+                    bulkUpdate(random);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operation " + operation);
+            }
+            operationStats.success(System.nanoTime() - started);
+        } catch (RuntimeException e) {
+            operationStats.failure(classify(e), System.nanoTime() - started);
+        }
+    }
+
+    private void insert(SplittableRandom random) {
+        int weight = 60 + random.nextInt(40);
+        Long id = transactionTemplate.execute(status -> {
+            Team team = entityManager.find(Team.class, randomTeamId(random));
+            SoccerPlayer player = new SoccerPlayer("stress-" + random.nextInt(1_000_000), 160 + random.nextInt(40), weight, team);
+            entityManager.persist(player);
+            entityManager.flush();
+            return player.getId();
+        });
+        inserted.increment();
+        insertedWeight.add(weight);
+        maxPlayerId.accumulateAndGet(id, Math::max);
+    }
+
+    private void changeTeam(SplittableRandom random) {
+        transactionTemplate.executeWithoutResult(status -> {
+            SoccerPlayer player = entityManager.find(SoccerPlayer.class, random.nextLong(minPlayerId, maxPlayerId.get() + 1));
+            if (Objects.nonNull(player)) {
+                player.changeTeam(entityManager.find(Team.class, randomTeamId(random)));
+            }
+        });
+    }
+
+    private void bulkUpdate(SplittableRandom random) {
+        Integer updated = transactionTemplate.execute(status -> entityManager.createQuery(BULK_UPDATE)
+                .setParameter("teamId", randomTeamId(random))
+                .executeUpdate());
+        bulkIncrements.add(updated);
+    }
+
+    private long randomTeamId(SplittableRandom random) {
+        return 1 + random.nextInt(config.getTeams());
+    }
+
+    private Failure classify(Throwable e) {
+        for (Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                if ("40001".equals(sqlException.getSQLState())) {
+                    return Failure.DEADLOCK;
+                }
+                if ("HYT00".equals(sqlException.getSQLState()) || sqlException.getErrorCode() == 50200) {
+                    return Failure.LOCK_TIMEOUT;
+                }
+            }
+        }
+        return Failure.OTHER;
+    }
+
+    private Snapshot snapshot() {
+        return new Snapshot(
+                jdbcTemplate.queryForObject("select count(*) from soccer_player", Long.class),
+                jdbcTemplate.queryForObject("select count(*) from team", Long.class),
+                jdbcTemplate.queryForObject("select coalesce(sum(weight), 0) from soccer_player", Long.class),
+                jdbcTemplate.queryForObject("select count(*) from soccer_player p where p.team_id is not null "
+                        + "and not exists (select 1 from team t where t.team_id = p.team_id)", Long.class));
+    }
+
+    private boolean verify(Snapshot before, Snapshot after) {
+        boolean passed = true;
+        passed &= check("player count", before.players + inserted.sum(), after.players);
+        passed &= check("team count", before.teams, after.teams);
+        passed &= check("weight sum", before.weightSum + insertedWeight.sum() + bulkIncrements.sum(), after.weightSum);
+        passed &= check("orphan players", 0, after.orphans);
+        System.out.println(passed ? "invariants: OK" : "invariants: FAILED");
+        return passed;
+    }
+
+    private boolean check(String name, long expected, long actual) {
+        boolean ok = expected == actual;
+        System.out.printf("  %-16s expected %-12d actual %-12d %s%n", name, expected, actual, ok ? "ok" : "MISMATCH");
+        return ok;
+    }
+
+    private void printStats(double seconds) {
+        System.out.printf("%-12s %10s %10s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "ops/s", "success", "lockWait", "deadlock", "other", "p50 ms", "p99 ms", "max ms");
+        stats.forEach((operation, operationStats) -> {
+            Histogram latency = operationStats.latency;
+            long total = operationStats.total();
+            System.out.printf("%-12s %10.1f %10d %9.2f%% %9.2f%% %9.2f%% %10.2f %10.2f %10.2f%n",
+                    operation.getKey(), total / seconds, operationStats.successes.sum(),
+                    rate(operationStats.failures.get(Failure.LOCK_TIMEOUT).sum(), total),
+                    rate(operationStats.failures.get(Failure.DEADLOCK).sum(), total),
+                    rate(operationStats.failures.get(Failure.OTHER).sum(), total),
+                    latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getMaxValue() / 1000.0);
+        });
+    }
+
+    private static double rate(long count, long total) {
+        return total == 0 ? 0 : count * 100.0 / total;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private enum Failure {
+        LOCK_TIMEOUT, DEADLOCK, OTHER
+    }
+
+    private static class OperationStats {
+
+        private final LongAdder successes = new LongAdder();
+        private final Map<Failure, LongAdder> failures = new EnumMap<>(Failure.class);
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+
+        private OperationStats() {
+            for (Failure failure : Failure.values()) {
+                failures.put(failure, new LongAdder());
+            }
+        }
+
+        private void success(long elapsedNanos) {
+            successes.increment();
+            record(elapsedNanos);
+        }
+
+        private void failure(Failure failure, long elapsedNanos) {
+            failures.get(failure).increment();
+            record(elapsedNanos);
+        }
+
+        private void record(long elapsedNanos) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), latency.getHighestTrackableValue()));
+        }
+
+        private long total() {
+            return successes.sum() + failures.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+
+    private static class Snapshot {
+
+        private final long players;
+        private final long teams;
+        private final long weightSum;
+        private final long orphans;
+
+        private Snapshot(long players, long teams, long weightSum, long orphans) {
+            this.players = players;
+            this.teams = teams;
+            this.weightSum = weightSum;
+            this.orphans = orphans;
+        }
+    }
+
+}
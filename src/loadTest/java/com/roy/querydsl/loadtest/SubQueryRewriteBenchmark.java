@@ -0,0 +1,59 @@
+package com.roy.querydsl.loadtest;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.QSoccerPlayer;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.repository.support.SubQueryRewriter;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.function.Supplier;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+
+/**
+ * subQueryGoeTest / subQueryInSelectTest 형태의 쿼리를 원본과 SubQueryRewriter 적용본으로 비교한다.
+ */
+public class SubQueryRewriteBenchmark {
+
+    public static void main(String[] args) {
+        try (ConfigurableApplicationContext context = BenchmarkSupport.start("--spring.main.web-application-type=none")) {
+            BenchmarkSupport.load(context);
+            EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+            JPAQueryFactory query = new JPAQueryFactory(entityManager);
+            SubQueryRewriter rewriter = new SubQueryRewriter(entityManager);
+            QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+
+            Supplier<JPAQuery<SoccerPlayer>> tallerThanAverage = () -> query
+                    .selectFrom(soccerPlayer)
+                    .where(soccerPlayer.height.goe(select(subQPlayer.height.avg()).from(subQPlayer)))
+                    .limit(100);
+            compare(entityManager, "where avg(height)", tallerThanAverage, rewriter);
+
+            Supplier<JPAQuery<Tuple>> withTeamAverage = () -> query
+                    .select(soccerPlayer.name, select(subQPlayer.height.avg())
+                            .from(subQPlayer)
+                            .where(subQPlayer.team.id.eq(soccerPlayer.team.id)))
+                    .from(soccerPlayer)
+                    .where(soccerPlayer.height.gt(180));
+            compare(entityManager, "select correlated team avg(height)", withTeamAverage, rewriter);
+        }
+    }
+
+    private static void compare(EntityManager entityManager, String name, Supplier<? extends JPAQuery<?>> query, SubQueryRewriter rewriter) {
+        double original = BenchmarkSupport.measure(name + " (original)", () -> {
+            entityManager.clear();
+            return query.get().fetch();
+        });
+        double rewritten = BenchmarkSupport.measure(name + " (rewritten)", () -> {
+            entityManager.clear();
+            return rewriter.rewrite(query.get()).fetch();
+        });
+        System.out.printf("%-40s speedup x%.2f%n", name, original / rewritten);
+    }
+
+}
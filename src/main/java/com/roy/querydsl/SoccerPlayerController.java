@@ -3,26 +3,106 @@ package com.roy.querydsl;
 import com.querydsl.core.types.Predicate;
 import com.roy.querydsl.domain.SoccerPlayer;
 import com.roy.querydsl.repository.SoccerPlayerRepository;
+import com.roy.querydsl.repository.support.DataVersion;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/soccer-player")
 public class SoccerPlayerController {
 
+    private static final Set<String> PAGE_PARAMS = Set.of("page", "size", "sort");
+    private static final Set<String> EQUALITY_PARAMS = Set.of("name", "team.name", "team.id");
+    private static final Set<String> RANGE_PARAMS = Set.of("height", "weight");
+    private static final Set<String> SORT_PROPERTIES = Set.of("id", "name", "height", "weight");
+
     private final SoccerPlayerRepository soccerPlayerRepository;
+    private final DataVersion dataVersion;
 
+    /**
+     * 조건은 SoccerPlayerRepository 의 바인딩대로 인덱스가 있는 경로에만 걸 수 있고, 정렬은 soccer_player 의 인덱스가 있는 속성으로만 할 수 있다.
+     * 전체를 읽게 되는 요청은 400 으로 거절한다.
+     * ETag 는 요청 파라미터와 데이터 버전으로 만들므로 If-None-Match 가 맞으면 DB 를 읽지 않고 304 를 돌려준다.
+     */
     @GetMapping("")
-    public Iterable test(@QuerydslPredicate(root = SoccerPlayer.class) Predicate predicate,
-                        Pageable pageable, @RequestParam MultiValueMap<String, String> params) {
+    public Iterable<SoccerPlayer> test(@QuerydslPredicate(root = SoccerPlayer.class) Predicate predicate,
+                        Pageable pageable, @RequestParam MultiValueMap<String, String> params, WebRequest request) {
+        rejectFullScan(params);
+        rejectUnindexedSort(pageable);
+        if (request.checkNotModified(etag(params))) {
+            return null;
+        }
         return soccerPlayerRepository.findAll(predicate, pageable);
     }
 
+    /**
+     * 바인딩되지 않는 파라미터와 빈 이름 접두어는 인덱스를 타지 못하고, 한쪽만 열린 범위만 있는 조건은 인덱스 대부분을 읽는다.
+     */
+    private static void rejectFullScan(MultiValueMap<String, String> params) {
+        Set<String> filters = new HashSet<>(params.keySet());
+        filters.removeAll(PAGE_PARAMS);
+        for (String filter : filters) {
+            if (!EQUALITY_PARAMS.contains(filter) && !RANGE_PARAMS.contains(filter)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, filter + " is not an indexed search property");
+            }
+        }
+        if (params.getOrDefault("name", List.of()).stream().anyMatch(String::isBlank)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "name prefix must not be blank");
+        }
+        boolean selective = filters.stream().anyMatch(filter -> EQUALITY_PARAMS.contains(filter)
+                || params.get(filter).stream().noneMatch(String::isBlank));
+        if (!filters.isEmpty() && !selective) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "an open range needs another indexed condition");
+        }
+    }
+
+    /**
+     * 연관 경로나 인덱스가 없는 속성으로 정렬하면 조인과 전체 정렬이 필요하다.
+     */
+    private static void rejectUnindexedSort(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, order.getProperty() + " is not an indexed sort property");
+            }
+        }
+    }
+
+    /**
+     * Predicate 의 문자열은 컬렉션 상수를 쉼표로 이어 붙여 서로 다른 요청이 같게 보일 수 있으므로,
+     * 파라미터를 이름순으로 정렬하고 이름과 값마다 길이를 앞에 붙여 구분한다.
+     */
+    private String etag(MultiValueMap<String, String> params) {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, List<String>> param : new TreeMap<>(params).entrySet()) {
+            append(query, param.getKey());
+            query.append(param.getValue().size()).append(':');
+            param.getValue().forEach(value -> append(query, value));
+        }
+        return "\"" + dataVersion.getEpoch() + "-" + dataVersion.current() + "-"
+                + DigestUtils.md5DigestAsHex(query.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static void append(StringBuilder query, String value) {
+        query.append(value.length()).append(':').append(value);
+    }
+
 }
@@ -0,0 +1,49 @@
+package com.roy.querydsl.accounting;
+
+import com.roy.querydsl.repository.support.CustomQuerydslRepositorySupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * querydsl.accounting.enabled=true 일 때만 레포지토리와 컨트롤러 호출의 할당 바이트와 CPU 시간을 측정한다.
+ * 꺼져 있으면 프록시와 인터셉터를 등록하지 않으므로 호출 경로에 추가 비용이 없다.
+ * 측정값은 querydsl.allocated(bytes), querydsl.cpu 메트릭으로 /actuator/metrics 에서 볼 수 있다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "querydsl.accounting.enabled", havingValue = "true")
+public class AccountingConfig {
+
+    @Bean
+    public ResourceAccounting resourceAccounting(MeterRegistry meterRegistry,
+                                                 @Value("${querydsl.accounting.max-shapes-per-method:100}") int maxShapesPerMethod) {
+        return new ResourceAccounting(meterRegistry, maxShapesPerMethod);
+    }
+
+    @Bean
+    public Advisor repositoryAccountingAdvisor(ResourceAccounting resourceAccounting) {
+        ComposablePointcut repositories = new ComposablePointcut(new RootClassFilter(Repository.class))
+                .union(new RootClassFilter(CustomQuerydslRepositorySupport.class));
+        return new DefaultPointcutAdvisor(repositories, new RepositoryAccountingInterceptor(resourceAccounting));
+    }
+
+    @Bean
+    public WebMvcConfigurer requestAccountingConfigurer(ResourceAccounting resourceAccounting) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RequestAccountingInterceptor(resourceAccounting));
+            }
+        };
+    }
+
+}
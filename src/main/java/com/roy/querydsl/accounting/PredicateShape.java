@@ -0,0 +1,125 @@
+package com.roy.querydsl.accounting;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.beans.PropertyDescriptor;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * 메서드 인자에서 값을 뺀 조건의 모양을 문자열로 만든다.
+ * Querydsl Predicate 는 상수를 ? 로 바꾼 식으로, dto 패키지의 검색 조건은 값이 있는 필드 이름 목록으로 나타낸다.
+ */
+public final class PredicateShape {
+
+    public static final String NONE = "-";
+
+    private static final String DTO_PACKAGE = "com.roy.querydsl.dto";
+
+    private PredicateShape() {
+    }
+
+    public static String of(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Predicate) {
+                return of((Predicate) arg);
+            }
+            if (Objects.nonNull(arg) && DTO_PACKAGE.equals(arg.getClass().getPackageName())) {
+                return ofBean(arg);
+            }
+        }
+        return NONE;
+    }
+
+    public static String of(Predicate predicate) {
+        StringBuilder shape = new StringBuilder();
+        predicate.accept(ShapeVisitor.INSTANCE, shape);
+        return shape.toString();
+    }
+
+    private static String ofBean(Object bean) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(bean);
+        StringJoiner shape = new StringJoiner(",");
+        for (PropertyDescriptor property : wrapper.getPropertyDescriptors()) {
+            String name = property.getName();
+            if (!"class".equals(name) && wrapper.isReadableProperty(name) && Objects.nonNull(wrapper.getPropertyValue(name))) {
+                shape.add(name);
+            }
+        }
+        return shape.length() == 0 ? NONE : shape.toString();
+    }
+
+    private static class ShapeVisitor implements Visitor<Void, StringBuilder> {
+
+        private static final ShapeVisitor INSTANCE = new ShapeVisitor();
+
+        @Override
+        public Void visit(Constant<?> expr, StringBuilder shape) {
+            shape.append('?');
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, StringBuilder shape) {
+            return visitAll(expr.getType().getSimpleName(), expr.getArgs(), shape);
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, StringBuilder shape) {
+            return visitAll(expr.getOperator().name(), expr.getArgs(), shape);
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, StringBuilder shape) {
+            shape.append('?');
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, StringBuilder shape) {
+            shape.append(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, StringBuilder shape) {
+            shape.append("subquery");
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, StringBuilder shape) {
+            return visitAll(String.valueOf(expr.getTemplate()), expr.getArgs(), shape);
+        }
+
+        private Void visitAll(String name, Iterable<?> args, StringBuilder shape) {
+            shape.append(name).append('(');
+            boolean first = true;
+            for (Object arg : args) {
+                if (!first) {
+                    shape.append(", ");
+                }
+                first = false;
+                if (arg instanceof Expression) {
+                    ((Expression<?>) arg).accept(this, shape);
+                } else {
+                    shape.append('?');
+                }
+            }
+            shape.append(')');
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.roy.querydsl.accounting;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 레포지토리 메서드 호출 하나를 layer=repository 로 측정한다.
+ */
+class RepositoryAccountingInterceptor implements MethodInterceptor {
+
+    static final String LAYER = "repository";
+
+    private final ResourceAccounting accounting;
+
+    RepositoryAccountingInterceptor(ResourceAccounting accounting) {
+        this.accounting = accounting;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ThreadUsage start = accounting.start();
+        try {
+            return invocation.proceed();
+        } finally {
+            accounting.record(LAYER, repositoryName(invocation.getThis()) + "." + invocation.getMethod().getName(),
+                    PredicateShape.of(invocation.getArguments()), start);
+        }
+    }
+
+    private static String repositoryName(Object target) {
+        if (target instanceof Advised) {
+            for (Class<?> repository : ((Advised) target).getProxiedInterfaces()) {
+                if (Repository.class.isAssignableFrom(repository) && !repository.getName().startsWith("org.springframework.")) {
+                    return repository.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(AopUtils.getTargetClass(target)).getSimpleName();
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.roy.querydsl.accounting;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 컨트롤러 요청 하나를 layer=request 로 측정한다. shape 는 페이징 파라미터를 뺀 요청 파라미터 이름 목록이다.
+ */
+class RequestAccountingInterceptor implements HandlerInterceptor {
+
+    static final String LAYER = "request";
+
+    private static final String START = RequestAccountingInterceptor.class.getName() + ".START";
+    private static final Set<String> PAGING = Set.of("page", "size", "sort");
+
+    private final ResourceAccounting accounting;
+
+    RequestAccountingInterceptor(ResourceAccounting accounting) {
+        this.accounting = accounting;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(START, accounting.start());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START);
+        if (Objects.isNull(start)) {
+            return;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String method = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        accounting.record(LAYER, method, shape(request), (ThreadUsage) start);
+    }
+
+    private static String shape(HttpServletRequest request) {
+        List<String> names = Collections.list(request.getParameterNames()).stream()
+                .filter(name -> !PAGING.contains(name))
+                .sorted()
+                .collect(Collectors.toList());
+        return names.isEmpty() ? PredicateShape.NONE : String.join(",", names);
+    }
+
+}
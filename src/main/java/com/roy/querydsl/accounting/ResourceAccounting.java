@@ -0,0 +1,62 @@
+package com.roy.querydsl.accounting;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 측정 구간의 할당 바이트와 CPU 시간을 layer, method, shape 태그로 기록한다.
+ * 메서드마다 shape 는 maxShapesPerMethod 개까지만 구분하고 나머지는 other 로 합쳐 태그 수가 늘어나지 않게 한다.
+ */
+public class ResourceAccounting {
+
+    static final String ALLOCATED = "querydsl.allocated";
+    static final String CPU = "querydsl.cpu";
+    static final String OTHER_SHAPE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxShapesPerMethod;
+    private final Map<String, Set<String>> shapes = new ConcurrentHashMap<>();
+
+    public ResourceAccounting(MeterRegistry meterRegistry, int maxShapesPerMethod) {
+        this.meterRegistry = meterRegistry;
+        this.maxShapesPerMethod = maxShapesPerMethod;
+        ThreadUsage.enable();
+    }
+
+    ThreadUsage start() {
+        return ThreadUsage.now();
+    }
+
+    void record(String layer, String method, String shape, ThreadUsage start) {
+        ThreadUsage end = ThreadUsage.now();
+        String boundedShape = bound(method, shape);
+        DistributionSummary.builder(ALLOCATED)
+                .baseUnit("bytes")
+                .tags("layer", layer, "method", method, "shape", boundedShape)
+                .register(meterRegistry)
+                .record(end.allocatedBytesSince(start));
+        Timer.builder(CPU)
+                .tags("layer", layer, "method", method, "shape", boundedShape)
+                .register(meterRegistry)
+                .record(end.cpuNanosSince(start), TimeUnit.NANOSECONDS);
+    }
+
+    private String bound(String method, String shape) {
+        Set<String> known = shapes.computeIfAbsent(method, key -> ConcurrentHashMap.newKeySet());
+        if (known.contains(shape)) {
+            return shape;
+        }
+        if (known.size() >= maxShapesPerMethod) {
+            return OTHER_SHAPE;
+        }
+        known.add(shape);
+        return shape;
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.roy.querydsl.accounting;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 현재 스레드가 지금까지 할당한 바이트 수와 사용한 CPU 시간의 스냅샷.
+ * 측정 구간이 다른 스레드로 넘긴 작업(AsyncQueryExecutor 등)은 포함하지 않는다.
+ */
+final class ThreadUsage {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final long allocatedBytes;
+    private final long cpuNanos;
+
+    private ThreadUsage(long allocatedBytes, long cpuNanos) {
+        this.allocatedBytes = allocatedBytes;
+        this.cpuNanos = cpuNanos;
+    }
+
+    static void enable() {
+        if (THREADS.isThreadAllocatedMemorySupported() && !THREADS.isThreadAllocatedMemoryEnabled()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        if (THREADS.isCurrentThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    static ThreadUsage now() {
+        return new ThreadUsage(THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()), THREADS.getCurrentThreadCpuTime());
+    }
+
+    long allocatedBytesSince(ThreadUsage start) {
+        return Math.max(0, allocatedBytes - start.allocatedBytes);
+    }
+
+    long cpuNanosSince(ThreadUsage start) {
+        return Math.max(0, cpuNanos - start.cpuNanos);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.roy.querydsl.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public class BatchReport {
+
+    private final String job;
+    private final int parallelism;
+    private final List<PartitionResult> partitions;
+    private final Duration elapsed;
+
+    public long getRows() {
+        return partitions.stream().mapToLong(PartitionResult::getRows).sum();
+    }
+
+    public boolean isSuccessful() {
+        return partitions.stream().allMatch(PartitionResult::isSuccessful);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsed.isZero() ? getRows() : getRows() * 1_000_000_000.0 / elapsed.toNanos();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows in %d partitions on %d workers, %d ms, %.0f rows/s%s",
+                job, getRows(), partitions.size(), parallelism, elapsed.toMillis(), getRowsPerSecond(),
+                isSuccessful() ? "" : ", with failed partitions");
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.roy.querydsl.batch;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * 한 청크의 엔티티를 처리한다.
+ * 청크는 파티션 전용 EntityManager 의 트랜잭션 안에서 전달되며, 엔티티 변경은 청크가 끝날 때 JDBC 배치로 flush 된다.
+ */
+@FunctionalInterface
+public interface ChunkProcessor<T> {
+
+    void process(List<T> chunk, EntityManager entityManager);
+
+}
@@ -0,0 +1,36 @@
+package com.roy.querydsl.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 양 끝을 포함하는 식별자 범위.
+ */
+@Getter
+@RequiredArgsConstructor
+public class IdRange {
+
+    private final long from;
+    private final long to;
+
+    public static List<IdRange> split(long min, long max, int partitions) {
+        long size = max - min + 1;
+        int count = (int) Math.max(1, Math.min(partitions, size));
+        List<IdRange> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long from = min + size * i / count;
+            long to = min + size * (i + 1) / count - 1;
+            ranges.add(new IdRange(from, to));
+        }
+        return ranges;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + "]";
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.roy.querydsl.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Objects;
+
+@Getter
+@RequiredArgsConstructor
+public class PartitionResult {
+
+    private final IdRange range;
+    private final String worker;
+    private final long rows;
+    private final int chunks;
+    private final Duration elapsed;
+    private final Throwable failure;
+
+    public boolean isSuccessful() {
+        return Objects.isNull(failure);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsed.isZero() ? rows : rows * 1_000_000_000.0 / elapsed.toNanos();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s on %s: %d rows in %d chunks, %d ms, %.0f rows/s%s",
+                range, worker, rows, chunks, elapsed.toMillis(), getRowsPerSecond(),
+                isSuccessful() ? "" : ", failed: " + failure);
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.roy.querydsl.batch;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.EntityPathBase;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceUnitUtil;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 식별자 범위를 파티션으로 나누어 병렬로 처리한다.
+ * 파티션마다 전용 EntityManager 를 열고 식별자 순서로 청크를 읽으며, 청크마다 flush 후 커밋하고 clear 하여
+ * 영속성 컨텍스트가 청크 크기 이상으로 커지지 않게 한다.
+ * 파티션 수는 작업자 수보다 많게 나누어 먼저 끝난 작업자가 남은 파티션을 가져가도록 한다.
+ * 청크마다 따로 커밋하므로 파티션이 중간에 실패하면 실패한 청크만 롤백되고, 앞서 커밋된 청크는 남아 PartitionResult 의 rows 로 보고된다.
+ */
+@Slf4j
+@Component
+public class PartitionedBatchRunner {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final int parallelism;
+    private final int chunkSize;
+    private final int partitionsPerWorker;
+
+    public PartitionedBatchRunner(EntityManagerFactory entityManagerFactory,
+                                  @Value("${querydsl.batch.parallelism:4}") int parallelism,
+                                  @Value("${querydsl.batch.chunk-size:1000}") int chunkSize,
+                                  @Value("${querydsl.batch.partitions-per-worker:4}") int partitionsPerWorker) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.partitionsPerWorker = partitionsPerWorker;
+    }
+
+    public <T> BatchReport run(String job, EntityPathBase<T> root, NumberPath<Long> id, ChunkProcessor<T> processor) {
+        return run(job, root, id, parallelism, processor);
+    }
+
+    public <T> BatchReport run(String job, EntityPathBase<T> root, NumberPath<Long> id, int workers, ChunkProcessor<T> processor) {
+        long started = System.nanoTime();
+        List<IdRange> ranges = ranges(root, id, workers * partitionsPerWorker);
+        if (ranges.isEmpty()) {
+            return new BatchReport(job, workers, Collections.emptyList(), Duration.ofNanos(System.nanoTime() - started));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new WorkerThreadFactory(job));
+        try {
+            List<CompletableFuture<PartitionResult>> futures = ranges.stream()
+                    .map(range -> CompletableFuture.supplyAsync(() -> runPartition(range, root, id, processor), executor))
+                    .collect(Collectors.toList());
+            List<PartitionResult> results = futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+
+            BatchReport report = new BatchReport(job, workers, results, Duration.ofNanos(System.nanoTime() - started));
+            results.forEach(result -> log.info("{} partition {}", job, result));
+            log.info("{}", report);
+            return report;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<IdRange> ranges(EntityPathBase<?> root, NumberPath<Long> id, int partitions) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Tuple bounds = new JPAQueryFactory(entityManager)
+                    .select(id.min(), id.max())
+                    .from(root)
+                    .fetchOne();
+            if (Objects.isNull(bounds) || Objects.isNull(bounds.get(id.min()))) {
+                return Collections.emptyList();
+            }
+            return IdRange.split(bounds.get(id.min()), bounds.get(id.max()), partitions);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private <T> PartitionResult runPartition(IdRange range, EntityPathBase<T> root, NumberPath<Long> id, ChunkProcessor<T> processor) {
+        long started = System.nanoTime();
+        String worker = Thread.currentThread().getName();
+        long rows = 0;
+        int chunks = 0;
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(chunkSize);
+            JPAQueryFactory query = new JPAQueryFactory(entityManager);
+            PersistenceUnitUtil persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+
+            long cursor = range.getFrom() - 1;
+            while (true) {
+                EntityTransaction transaction = entityManager.getTransaction();
+                transaction.begin();
+                try {
+                    List<T> chunk = query.selectFrom(root)
+                            .where(id.gt(cursor), id.loe(range.getTo()))
+                            .orderBy(id.asc())
+                            .limit(chunkSize)
+                            .fetch();
+                    if (!chunk.isEmpty()) {
+                        processor.process(chunk, entityManager);
+                        cursor = (Long) persistenceUnitUtil.getIdentifier(chunk.get(chunk.size() - 1));
+                    }
+                    entityManager.flush();
+                    transaction.commit();
+                    entityManager.clear();
+
+                    rows += chunk.size();
+                    chunks += chunk.isEmpty() ? 0 : 1;
+                    if (chunk.size() < chunkSize) {
+                        break;
+                    }
+                } catch (RuntimeException e) {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    throw e;
+                }
+            }
+            return new PartitionResult(range, worker, rows, chunks, Duration.ofNanos(System.nanoTime() - started), null);
+        } catch (RuntimeException e) {
+            log.error("Partition {} failed after {} rows", range, rows, e);
+            return new PartitionResult(range, worker, rows, chunks, Duration.ofNanos(System.nanoTime() - started), e);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final String job;
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        private WorkerThreadFactory(String job) {
+            this.job = job;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, "batch-" + job + "-" + sequence.incrementAndGet());
+        }
+    }
+
+}
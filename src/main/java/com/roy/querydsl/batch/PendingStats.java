@@ -0,0 +1,71 @@
+package com.roy.querydsl.batch;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 한 선수에 대해 아직 쓰지 않은 수치 변경.
+ * 수치마다 마지막으로 설정한 값(없으면 현재 컬럼 값)과 그 뒤에 누적된 증감을 갖는다.
+ */
+class PendingStats {
+
+    private final Map<PlayerStat, Change> changes = new EnumMap<>(PlayerStat.class);
+    private int failures;
+
+    void set(PlayerStat stat, int value) {
+        changes.put(stat, new Change(value, 0));
+    }
+
+    void add(PlayerStat stat, int delta) {
+        changes.merge(stat, new Change(null, delta), (current, added) -> new Change(current.value, current.delta + delta));
+    }
+
+    /**
+     * 쓰기에 실패했음을 기록하고 지금까지 실패한 횟수를 돌려준다.
+     */
+    int failed() {
+        return ++failures;
+    }
+
+    /**
+     * 이 변경 뒤에 later 가 일어난 것으로 합친다. 실패 횟수는 이 변경의 것을 유지한다.
+     */
+    PendingStats andThen(PendingStats later) {
+        later.changes.forEach((stat, change) -> {
+            if (Objects.nonNull(change.value)) {
+                changes.put(stat, change);
+            } else {
+                add(stat, change.delta);
+            }
+        });
+        return this;
+    }
+
+    Map<PlayerStat, Change> getChanges() {
+        return changes;
+    }
+
+    static class Change {
+
+        private final Integer value;
+        private final int delta;
+
+        private Change(Integer value, int delta) {
+            this.value = value;
+            this.delta = delta;
+        }
+
+        /**
+         * 설정한 값이 있으면 그 값에 증감을 더한 결과, 없으면 null.
+         */
+        Integer absolute() {
+            return Objects.nonNull(value) ? value + delta : null;
+        }
+
+        int getDelta() {
+            return delta;
+        }
+    }
+
+}
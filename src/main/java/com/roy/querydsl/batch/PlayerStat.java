@@ -0,0 +1,25 @@
+package com.roy.querydsl.batch;
+
+import com.querydsl.core.types.dsl.NumberPath;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+
+/**
+ * PlayerStatWriteBuffer 로 갱신할 수 있는 선수 수치.
+ */
+public enum PlayerStat {
+
+    HEIGHT(soccerPlayer.height),
+    WEIGHT(soccerPlayer.weight);
+
+    private final NumberPath<Integer> path;
+
+    PlayerStat(NumberPath<Integer> path) {
+        this.path = path;
+    }
+
+    public NumberPath<Integer> getPath() {
+        return path;
+    }
+
+}
@@ -0,0 +1,275 @@
+package com.roy.querydsl.batch;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+
+/**
+ * 선수 수치 변경을 선수 id 별로 메모리에서 합쳐 두었다가 주기적으로 update 문으로 쓴다.
+ * 같은 선수에 대한 set 은 마지막 값이 이기고 add 는 누적되며, flush 는 flush-chunk 명의 선수를 CASE 식 update 한 번으로 쓴다.
+ * 대기 중인 선수 수가 max-pending 에 닿으면 즉시 flush 를 요청하고 offer-timeout 동안 자리가 나기를 기다린 뒤 거절한다.
+ * 쓰기에 실패한 변경은 다시 대기열에 넣되, max-attempts 번 실패한 변경은 로그를 남기고 버린다.
+ * 종료 시에는 새 변경을 막은 뒤 남은 변경을 모두 쓴다.
+ * update 는 영속성 컨텍스트를 거치지 않으므로 이미 읽어 둔 엔티티에는 반영되지 않는다.
+ */
+@Slf4j
+@Component
+public class PlayerStatWriteBuffer implements DisposableBean {
+
+    private static final int SHUTDOWN_FLUSH_ATTEMPTS = 3;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final int flushChunk;
+    private final Duration offerTimeout;
+    private final int maxAttempts;
+    private final ConcurrentHashMap<Long, PendingStats> pending = new ConcurrentHashMap<>();
+    private final Semaphore capacity;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService scheduler;
+    private boolean closed;
+
+    public PlayerStatWriteBuffer(EntityManagerFactory entityManagerFactory,
+                                 @Value("${querydsl.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                 @Value("${querydsl.write-behind.max-pending:10000}") int maxPending,
+                                 @Value("${querydsl.write-behind.flush-chunk:100}") int flushChunk,
+                                 @Value("${querydsl.write-behind.offer-timeout:1s}") Duration offerTimeout,
+                                 @Value("${querydsl.write-behind.max-attempts:5}") int maxAttempts) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.flushChunk = flushChunk;
+        this.offerTimeout = offerTimeout;
+        this.maxAttempts = maxAttempts;
+        this.capacity = new Semaphore(maxPending);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "player-stat-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void set(Long playerId, PlayerStat stat, int value) {
+        offer(playerId, stats -> stats.set(stat, value));
+    }
+
+    public void add(Long playerId, PlayerStat stat, int delta) {
+        offer(playerId, stats -> stats.add(stat, delta));
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    /**
+     * 대기 중인 변경을 모두 쓰고 쓴 선수 수를 돌려준다.
+     * 실패한 청크의 변경은 그 사이 들어온 변경 앞에 다시 합쳐 두고 예외를 던진다. max-attempts 번 실패한 변경은 버린다.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<Long> playerIds = new ArrayList<>(pending.keySet());
+            int written = 0;
+            for (int from = 0; from < playerIds.size(); from += flushChunk) {
+                Map<Long, PendingStats> chunk = new LinkedHashMap<>();
+                for (Long playerId : playerIds.subList(from, Math.min(from + flushChunk, playerIds.size()))) {
+                    PendingStats stats = pending.remove(playerId);
+                    if (Objects.nonNull(stats)) {
+                        chunk.put(playerId, stats);
+                    }
+                }
+                if (chunk.isEmpty()) {
+                    continue;
+                }
+                try {
+                    write(chunk);
+                } catch (RuntimeException e) {
+                    requeue(chunk, e);
+                    throw e;
+                }
+                capacity.release(chunk.size());
+                written += chunk.size();
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        scheduler.shutdown();
+        scheduler.awaitTermination(offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                if (attempt >= SHUTDOWN_FLUSH_ATTEMPTS) {
+                    log.error("Dropping {} pending player stat updates on shutdown", pending.size(), e);
+                    return;
+                }
+                log.warn("Failed to flush player stat updates on shutdown, attempt {}", attempt, e);
+            }
+        }
+    }
+
+    /**
+     * 종료 중인 destroy 가 마지막 flush 를 시작하기 전에 끝난 변경만 받아들이도록 closeLock 의 읽기 잠금 안에서 넣는다.
+     */
+    private void offer(Long playerId, Consumer<PendingStats> change) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Player stat write buffer is closed");
+            }
+            merge(playerId, change);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    private void merge(Long playerId, Consumer<PendingStats> change) {
+        boolean merged = Objects.nonNull(pending.computeIfPresent(playerId, (id, stats) -> {
+            change.accept(stats);
+            return stats;
+        }));
+        if (merged) {
+            return;
+        }
+
+        acquire();
+        boolean[] inserted = {false};
+        pending.compute(playerId, (id, stats) -> {
+            if (Objects.isNull(stats)) {
+                stats = new PendingStats();
+                inserted[0] = true;
+            }
+            change.accept(stats);
+            return stats;
+        });
+        if (!inserted[0]) {
+            capacity.release();
+        }
+    }
+
+    private void acquire() {
+        if (capacity.tryAcquire()) {
+            return;
+        }
+        scheduler.execute(this::flushQuietly);
+        try {
+            if (!capacity.tryAcquire(offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Player stat write buffer is full: " + pending.size() + " players pending");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for write buffer capacity", e);
+        }
+    }
+
+    private void requeue(Map<Long, PendingStats> chunk, RuntimeException cause) {
+        int dropped = 0;
+        for (Map.Entry<Long, PendingStats> entry : chunk.entrySet()) {
+            PendingStats stats = entry.getValue();
+            if (stats.failed() >= maxAttempts) {
+                capacity.release();
+                dropped++;
+                continue;
+            }
+            boolean[] combined = {false};
+            pending.compute(entry.getKey(), (id, newer) -> {
+                if (Objects.isNull(newer)) {
+                    return stats;
+                }
+                combined[0] = true;
+                return stats.andThen(newer);
+            });
+            if (combined[0]) {
+                capacity.release();
+            }
+        }
+        if (dropped > 0) {
+            log.error("Dropping {} player stat updates after {} failed attempts", dropped, maxAttempts, cause);
+        }
+    }
+
+    private void write(Map<Long, PendingStats> chunk) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            JPAUpdateClause update = new JPAQueryFactory(entityManager).update(soccerPlayer);
+            for (PlayerStat stat : PlayerStat.values()) {
+                CaseBuilder.Cases<Integer, NumberExpression<Integer>> cases = null;
+                for (Map.Entry<Long, PendingStats> entry : chunk.entrySet()) {
+                    PendingStats.Change change = entry.getValue().getChanges().get(stat);
+                    if (Objects.isNull(change)) {
+                        continue;
+                    }
+                    NumberExpression<Integer> value = Objects.nonNull(change.absolute())
+                            ? Expressions.asNumber(change.absolute())
+                            : stat.getPath().add(change.getDelta());
+                    BooleanExpression matches = soccerPlayer.id.eq(entry.getKey());
+                    cases = Objects.isNull(cases)
+                            ? new CaseBuilder().when(matches).then(value)
+                            : cases.when(matches).then(value);
+                }
+                if (Objects.nonNull(cases)) {
+                    update.set(stat.getPath(), cases.otherwise(stat.getPath()));
+                }
+            }
+            update.where(soccerPlayer.id.in(chunk.keySet())).execute();
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush player stat updates, {} players pending", pending.size(), e);
+        }
+    }
+
+}
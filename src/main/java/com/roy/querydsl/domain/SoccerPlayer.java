@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.Hibernate;
 
 import javax.persistence.*;
 
@@ -14,6 +15,10 @@ import static javax.persistence.FetchType.LAZY;
 import static lombok.AccessLevel.PROTECTED;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_soccer_player_name", columnList = "name"),
+        @Index(name = "idx_soccer_player_height", columnList = "height"),
+        @Index(name = "idx_soccer_player_weight", columnList = "weight")})
 @Getter @Setter
 @ToString(of = {"id", "name", "height", "weight"})
 @NoArgsConstructor(access = PROTECTED)
@@ -51,9 +56,22 @@ public class SoccerPlayer {
         }
     }
 
+    /**
+     * 팀의 선수 목록은 이미 로딩된 경우에만 갱신한다.
+     * 식별자로 얻은 Team 참조나 로딩되지 않은 선수 목록을 초기화하지 않으므로 큰 팀 사이의 이동도 선수 목록을 읽지 않는다.
+     */
     public void changeTeam(Team team) {
+        if (isRosterLoaded(this.team)) {
+            this.team.getSoccerPlayers().remove(this);
+        }
         this.team = team;
-        team.getSoccerPlayers().add(this);
+        if (isRosterLoaded(team)) {
+            team.getSoccerPlayers().add(this);
+        }
+    }
+
+    private static boolean isRosterLoaded(Team team) {
+        return Objects.nonNull(team) && Hibernate.isInitialized(team) && Hibernate.isInitialized(team.getSoccerPlayers());
     }
 
 }
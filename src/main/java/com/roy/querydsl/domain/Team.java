@@ -1,5 +1,7 @@
 package com.roy.querydsl.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -13,6 +15,8 @@ import java.util.List;
 import static lombok.AccessLevel.PROTECTED;
 
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
+@JsonIgnoreProperties("hibernateLazyInitializer")
 @Getter @Setter
 @ToString(of = {"id", "name"})
 @NoArgsConstructor(access = PROTECTED)
@@ -24,6 +28,7 @@ public class Team {
     private Long id;
     private String name;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "team")
     private List<SoccerPlayer> soccerPlayers = new ArrayList<>();
 
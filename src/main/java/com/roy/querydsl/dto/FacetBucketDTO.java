@@ -0,0 +1,12 @@
+package com.roy.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FacetBucketDTO {
+    private String key;
+    private String label;
+    private long count;
+}
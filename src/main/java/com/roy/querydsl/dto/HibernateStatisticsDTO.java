@@ -0,0 +1,23 @@
+package com.roy.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class HibernateStatisticsDTO {
+    private long planCacheHits;
+    private long planCacheMisses;
+    private double planCacheHitRatio;
+    private long entityLoads;
+    private long entityFetches;
+    private long collectionFetches;
+    private long secondLevelCacheHits;
+    private long secondLevelCacheMisses;
+    private long flushes;
+    private String slowestQuery;
+    private long slowestQueryMillis;
+    private List<QueryStatisticsDTO> queries;
+}
@@ -0,0 +1,18 @@
+package com.roy.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class QueryStatisticsDTO {
+    private String hash;
+    private String query;
+    private long executions;
+    private long totalMillis;
+    private long maxMillis;
+    private long avgMillis;
+    private long rows;
+    private long planCacheHits;
+    private long planCacheMisses;
+}
@@ -0,0 +1,15 @@
+package com.roy.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SoccerPlayerFacetsDTO {
+    private long total;
+    private List<FacetBucketDTO> teams;
+    private List<FacetBucketDTO> heights;
+    private List<FacetBucketDTO> weights;
+}
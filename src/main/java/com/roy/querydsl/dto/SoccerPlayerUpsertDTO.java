@@ -0,0 +1,15 @@
+package com.roy.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SoccerPlayerUpsertDTO {
+    private String name;
+    private Integer height;
+    private Integer weight;
+    private String teamName;
+}
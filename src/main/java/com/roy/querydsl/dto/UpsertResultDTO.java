@@ -0,0 +1,11 @@
+package com.roy.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UpsertResultDTO {
+    private long inserted;
+    private long updated;
+}
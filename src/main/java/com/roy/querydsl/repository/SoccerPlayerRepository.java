@@ -1,14 +1,114 @@
 package com.roy.querydsl.repository;
 
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.roy.querydsl.domain.QSoccerPlayer;
 import com.roy.querydsl.domain.SoccerPlayer;
 import com.roy.querydsl.repository.dsl.SoccerPlayerDslRepository;
 import com.roy.querydsl.repository.query.SoccerPlayerQueryRepository;
+import com.roy.querydsl.repository.support.ReadOnlyQueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface SoccerPlayerRepository extends
         JpaRepository<SoccerPlayer, Long>,
         SoccerPlayerQueryRepository,
         SoccerPlayerDslRepository,
-        QuerydslPredicateExecutor<SoccerPlayer> {
+        QuerydslPredicateExecutor<SoccerPlayer>,
+        QuerydslBinderCustomizer<QSoccerPlayer> {
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_READONLY, value = ReadOnlyQueryHints.READ_ONLY),
+            @QueryHint(name = HINT_FLUSH_MODE, value = ReadOnlyQueryHints.FLUSH_MODE)})
+    Optional<SoccerPlayer> findOne(Predicate predicate);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_READONLY, value = ReadOnlyQueryHints.READ_ONLY),
+            @QueryHint(name = HINT_FLUSH_MODE, value = ReadOnlyQueryHints.FLUSH_MODE),
+            @QueryHint(name = HINT_FETCH_SIZE, value = ReadOnlyQueryHints.FETCH_SIZE)})
+    Iterable<SoccerPlayer> findAll(Predicate predicate);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_READONLY, value = ReadOnlyQueryHints.READ_ONLY),
+            @QueryHint(name = HINT_FLUSH_MODE, value = ReadOnlyQueryHints.FLUSH_MODE),
+            @QueryHint(name = HINT_FETCH_SIZE, value = ReadOnlyQueryHints.FETCH_SIZE)})
+    Iterable<SoccerPlayer> findAll(Predicate predicate, Sort sort);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_READONLY, value = ReadOnlyQueryHints.READ_ONLY),
+            @QueryHint(name = HINT_FLUSH_MODE, value = ReadOnlyQueryHints.FLUSH_MODE),
+            @QueryHint(name = HINT_FETCH_SIZE, value = ReadOnlyQueryHints.FETCH_SIZE)})
+    Iterable<SoccerPlayer> findAll(Predicate predicate, OrderSpecifier<?>... orders);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_READONLY, value = ReadOnlyQueryHints.READ_ONLY),
+            @QueryHint(name = HINT_FLUSH_MODE, value = ReadOnlyQueryHints.FLUSH_MODE),
+            @QueryHint(name = HINT_FETCH_SIZE, value = ReadOnlyQueryHints.FETCH_SIZE)})
+    Page<SoccerPlayer> findAll(Predicate predicate, Pageable pageable);
+
+    /**
+     * 웹 요청 파라미터는 인덱스가 있는 경로에만 바인딩한다.
+     * 이름은 앞부분 일치(여러 값이면 or)로 바인딩한다. 키와 몸무게는 값 하나면 eq, 두 개면 [하한, 상한] 범위로 보고
+     * 한쪽이 비어 있으면 goe / loe, 둘 다 있으면 between 으로, 세 개 이상이면 in 으로 바인딩한다(height=170&height= 은 170 이상).
+     * 팀 이름과 팀 식별자는 여러 값이면 in 으로 묶는다. 그 밖의 경로는 바인딩하지 않는다.
+     */
+    @Override
+    default void customize(QuerydslBindings bindings, QSoccerPlayer root) {
+        bindings.excludeUnlistedProperties(true);
+        bindings.including(root.name, root.height, root.weight, root.team.name, root.team.id);
+
+        bindings.bind(root.name).all((path, values) -> values.stream()
+                .map(path::startsWith)
+                .reduce(BooleanExpression::or)
+                .map(Predicate.class::cast));
+        bindings.bind(root.height).all((path, values) -> range(path, values));
+        bindings.bind(root.weight).all((path, values) -> range(path, values));
+        bindings.bind(root.team.name).all((path, values) -> Optional.of(values.size() == 1
+                ? path.eq(values.iterator().next())
+                : path.in(values)));
+        bindings.bind(root.team.id).all((path, values) -> Optional.of(values.size() == 1
+                ? path.eq(values.iterator().next())
+                : path.in(values)));
+    }
+
+    private static Optional<Predicate> range(NumberPath<Integer> path, Collection<? extends Integer> values) {
+        if (values.size() == 1) {
+            return Optional.ofNullable(values.iterator().next()).map(path::eq);
+        }
+        if (values.size() > 2) {
+            return Optional.of(path.in(values));
+        }
+        Iterator<? extends Integer> bounds = values.iterator();
+        Integer from = bounds.next();
+        Integer to = bounds.next();
+        if (Objects.isNull(from) || Objects.isNull(to)) {
+            return Optional.ofNullable(Objects.isNull(from) ? to : from)
+                    .map(bound -> Objects.isNull(from) ? path.loe(bound) : path.goe(bound));
+        }
+        return Optional.of(path.between(Math.min(from, to), Math.max(from, to)));
+    }
+
 }
@@ -5,9 +5,11 @@ import com.querydsl.jpa.impl.JPAQuery;
 import com.roy.querydsl.domain.SoccerPlayer;
 import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
 import com.roy.querydsl.repository.support.CustomQuerydslRepositorySupport;
+import com.roy.querydsl.repository.support.JoinPlan;
+import com.roy.querydsl.repository.support.count.CountStrategy;
+import com.roy.querydsl.repository.support.count.CountedPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,49 +21,53 @@ import static com.roy.querydsl.domain.QTeam.team;
 @Repository
 public class SoccerPlayerSupportedRepository extends CustomQuerydslRepositorySupport {
 
-    public SoccerPlayerSupportedRepository(Class<?> domainClass) {
-        super(domainClass);
+    private static final JoinPlan SEARCH_PLAN = JoinPlan.from(soccerPlayer)
+            .leftJoin(soccerPlayer.team, team);
+
+    public SoccerPlayerSupportedRepository() {
+        super(SoccerPlayer.class);
     }
 
     public List<SoccerPlayer> selectAll() {
-        return select(soccerPlayer)
+        return selectReadOnly(soccerPlayer)
                 .from(soccerPlayer)
                 .fetch();
     }
 
     public List<SoccerPlayer> selectFromAll() {
-        return selectFrom(soccerPlayer)
+        return selectFromReadOnly(soccerPlayer)
                 .fetch();
     }
 
     public Page<SoccerPlayer> findPageByApplyPage(SoccerPlayerSearchDTO searchDto, Pageable pageable) {
-        JPAQuery<SoccerPlayer> query =
-                selectFrom(soccerPlayer)
-                        .leftJoin(soccerPlayer.team, team)
-                        .where(complexConditions(searchDto));
+        JPAQuery<SoccerPlayer> query = SEARCH_PLAN.content(getReadOnlyQueryFactory(), soccerPlayer, complexConditions(searchDto));
 
         List<SoccerPlayer> content = getQuerydsl().applyPagination(pageable, query).fetch();
 
-        return PageableExecutionUtils.getPage(content, pageable, query::fetchCount);
+        return CountedPage.of(content, pageable, () -> CountStrategy.exact().count(query, getEntityManager()));
     }
 
     public Page<SoccerPlayer> applyPagination(SoccerPlayerSearchDTO searchDTO, Pageable pageable) {
-        return applyPagination(pageable, contentQuery -> contentQuery
-                .selectFrom(soccerPlayer)
-                .leftJoin(soccerPlayer.team, team)
-                .where(complexConditions(searchDTO)));
+        return applyPagination(pageable, contentQuery -> SEARCH_PLAN
+                .content(contentQuery, soccerPlayer, complexConditions(searchDTO)));
     }
 
     public Page<SoccerPlayer> applyPaginationV2(SoccerPlayerSearchDTO searchDto, Pageable pageable) {
         return applyPagination(pageable,
-                contentQuery -> contentQuery
-                        .selectFrom(soccerPlayer)
-                        .leftJoin(soccerPlayer.team, team)
-                        .where(complexConditions(searchDto)),
-                countQuery -> countQuery
-                        .selectFrom(soccerPlayer)
-                        .leftJoin(soccerPlayer.team, team)
-                        .where(complexConditions(searchDto))
+                contentQuery -> SEARCH_PLAN
+                        .content(contentQuery, soccerPlayer, complexConditions(searchDto)),
+                countQuery -> SEARCH_PLAN
+                        .content(countQuery, soccerPlayer.id, complexConditions(searchDto))
+        );
+    }
+
+    public CountedPage<SoccerPlayer> applyPagination(SoccerPlayerSearchDTO searchDto, Pageable pageable, CountStrategy countStrategy) {
+        return applyPagination(pageable,
+                contentQuery -> SEARCH_PLAN
+                        .content(contentQuery, soccerPlayer, complexConditions(searchDto)),
+                countQuery -> SEARCH_PLAN
+                        .content(countQuery, soccerPlayer.id, complexConditions(searchDto)),
+                countStrategy
         );
     }
 
@@ -1,11 +1,19 @@
 package com.roy.querydsl.repository.dsl;
 
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.dto.SoccerPlayerFacetsDTO;
 import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
 import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.dto.SoccerPlayerUpsertDTO;
+import com.roy.querydsl.dto.UpsertResultDTO;
+import com.roy.querydsl.repository.support.FacetedPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface SoccerPlayerDslRepository {
 
@@ -13,4 +21,55 @@ public interface SoccerPlayerDslRepository {
 
     Page<SoccerPlayerTeamDTO> searchComplexPage(SoccerPlayerSearchDTO dto, Pageable pageable);
 
+    CompletableFuture<Page<SoccerPlayerTeamDTO>> searchSimplePageAsync(SoccerPlayerSearchDTO dto, Pageable pageable);
+
+    CompletableFuture<Page<SoccerPlayerTeamDTO>> searchComplexPageAsync(SoccerPlayerSearchDTO dto, Pageable pageable);
+
+    /**
+     * 검색 결과와 함께 팀별, 키 구간별, 몸무게 구간별 선수 수를 돌려준다.
+     * facet 은 group by 쿼리 한 번으로 모두 구하며, 그 합계를 페이지 total 로 사용하므로 별도의 count 쿼리는 없다.
+     * facet 캐시는 DataVersion 을 키에 포함하므로 SoccerPlayer 나 Team 이 바뀐 뒤에는 다시 집계한다.
+     */
+    FacetedPage<SoccerPlayerTeamDTO, SoccerPlayerFacetsDTO> searchWithFacets(SoccerPlayerSearchDTO dto, Pageable pageable);
+
+    /**
+     * 여러 검색 조건을 UNION ALL 로 묶은 SQL 한 번으로 실행하고 조건 순서대로 결과를 돌려준다.
+     * 각 결과는 선수 id 순으로 최대 limitEach 개이며, total 은 윈도 함수 {@code count(*) over ()} 로 같은 쿼리에서 구한다.
+     * 조건마다 매긴 비용 등급 중 가장 비싼 등급의 자리에서 실행하고, 그 등급의 query-timeout 을 문장에 건다.
+     */
+    List<Page<SoccerPlayerTeamDTO>> searchMany(List<SoccerPlayerSearchDTO> dtos, int limitEach);
+
+    /**
+     * id 목록으로 선수를 팀과 함께 조회하여 입력 순서대로 돌려준다. 없는 id 는 건너뛴다.
+     * 결과는 일반 영속 엔티티이므로 트랜잭션 안에서 바꾼 값은 flush 때 반영된다.
+     * id 는 querydsl.in-list.max-chunk 단위로 나누고 2의 거듭제곱 크기로 채워서 IN 절 SQL 의 종류를 제한한다.
+     */
+    List<SoccerPlayer> findAllByIdInOrder(List<Long> ids);
+
+    /**
+     * {@link #findAllByIdInOrder(List)} 의 조각들을 AsyncQueryExecutor 에서 병렬로 실행한다.
+     * 조각마다 별도의 EntityManager 를 사용하므로 결과는 준영속 상태이다.
+     */
+    CompletableFuture<List<SoccerPlayer>> findAllByIdInOrderAsync(List<Long> ids);
+
+    @Transactional
+    SoccerPlayer registerPlayer(String name, Integer height, Integer weight, Long teamId);
+
+    @Transactional
+    void assignTeam(Long playerId, Long teamId);
+
+    /**
+     * 선수들의 팀을 update 한 번으로 바꾼다.
+     * 벌크 update 이므로 영속성 컨텍스트에 있는 선수와 팀의 선수 목록에는 반영되지 않는다.
+     */
+    @Transactional
+    long assignTeam(Collection<Long> playerIds, Long teamId);
+
+    /**
+     * 선수 이름 + 팀 이름이 같은 선수가 있으면 키와 몸무게를 갱신하고 없으면 추가한다. 없는 팀은 함께 추가한다.
+     * 입력은 querydsl.upsert.chunk-size 단위로 읽어 JDBC batch MERGE INTO 로 쓰며, 영속성 컨텍스트를 거치지 않는다.
+     */
+    @Transactional
+    UpsertResultDTO upsertPlayers(Iterable<SoccerPlayerUpsertDTO> players);
+
 }
@@ -1,30 +1,67 @@
 package com.roy.querydsl.repository.dsl.impl;
 
-import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
-import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.roy.querydsl.domain.QSoccerPlayer;
 import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.FacetBucketDTO;
 import com.roy.querydsl.dto.QSoccerPlayerTeamDTO;
+import com.roy.querydsl.dto.SoccerPlayerFacetsDTO;
 import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
 import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.dto.SoccerPlayerUpsertDTO;
+import com.roy.querydsl.dto.UpsertResultDTO;
 import com.roy.querydsl.repository.dsl.SoccerPlayerDslRepository;
+import com.roy.querydsl.repository.support.AsyncQueryExecutor;
+import com.roy.querydsl.repository.support.DataVersion;
+import com.roy.querydsl.repository.support.FacetBuckets;
+import com.roy.querydsl.repository.support.FacetedPage;
+import com.roy.querydsl.repository.support.InListChunks;
+import com.roy.querydsl.repository.support.JoinPlan;
+import com.roy.querydsl.repository.support.ReadOnlyJPAQueryFactory;
+import com.roy.querydsl.repository.support.SoccerPlayerSearchConditions;
+import com.roy.querydsl.repository.support.TranslatedQuery;
+import com.roy.querydsl.repository.support.TtlCache;
+import com.roy.querydsl.repository.support.admission.QueryCost;
+import com.roy.querydsl.repository.support.admission.SearchAdmissionController;
+import com.roy.querydsl.repository.support.cache.SearchPageCache;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.roy.querydsl.domain.QSoccerPlayer.*;
 import static com.roy.querydsl.domain.QTeam.team;
@@ -33,129 +70,347 @@ import static com.roy.querydsl.domain.QTeam.team;
 public class SoccerPlayerDslRepositoryImpl extends QuerydslRepositorySupport
         implements SoccerPlayerDslRepository {
 
+    private static final JoinPlan SEARCH_PLAN = JoinPlan.from(soccerPlayer)
+            .leftJoin(soccerPlayer.team, team);
+    private static final SoccerPlayerSearchConditions CONDITIONS = new SoccerPlayerSearchConditions(
+            soccerPlayer.name, soccerPlayer.team.name, soccerPlayer.height, soccerPlayer.weight);
+    private static final FacetBuckets HEIGHT_BUCKETS = FacetBuckets.of("cm", 160, 170, 180, 190);
+    private static final FacetBuckets WEIGHT_BUCKETS = FacetBuckets.of("kg", 60, 70, 80, 90);
+
     private final JPAQueryFactory query;
+    private final JPAQueryFactory entityQuery;
+    private final AsyncQueryExecutor asyncQueryExecutor;
+    private final SearchPageCache searchPageCache;
+    private final DataVersion dataVersion;
+    private final SearchAdmissionController admission;
+    private final TtlCache<List<Object>, SoccerPlayerFacetsDTO> facetCache;
+    private final int inListMaxChunk;
+    private final int upsertChunkSize;
 
-    public SoccerPlayerDslRepositoryImpl(EntityManager entityManager) {
+    public SoccerPlayerDslRepositoryImpl(EntityManager entityManager, AsyncQueryExecutor asyncQueryExecutor,
+                                         SearchPageCache searchPageCache, DataVersion dataVersion,
+                                         SearchAdmissionController admission,
+                                         @Value("${querydsl.facets.cache-ttl:0s}") Duration facetCacheTtl,
+                                         @Value("${querydsl.facets.cache-size:1000}") int facetCacheSize,
+                                         @Value("${querydsl.in-list.max-chunk:512}") int inListMaxChunk,
+                                         @Value("${querydsl.upsert.chunk-size:1000}") int upsertChunkSize) {
         super(SoccerPlayer.class);
-        this.query = new JPAQueryFactory(entityManager);
+        this.query = new ReadOnlyJPAQueryFactory(entityManager);
+        this.entityQuery = new JPAQueryFactory(entityManager);
+        this.asyncQueryExecutor = asyncQueryExecutor;
+        this.searchPageCache = searchPageCache;
+        this.dataVersion = dataVersion;
+        this.admission = admission;
+        this.facetCache = new TtlCache<>(facetCacheTtl, facetCacheSize);
+        this.inListMaxChunk = inListMaxChunk;
+        this.upsertChunkSize = upsertChunkSize;
     }
 
     @Override
     public Page<SoccerPlayerTeamDTO> searchSimplePage(SoccerPlayerSearchDTO dto, Pageable pageable) {
-        QueryResults<SoccerPlayerTeamDTO> results = query
-                .select(new QSoccerPlayerTeamDTO(
-                        soccerPlayer.id, soccerPlayer.name,
-                        soccerPlayer.team.id, soccerPlayer.team.name))
-                .from(soccerPlayer)
-                .leftJoin(soccerPlayer.team, team)
-                .where(
-                        playerNameEq(dto.getPlayerName()),
-                        teamNameEq(dto.getTeamName()),
-                        heightGt(dto.getHeightGt()),
-                        weightGt(dto.getWeightGt()))
+        return admission.admit(admission.estimate(dto, pageable),
+                timeout -> searchSimplePage(timedQuery(timeout), dto, pageable));
+    }
+
+    @Override
+    public Page<SoccerPlayerTeamDTO> searchComplexPage(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        return searchPageCache.get(searchKey(dto), pageable, () -> admission.admit(admission.estimate(dto, pageable),
+                timeout -> searchComplexPage(timedQuery(timeout), dto, pageable)));
+    }
+
+    @Override
+    public CompletableFuture<Page<SoccerPlayerTeamDTO>> searchSimplePageAsync(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        return asyncQueryExecutor.submit(entityManager ->
+                searchSimplePage(new ReadOnlyJPAQueryFactory(entityManager), dto, pageable));
+    }
+
+    @Override
+    public CompletableFuture<Page<SoccerPlayerTeamDTO>> searchComplexPageAsync(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        return asyncQueryExecutor.submit(entityManager ->
+                searchComplexPage(new ReadOnlyJPAQueryFactory(entityManager), dto, pageable));
+    }
+
+    @Override
+    public FacetedPage<SoccerPlayerTeamDTO, SoccerPlayerFacetsDTO> searchWithFacets(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        return admission.admit(admission.estimate(dto, pageable), timeout -> {
+            JPAQueryFactory query = timedQuery(timeout);
+            List<SoccerPlayerTeamDTO> content = SEARCH_PLAN
+                    .content(query, teamProjection(), conditions(dto))
+                    .offset(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .fetch();
+
+            SoccerPlayerFacetsDTO facets = isDirtyTransaction()
+                    ? facets(query, dto)
+                    : facetCache.get(List.of(dataVersion.current(), searchKey(dto)), () -> facets(query, dto));
+            return new FacetedPage<>(content, pageable, facets.getTotal(), facets);
+        });
+    }
+
+    /**
+     * 쓰기를 한 트랜잭션 안에서 집계한 facet 은 커밋되지 않은 행을 포함할 수 있으므로 캐시하지 않는다.
+     */
+    private boolean isDirtyTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive() && dataVersion.isWrittenInTransaction();
+    }
+
+    private SoccerPlayerFacetsDTO facets(JPAQueryFactory query, SoccerPlayerSearchDTO dto) {
+        NumberExpression<Integer> height = HEIGHT_BUCKETS.index(soccerPlayer.height);
+        NumberExpression<Integer> weight = WEIGHT_BUCKETS.index(soccerPlayer.weight);
+        NumberExpression<Long> count = soccerPlayer.count();
+
+        List<Tuple> rows = SEARCH_PLAN
+                .content(query, Projections.tuple(soccerPlayer.team.id, team.name, height, weight, count), conditions(dto))
+                .groupBy(soccerPlayer.team.id, team.name, height, weight)
+                .fetch();
+
+        long total = 0;
+        Map<Long, FacetBucketDTO> teams = new LinkedHashMap<>();
+        long[] heights = new long[HEIGHT_BUCKETS.size()];
+        long[] weights = new long[WEIGHT_BUCKETS.size()];
+        for (Tuple row : rows) {
+            long players = row.get(count);
+            Long teamId = row.get(soccerPlayer.team.id);
+            total += players;
+            FacetBucketDTO teamFacet = teams.computeIfAbsent(teamId,
+                    id -> new FacetBucketDTO(Objects.nonNull(id) ? String.valueOf(id) : null, row.get(team.name), 0));
+            teamFacet.setCount(teamFacet.getCount() + players);
+            addToBucket(heights, row.get(height), players);
+            addToBucket(weights, row.get(weight), players);
+        }
+
+        List<FacetBucketDTO> teamFacets = new ArrayList<>(teams.values());
+        teamFacets.sort(Comparator.comparingLong(FacetBucketDTO::getCount).reversed());
+        return new SoccerPlayerFacetsDTO(total, teamFacets, buckets(HEIGHT_BUCKETS, heights), buckets(WEIGHT_BUCKETS, weights));
+    }
+
+    private void addToBucket(long[] buckets, Integer index, long players) {
+        if (Objects.nonNull(index) && index >= 0) {
+            buckets[index] += players;
+        }
+    }
+
+    private List<FacetBucketDTO> buckets(FacetBuckets facetBuckets, long[] counts) {
+        List<FacetBucketDTO> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new FacetBucketDTO(String.valueOf(i), facetBuckets.label(i), counts[i]));
+        }
+        return buckets;
+    }
+
+    @Override
+    public List<Page<SoccerPlayerTeamDTO>> searchMany(List<SoccerPlayerSearchDTO> dtos, int limitEach) {
+        PageRequest pageable = PageRequest.of(0, limitEach);
+        QSoccerPlayerTeamDTO projection = teamProjection();
+        List<TranslatedQuery> branches = new ArrayList<>(dtos.size());
+        for (SoccerPlayerSearchDTO dto : dtos) {
+            Optional<TranslatedQuery> branch = TranslatedQuery.translate(
+                    SEARCH_PLAN.content(query, projection, conditions(dto)).getMetadata(), getEntityManager());
+            if (branch.isEmpty()) {
+                return dtos.stream()
+                        .map(each -> searchComplexPage(each, pageable))
+                        .collect(Collectors.toList());
+            }
+            branches.add(branch.get());
+        }
+        if (branches.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> columns = projection.getArgs().stream()
+                .map(arg -> arg.toString().replace('.', '_'))
+                .collect(Collectors.toList());
+        String orderColumn = columns.get(projection.getArgs().indexOf(soccerPlayer.id));
+        String sql = IntStream.range(0, branches.size())
+                .mapToObj(i -> "(select " + i + " as query_index, count(*) over () as total_rows, branch.* from ("
+                        + branches.get(i).getSql() + ") branch (" + String.join(", ", columns) + ")"
+                        + " order by " + orderColumn + " limit " + limitEach + ")")
+                .collect(Collectors.joining(" union all "));
+
+        List<List<SoccerPlayerTeamDTO>> contents = dtos.stream()
+                .map(dto -> new ArrayList<SoccerPlayerTeamDTO>())
+                .collect(Collectors.toList());
+        long[] totals = new long[dtos.size()];
+        List<Class<?>> types = projection.getArgs().stream().map(arg -> (Class<?>) arg.getType()).collect(Collectors.toList());
+
+        if (getEntityManager().isJoinedToTransaction()) {
+            getEntityManager().flush();
+        }
+        QueryCost cost = dtos.stream()
+                .map(dto -> admission.estimate(dto, pageable))
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        SessionImplementor session = getEntityManager().unwrap(SessionImplementor.class);
+        admission.admit(cost, timeout -> {
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setQueryTimeout((int) timeout.getSeconds());
+                    int position = 1;
+                    for (TranslatedQuery branch : branches) {
+                        position = branch.bind(statement, position, session);
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            int index = resultSet.getInt("query_index");
+                            totals[index] = resultSet.getLong("total_rows");
+                            Object[] values = new Object[types.size()];
+                            for (int i = 0; i < values.length; i++) {
+                                values[i] = resultSet.getObject(columns.get(i), types.get(i));
+                            }
+                            contents.get(index).add(projection.newInstance(values));
+                        }
+                    }
+                }
+            });
+            return null;
+        });
+
+        return IntStream.range(0, dtos.size())
+                .mapToObj(i -> (Page<SoccerPlayerTeamDTO>) new PageImpl<>(contents.get(i), pageable, totals[i]))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<SoccerPlayer> findAllByIdInOrder(List<Long> ids) {
+        List<SoccerPlayer> found = new ArrayList<>(ids.size());
+        for (List<Long> chunk : InListChunks.split(ids, inListMaxChunk)) {
+            found.addAll(findAllById(entityQuery, chunk));
+        }
+        return inOrder(ids, found);
+    }
+
+    @Override
+    public CompletableFuture<List<SoccerPlayer>> findAllByIdInOrderAsync(List<Long> ids) {
+        List<CompletableFuture<List<SoccerPlayer>>> chunks = InListChunks.split(ids, inListMaxChunk).stream()
+                .map(chunk -> asyncQueryExecutor.submit(entityManager ->
+                        findAllById(new ReadOnlyJPAQueryFactory(entityManager), chunk)))
+                .collect(Collectors.toList());
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(done -> inOrder(ids, chunks.stream()
+                        .flatMap(chunk -> chunk.join().stream())
+                        .collect(Collectors.toList())));
+    }
+
+    private List<SoccerPlayer> findAllById(JPAQueryFactory query, List<Long> ids) {
+        return query
+                .selectFrom(soccerPlayer)
+                .leftJoin(soccerPlayer.team, team).fetchJoin()
+                .where(soccerPlayer.id.in(ids))
+                .fetch();
+    }
+
+    private List<SoccerPlayer> inOrder(List<Long> ids, List<SoccerPlayer> found) {
+        Map<Long, SoccerPlayer> byId = new HashMap<>(found.size() * 2);
+        found.forEach(player -> byId.put(player.getId(), player));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public SoccerPlayer registerPlayer(String name, Integer height, Integer weight, Long teamId) {
+        EntityManager entityManager = getEntityManager();
+        SoccerPlayer player = new SoccerPlayer(name, height, weight, entityManager.getReference(Team.class, teamId));
+        entityManager.persist(player);
+        return player;
+    }
+
+    @Override
+    public void assignTeam(Long playerId, Long teamId) {
+        EntityManager entityManager = getEntityManager();
+        entityManager.getReference(SoccerPlayer.class, playerId)
+                .changeTeam(entityManager.getReference(Team.class, teamId));
+    }
+
+    @Override
+    public long assignTeam(Collection<Long> playerIds, Long teamId) {
+        if (playerIds.isEmpty()) {
+            return 0;
+        }
+        EntityManager entityManager = getEntityManager();
+        entityManager.flush();
+        return update(soccerPlayer)
+                .set(soccerPlayer.team, entityManager.getReference(Team.class, teamId))
+                .where(soccerPlayer.id.in(playerIds))
+                .execute();
+    }
+
+    @Override
+    public UpsertResultDTO upsertPlayers(Iterable<SoccerPlayerUpsertDTO> players) {
+        dataVersion.markWritten();
+        return new SoccerPlayerMerge(getEntityManager().unwrap(SessionImplementor.class), upsertChunkSize).merge(players);
+    }
+
+    private Page<SoccerPlayerTeamDTO> searchSimplePage(JPAQueryFactory query, SoccerPlayerSearchDTO dto, Pageable pageable) {
+        List<SoccerPlayerTeamDTO> content = SEARCH_PLAN
+                .content(query, teamProjection(), conditions(dto))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
-                .fetchResults();
+                .fetch();
 
-        List<SoccerPlayerTeamDTO> content = results.getResults();
-        return new PageImpl<>(content, pageable, results.getTotal());
+        Long total = SEARCH_PLAN.count(query, conditions(dto)).fetchOne();
+        return new PageImpl<>(content, pageable, total);
     }
 
-    @Override
-    public Page<SoccerPlayerTeamDTO> searchComplexPage(SoccerPlayerSearchDTO dto, Pageable pageable) {
-        List<SoccerPlayerTeamDTO> content = query
-                .select(new QSoccerPlayerTeamDTO(
-                        soccerPlayer.id, soccerPlayer.name,
-                        soccerPlayer.team.id, soccerPlayer.team.name))
-                .from(soccerPlayer)
-                .leftJoin(soccerPlayer.team, team)
-                .where(
-                        playerNameEq(dto.getPlayerName()),
-                        teamNameEq(dto.getTeamName()),
-                        heightGt(dto.getHeightGt()),
-                        weightGt(dto.getWeightGt()))
+    private Page<SoccerPlayerTeamDTO> searchComplexPage(JPAQueryFactory query, SoccerPlayerSearchDTO dto, Pageable pageable) {
+        List<SoccerPlayerTeamDTO> content = SEARCH_PLAN
+                .content(query, teamProjection(), conditions(dto))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetch();
 
-        JPAQuery<Long> countQuery = query
-                .select(soccerPlayer.count())
-                .from(soccerPlayer)
-                .where(
-                        playerNameEq(dto.getPlayerName()),
-                        teamNameEq(dto.getTeamName()),
-                        heightGt(dto.getHeightGt()),
-                        weightGt(dto.getWeightGt()));
+        JPAQuery<Long> countQuery = SEARCH_PLAN.count(query, conditions(dto));
 
         return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
     }
 
     public Page<SoccerPlayerTeamDTO> searchWithRepositorySupport(SoccerPlayerSearchDTO dto, Pageable pageable) {
-        JPQLQuery<SoccerPlayerTeamDTO> searchQuery = from(soccerPlayer)
-                .leftJoin(soccerPlayer.team, team)
-                .where(
-                        playerNameEq(dto.getPlayerName()),
-                        teamNameEq(dto.getTeamName()),
-                        heightGt(dto.getHeightGt()),
-                        weightGt(dto.getWeightGt()))
-                .select(new QSoccerPlayerTeamDTO(
-                        soccerPlayer.id, soccerPlayer.name,
-                        soccerPlayer.team.id, soccerPlayer.team.name));
+        JPQLQuery<SoccerPlayerTeamDTO> contentQuery = getQuerydsl().applyPagination(pageable,
+                SEARCH_PLAN.content(query, teamProjection(), conditions(dto)));
 
-        JPQLQuery<SoccerPlayerTeamDTO> jpqlQuery = getQuerydsl().applyPagination(pageable, searchQuery);
+        JPAQuery<Long> countQuery = SEARCH_PLAN.count(query, conditions(dto));
 
-        QueryResults<SoccerPlayerTeamDTO> result = jpqlQuery.fetchResults();
-        return new PageImpl(result.getResults(), pageable, result.getTotal());
+        return PageableExecutionUtils.getPage(contentQuery.fetch(), pageable, countQuery::fetchOne);
     }
 
     public Page<SoccerPlayerTeamDTO> searchPageWithSort(SoccerPlayerSearchDTO dto, Pageable pageable) {
-        JPAQuery<SoccerPlayerTeamDTO> searchQuery = query
-                .select(new QSoccerPlayerTeamDTO(
-                        soccerPlayer.id, soccerPlayer.name,
-                        soccerPlayer.team.id, soccerPlayer.team.name))
-                .from(soccerPlayer)
-                .leftJoin(soccerPlayer.team, team)
-                .where(
-                        playerNameEq(dto.getPlayerName()),
-                        teamNameEq(dto.getTeamName()),
-                        heightGt(dto.getHeightGt()),
-                        weightGt(dto.getWeightGt()))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize());
-
-        for (Sort.Order o : pageable.getSort()) {
-            PathBuilder pathBuilder = new PathBuilder(soccerPlayer.getType(), soccerPlayer.getMetadata());
-            searchQuery.orderBy(new OrderSpecifier(o.isAscending() ? Order.ASC : Order.DESC, pathBuilder.get(o.getProperty())));
-        }
+        PathBuilder pathBuilder = new PathBuilder(soccerPlayer.getType(), soccerPlayer.getMetadata());
+        OrderSpecifier[] orders = pageable.getSort().stream()
+                .map(o -> new OrderSpecifier(o.isAscending() ? Order.ASC : Order.DESC, pathBuilder.get(o.getProperty())))
+                .toArray(OrderSpecifier[]::new);
 
-        List<SoccerPlayerTeamDTO> content = searchQuery.fetch();
+        return admission.admit(admission.estimate(dto, pageable), timeout -> {
+            JPAQueryFactory query = timedQuery(timeout);
+            List<SoccerPlayerTeamDTO> content = SEARCH_PLAN
+                    .content(query, teamProjection(), conditions(dto), orders)
+                    .offset(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .fetch();
 
-        JPAQuery<Long> countQuery = query
-                .select(soccerPlayer.count())
-                .from(soccerPlayer)
-                .where(
-                        playerNameEq(dto.getPlayerName()),
-                        teamNameEq(dto.getTeamName()),
-                        heightGt(dto.getHeightGt()),
-                        weightGt(dto.getWeightGt()));
+            JPAQuery<Long> countQuery = SEARCH_PLAN.count(query, conditions(dto));
 
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+            return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+        });
     }
 
-    private BooleanExpression playerNameEq(String playerName) {
-        return Objects.nonNull(playerName) ? soccerPlayer.name.eq(playerName) : null;
+    private JPAQueryFactory timedQuery(Duration timeout) {
+        return new ReadOnlyJPAQueryFactory(getEntityManager(), timeout);
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return Objects.nonNull(teamName) ? soccerPlayer.team.name.eq(teamName) : null;
+    private QSoccerPlayerTeamDTO teamProjection() {
+        return new QSoccerPlayerTeamDTO(
+                soccerPlayer.id, soccerPlayer.name,
+                soccerPlayer.team.id, soccerPlayer.team.name);
     }
 
-    private BooleanExpression heightGt(Integer height) {
-        return Objects.nonNull(height) ? soccerPlayer.height.gt(height) : null;
+    private List<Object> searchKey(SoccerPlayerSearchDTO dto) {
+        return Arrays.asList(dto.getPlayerName(), dto.getTeamName(), dto.getHeightGt(), dto.getWeightGt());
     }
 
-    private BooleanExpression weightGt(Integer weight) {
-        return Objects.nonNull(weight) ? soccerPlayer.weight.gt(weight) : null;
+    private Predicate[] conditions(SoccerPlayerSearchDTO dto) {
+        return CONDITIONS.of(dto);
     }
 
 }
@@ -0,0 +1,215 @@
+package com.roy.querydsl.repository.dsl.impl;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerUpsertDTO;
+import com.roy.querydsl.dto.UpsertResultDTO;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.enhanced.NoopOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 선수 이름 + 팀 이름을 자연 키로 하는 MERGE INTO 일괄 upsert.
+ * 입력은 chunkSize 단위로 읽어 청크마다 팀 MERGE, 팀 id 조회, 기존 선수 조회, 선수 MERGE 의 네 번만 DB 에 다녀오므로
+ * 입력 크기와 관계없이 메모리는 청크 하나만큼만 사용한다.
+ * 새 행의 식별자는 엔티티에 매핑된 시퀀스에서 받는다. MERGE ... USING 을 지원하는 DB(H2, PostgreSQL 15+ 등)에서만 동작한다.
+ */
+class SoccerPlayerMerge {
+
+    private final SessionImplementor session;
+    private final int chunkSize;
+    private final String mergeTeam;
+    private final String selectTeams;
+    private final String selectPlayers;
+    private final String mergePlayer;
+
+    SoccerPlayerMerge(SessionImplementor session, int chunkSize) {
+        this.session = session;
+        this.chunkSize = chunkSize;
+
+        SessionFactoryImplementor sessionFactory = session.getFactory();
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        AbstractEntityPersister team = persister(sessionFactory, Team.class);
+        AbstractEntityPersister player = persister(sessionFactory, SoccerPlayer.class);
+        String teamId = team.getIdentifierColumnNames()[0];
+        String teamName = column(team, "name");
+        String playerId = player.getIdentifierColumnNames()[0];
+        String playerName = column(player, "name");
+        String height = column(player, "height");
+        String weight = column(player, "weight");
+        String playerTeam = column(player, "team");
+
+        this.mergeTeam = "merge into " + team.getTableName() + " t"
+                + " using (select cast(? as varchar(255)) as name) s on t." + teamName + " = s.name"
+                + " when not matched then insert (" + teamId + ", " + teamName + ")"
+                + " values (" + nextValue(dialect, team) + ", s.name)";
+        this.selectTeams = "select " + teamName + ", min(" + teamId + ") from " + team.getTableName()
+                + " where " + teamName + " in (%s) group by " + teamName;
+        this.selectPlayers = "select " + playerName + ", " + playerTeam + " from " + player.getTableName()
+                + " where " + playerName + " in (%s)";
+        this.mergePlayer = "merge into " + player.getTableName() + " p"
+                + " using (select cast(? as varchar(255)) as name, cast(? as integer) as height,"
+                + " cast(? as integer) as weight, cast(? as bigint) as team_id) s"
+                + " on p." + playerName + " = s.name"
+                + " and (p." + playerTeam + " = s.team_id or (p." + playerTeam + " is null and s.team_id is null))"
+                + " when matched then update set " + height + " = s.height, " + weight + " = s.weight"
+                + " when not matched then insert (" + playerId + ", " + playerName + ", " + height + ", " + weight + ", " + playerTeam + ")"
+                + " values (" + nextValue(dialect, player) + ", s.name, s.height, s.weight, s.team_id)";
+    }
+
+    UpsertResultDTO merge(Iterable<SoccerPlayerUpsertDTO> players) {
+        if (session.isTransactionInProgress()) {
+            session.flush();
+        }
+        return session.doReturningWork(connection -> {
+            long inserted = 0;
+            long updated = 0;
+            List<SoccerPlayerUpsertDTO> chunk = new ArrayList<>(chunkSize);
+            for (SoccerPlayerUpsertDTO player : players) {
+                chunk.add(player);
+                if (chunk.size() == chunkSize) {
+                    long[] counts = mergeChunk(connection, chunk);
+                    inserted += counts[0];
+                    updated += counts[1];
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                long[] counts = mergeChunk(connection, chunk);
+                inserted += counts[0];
+                updated += counts[1];
+            }
+            return new UpsertResultDTO(inserted, updated);
+        });
+    }
+
+    private long[] mergeChunk(Connection connection, List<SoccerPlayerUpsertDTO> chunk) throws SQLException {
+        Set<String> teamNames = chunk.stream()
+                .map(SoccerPlayerUpsertDTO::getTeamName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Long> teamIds = teamNames.isEmpty() ? Map.of() : mergeTeams(connection, teamNames);
+
+        Set<List<Object>> existing = existingKeys(connection, chunk.stream()
+                .map(SoccerPlayerUpsertDTO::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        long inserted = 0;
+        long updated = 0;
+        try (PreparedStatement statement = connection.prepareStatement(mergePlayer)) {
+            for (SoccerPlayerUpsertDTO player : chunk) {
+                Long teamId = Objects.nonNull(player.getTeamName()) ? teamIds.get(player.getTeamName()) : null;
+                if (existing.add(Arrays.asList(player.getName(), teamId))) {
+                    inserted++;
+                } else {
+                    updated++;
+                }
+                statement.setString(1, player.getName());
+                setNullable(statement, 2, player.getHeight(), Types.INTEGER);
+                setNullable(statement, 3, player.getWeight(), Types.INTEGER);
+                setNullable(statement, 4, teamId, Types.BIGINT);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return new long[]{inserted, updated};
+    }
+
+    private Map<String, Long> mergeTeams(Connection connection, Collection<String> names) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(mergeTeam)) {
+            for (String name : names) {
+                statement.setString(1, name);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        Map<String, Long> teamIds = new HashMap<>(names.size() * 2);
+        try (PreparedStatement statement = connection.prepareStatement(String.format(selectTeams, placeholders(names.size())))) {
+            bindAll(statement, names);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    teamIds.put(resultSet.getString(1), resultSet.getLong(2));
+                }
+            }
+        }
+        return teamIds;
+    }
+
+    private Set<List<Object>> existingKeys(Connection connection, Collection<String> names) throws SQLException {
+        Set<List<Object>> keys = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(String.format(selectPlayers, placeholders(names.size())))) {
+            bindAll(statement, names);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    keys.add(Arrays.asList(resultSet.getString(1), resultSet.getObject(2, Long.class)));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static void bindAll(PreparedStatement statement, Collection<String> values) throws SQLException {
+        int position = 1;
+        for (String value : values) {
+            statement.setString(position++, value);
+        }
+    }
+
+    private static void setNullable(PreparedStatement statement, int position, Object value, int sqlType) throws SQLException {
+        if (Objects.isNull(value)) {
+            statement.setNull(position, sqlType);
+        } else {
+            statement.setObject(position, value, sqlType);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static AbstractEntityPersister persister(SessionFactoryImplementor sessionFactory, Class<?> entityType) {
+        return (AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(entityType);
+    }
+
+    private static String column(AbstractEntityPersister persister, String property) {
+        return persister.getPropertyColumnNames(property)[0];
+    }
+
+    /**
+     * DB 시퀀스의 nextval 을 바로 쓰므로, Hibernate 가 메모리에 미리 받아 둔 id 와 겹치지 않도록 최적화기가 없는 시퀀스만 허용한다.
+     */
+    private static String nextValue(Dialect dialect, AbstractEntityPersister persister) {
+        if (!(persister.getIdentifierGenerator() instanceof SequenceStyleGenerator)) {
+            throw new IllegalStateException(persister.getEntityName() + " does not use a sequence identifier");
+        }
+        SequenceStyleGenerator generator = (SequenceStyleGenerator) persister.getIdentifierGenerator();
+        if (!(generator.getOptimizer() instanceof NoopOptimizer)) {
+            throw new IllegalStateException(persister.getEntityName() + " uses a sequence optimizer ("
+                    + generator.getOptimizer().getClass().getSimpleName() + "), upsert needs allocationSize = 1");
+        }
+        return dialect.getSelectSequenceNextValString(generator.getDatabaseStructure().getPhysicalName().render());
+    }
+
+}
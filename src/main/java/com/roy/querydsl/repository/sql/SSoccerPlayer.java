@@ -0,0 +1,71 @@
+package com.roy.querydsl.repository.sql;
+
+import static com.querydsl.core.types.PathMetadataFactory.*;
+
+import com.querydsl.core.types.dsl.*;
+
+import com.querydsl.core.types.PathMetadata;
+import javax.annotation.processing.Generated;
+import com.querydsl.core.types.Path;
+
+import com.querydsl.sql.ColumnMetadata;
+import java.sql.Types;
+
+
+
+
+/**
+ * SSoccerPlayer is a Querydsl query type for SSoccerPlayer
+ */
+@Generated("com.querydsl.sql.codegen.MetaDataSerializer")
+public class SSoccerPlayer extends com.querydsl.sql.RelationalPathBase<SSoccerPlayer> {
+
+    private static final long serialVersionUID = -761149325;
+
+    public static final SSoccerPlayer soccerPlayer = new SSoccerPlayer("SOCCER_PLAYER");
+
+    public final NumberPath<Integer> height = createNumber("height", Integer.class);
+
+    public final StringPath name = createString("name");
+
+    public final NumberPath<Long> soccerPlayerId = createNumber("soccerPlayerId", Long.class);
+
+    public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+    public final NumberPath<Integer> weight = createNumber("weight", Integer.class);
+
+    public SSoccerPlayer(String variable) {
+        super(SSoccerPlayer.class, forVariable(variable), "", "SOCCER_PLAYER");
+        addMetadata();
+    }
+
+    public SSoccerPlayer(String variable, String schema, String table) {
+        super(SSoccerPlayer.class, forVariable(variable), schema, table);
+        addMetadata();
+    }
+
+    public SSoccerPlayer(String variable, String schema) {
+        super(SSoccerPlayer.class, forVariable(variable), schema, "SOCCER_PLAYER");
+        addMetadata();
+    }
+
+    public SSoccerPlayer(Path<? extends SSoccerPlayer> path) {
+        super(path.getType(), path.getMetadata(), "", "SOCCER_PLAYER");
+        addMetadata();
+    }
+
+    public SSoccerPlayer(PathMetadata metadata) {
+        super(SSoccerPlayer.class, metadata, "", "SOCCER_PLAYER");
+        addMetadata();
+    }
+
+    public void addMetadata() {
+        addMetadata(height, ColumnMetadata.named("HEIGHT").withIndex(2).ofType(Types.INTEGER).withSize(10));
+        addMetadata(name, ColumnMetadata.named("NAME").withIndex(3).ofType(Types.VARCHAR).withSize(255));
+        addMetadata(soccerPlayerId, ColumnMetadata.named("SOCCER_PLAYER_ID").withIndex(1).ofType(Types.BIGINT).withSize(19).notNull());
+        addMetadata(teamId, ColumnMetadata.named("TEAM_ID").withIndex(5).ofType(Types.BIGINT).withSize(19));
+        addMetadata(weight, ColumnMetadata.named("WEIGHT").withIndex(4).ofType(Types.INTEGER).withSize(10));
+    }
+
+}
+
@@ -0,0 +1,171 @@
+package com.roy.querydsl.repository.sql;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.StatementOptions;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.dto.QSoccerPlayerTeamDTO;
+import com.roy.querydsl.dto.SoccerPlayerFacetsDTO;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.dto.SoccerPlayerUpsertDTO;
+import com.roy.querydsl.dto.UpsertResultDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import com.roy.querydsl.repository.dsl.SoccerPlayerDslRepository;
+import com.roy.querydsl.repository.support.AsyncQueryExecutor;
+import com.roy.querydsl.repository.support.FacetedPage;
+import com.roy.querydsl.repository.support.SoccerPlayerSearchConditions;
+import com.roy.querydsl.repository.support.admission.SearchAdmissionController;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import static com.roy.querydsl.repository.sql.SSoccerPlayer.soccerPlayer;
+import static com.roy.querydsl.repository.sql.STeam.team;
+
+/**
+ * SoccerPlayerDslRepository 의 DTO 검색을 querydsl-sql 로 실행한다.
+ * JPQL 변환, Hibernate 의 결과 변환과 영속성 컨텍스트를 거치지 않고 JDBC 결과를 바로 QSoccerPlayerTeamDTO 로 만든다.
+ * 조건은 JPA 구현과 같은 {@link SoccerPlayerSearchConditions} 를 쓴다.
+ * 엔티티를 돌려주거나 쓰기를 하는 메서드와 facet, searchMany 는 JPA 구현(SoccerPlayerRepository)에 위임한다.
+ */
+@Repository
+public class SoccerPlayerSqlRepository implements SoccerPlayerDslRepository {
+
+    private static final SoccerPlayerSearchConditions CONDITIONS = new SoccerPlayerSearchConditions(
+            soccerPlayer.name, team.name, soccerPlayer.height, soccerPlayer.weight);
+    private static final QSoccerPlayerTeamDTO PROJECTION = new QSoccerPlayerTeamDTO(
+            soccerPlayer.soccerPlayerId, soccerPlayer.name, soccerPlayer.teamId, team.name);
+
+    private final SQLQueryFactory query;
+    private final AsyncQueryExecutor asyncQueryExecutor;
+    private final SoccerPlayerRepository soccerPlayerRepository;
+    private final SearchAdmissionController admission;
+
+    public SoccerPlayerSqlRepository(SQLQueryFactory query, AsyncQueryExecutor asyncQueryExecutor,
+                                     @Lazy SoccerPlayerRepository soccerPlayerRepository,
+                                     SearchAdmissionController admission) {
+        this.query = query;
+        this.asyncQueryExecutor = asyncQueryExecutor;
+        this.soccerPlayerRepository = soccerPlayerRepository;
+        this.admission = admission;
+    }
+
+    @Override
+    public Page<SoccerPlayerTeamDTO> searchSimplePage(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        return admission.admit(admission.estimate(dto, pageable), timeout -> simplePage(dto, pageable, options(timeout)));
+    }
+
+    @Override
+    public Page<SoccerPlayerTeamDTO> searchComplexPage(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        return admission.admit(admission.estimate(dto, pageable), timeout -> complexPage(dto, pageable, options(timeout)));
+    }
+
+    /**
+     * AsyncQueryExecutor 의 스레드와 대기열을 쓰며 넘겨받는 EntityManager 는 사용하지 않는다.
+     * 실행기는 타임아웃에 EntityManager 의 마지막 Statement 를 cancel 하는데 querydsl-sql 의 Statement 는 거기에 잡히지 않으므로,
+     * 같은 타임아웃을 Statement 의 query-timeout 으로 걸어 future 가 끝난 뒤에도 쿼리가 계속 도는 일을 막는다.
+     */
+    @Override
+    public CompletableFuture<Page<SoccerPlayerTeamDTO>> searchSimplePageAsync(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        StatementOptions options = options(asyncQueryExecutor.getDefaultTimeout());
+        return asyncQueryExecutor.submit(entityManager -> simplePage(dto, pageable, options));
+    }
+
+    @Override
+    public CompletableFuture<Page<SoccerPlayerTeamDTO>> searchComplexPageAsync(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        StatementOptions options = options(asyncQueryExecutor.getDefaultTimeout());
+        return asyncQueryExecutor.submit(entityManager -> complexPage(dto, pageable, options));
+    }
+
+    @Override
+    public FacetedPage<SoccerPlayerTeamDTO, SoccerPlayerFacetsDTO> searchWithFacets(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        return soccerPlayerRepository.searchWithFacets(dto, pageable);
+    }
+
+    @Override
+    public List<Page<SoccerPlayerTeamDTO>> searchMany(List<SoccerPlayerSearchDTO> dtos, int limitEach) {
+        return soccerPlayerRepository.searchMany(dtos, limitEach);
+    }
+
+    @Override
+    public List<SoccerPlayer> findAllByIdInOrder(List<Long> ids) {
+        return soccerPlayerRepository.findAllByIdInOrder(ids);
+    }
+
+    @Override
+    public CompletableFuture<List<SoccerPlayer>> findAllByIdInOrderAsync(List<Long> ids) {
+        return soccerPlayerRepository.findAllByIdInOrderAsync(ids);
+    }
+
+    @Override
+    public SoccerPlayer registerPlayer(String name, Integer height, Integer weight, Long teamId) {
+        return soccerPlayerRepository.registerPlayer(name, height, weight, teamId);
+    }
+
+    @Override
+    public void assignTeam(Long playerId, Long teamId) {
+        soccerPlayerRepository.assignTeam(playerId, teamId);
+    }
+
+    @Override
+    public long assignTeam(Collection<Long> playerIds, Long teamId) {
+        return soccerPlayerRepository.assignTeam(playerIds, teamId);
+    }
+
+    @Override
+    public UpsertResultDTO upsertPlayers(Iterable<SoccerPlayerUpsertDTO> players) {
+        return soccerPlayerRepository.upsertPlayers(players);
+    }
+
+    private Page<SoccerPlayerTeamDTO> simplePage(SoccerPlayerSearchDTO dto, Pageable pageable, StatementOptions options) {
+        return new PageImpl<>(content(dto, pageable, options), pageable, count(dto, options).fetchOne());
+    }
+
+    private Page<SoccerPlayerTeamDTO> complexPage(SoccerPlayerSearchDTO dto, Pageable pageable, StatementOptions options) {
+        return PageableExecutionUtils.getPage(content(dto, pageable, options), pageable, count(dto, options)::fetchOne);
+    }
+
+    /**
+     * query-timeout 은 초 단위이고 0 은 제한 없음이므로 1초 이상으로 올림한다.
+     */
+    private static StatementOptions options(Duration timeout) {
+        return StatementOptions.builder().setQueryTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000)).build();
+    }
+
+    private List<SoccerPlayerTeamDTO> content(SoccerPlayerSearchDTO dto, Pageable pageable, StatementOptions options) {
+        SQLQuery<SoccerPlayerTeamDTO> contentQuery = query.select(PROJECTION)
+                .from(soccerPlayer)
+                .leftJoin(team).on(soccerPlayer.teamId.eq(team.teamId))
+                .where(CONDITIONS.of(dto))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        contentQuery.setStatementOptions(options);
+        return contentQuery.fetch();
+    }
+
+    /**
+     * 팀 이름 조건이 있을 때만 팀을 조인한다.
+     */
+    private SQLQuery<Long> count(SoccerPlayerSearchDTO dto, StatementOptions options) {
+        Predicate[] where = CONDITIONS.of(dto);
+        SQLQuery<Long> countQuery = query.select(Wildcard.count).from(soccerPlayer);
+        countQuery.setStatementOptions(options);
+        if (Objects.nonNull(dto.getTeamName())) {
+            countQuery.leftJoin(team).on(soccerPlayer.teamId.eq(team.teamId));
+        }
+        return countQuery.where(where);
+    }
+
+}
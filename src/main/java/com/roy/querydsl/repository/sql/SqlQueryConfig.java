@@ -0,0 +1,30 @@
+package com.roy.querydsl.repository.sql;
+
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.SQLTemplatesRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * querydsl-sql 의 SQLQueryFactory 를 만든다. SQL 방언은 DataSource 의 메타데이터로 고른다.
+ * TransactionAwareDataSourceProxy 를 거치므로 트랜잭션 안에서는 JPA 와 같은 커넥션을 쓰고, 밖에서는 쿼리마다 풀에 돌려준다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SqlQueryConfig {
+
+    @Bean
+    public SQLQueryFactory sqlQueryFactory(DataSource dataSource) throws SQLException {
+        SQLTemplates templates;
+        try (Connection connection = dataSource.getConnection()) {
+            templates = new SQLTemplatesRegistry().getTemplates(connection.getMetaData());
+        }
+        return new SQLQueryFactory(new com.querydsl.sql.Configuration(templates), new TransactionAwareDataSourceProxy(dataSource));
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.roy.querydsl.repository.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hibernate.jpa.QueryHints.SPEC_HINT_TIMEOUT;
+
+/**
+ * 조회 쿼리를 전용 스레드 풀에서 실행한다.
+ * 스레드 수는 커넥션 풀 크기에 맞추고 대기열이 가득 차면 즉시 거절하여 DB 풀이 포화되었을 때 호출자에게 부하를 되돌린다.
+ * 작업마다 별도의 EntityManager 를 열고 닫으며, 취소나 타임아웃이 발생하면 실행 중인 JDBC Statement 를 cancel 한다.
+ */
+@Slf4j
+@Component
+public class AsyncQueryExecutor implements DisposableBean {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ThreadPoolExecutor executor;
+    private final Duration defaultTimeout;
+
+    public AsyncQueryExecutor(EntityManagerFactory entityManagerFactory,
+                              @Value("${querydsl.async.pool-size:10}") int poolSize,
+                              @Value("${querydsl.async.queue-capacity:100}") int queueCapacity,
+                              @Value("${querydsl.async.timeout:5s}") Duration defaultTimeout) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.defaultTimeout = defaultTimeout;
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new QueryThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public <T> CompletableFuture<T> submit(Function<EntityManager, T> work) {
+        return submit(work, defaultTimeout);
+    }
+
+    public <T> CompletableFuture<T> submit(Function<EntityManager, T> work, Duration timeout) {
+        QueryTask<T> task = new QueryTask<>(work, MDC.getCopyOfContextMap(), timeout);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return task.future;
+    }
+
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(defaultTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private class QueryTask<T> implements Runnable {
+
+        private final Function<EntityManager, T> work;
+        private final Map<String, String> mdc;
+        private final Duration timeout;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private volatile EntityManager entityManager;
+
+        private QueryTask(Function<EntityManager, T> work, Map<String, String> mdc, Duration timeout) {
+            this.work = work;
+            this.mdc = mdc;
+            this.timeout = timeout;
+            this.future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((result, e) -> {
+                        if (e instanceof CancellationException || e instanceof TimeoutException) {
+                            cancelRunningStatement();
+                        }
+                    });
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            setMdc(mdc);
+            EntityManager em = entityManagerFactory.createEntityManager();
+            try {
+                em.setProperty(SPEC_HINT_TIMEOUT, (int) timeout.toMillis());
+                entityManager = em;
+                future.complete(work.apply(em));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                entityManager = null;
+                em.close();
+                setMdc(previous);
+            }
+        }
+
+        private void cancelRunningStatement() {
+            EntityManager em = entityManager;
+            if (Objects.isNull(em)) {
+                return;
+            }
+            try {
+                em.unwrap(SessionImplementor.class).getJdbcCoordinator().cancelLastQuery();
+            } catch (RuntimeException e) {
+                log.warn("Failed to cancel running statement", e);
+            }
+        }
+
+        private void setMdc(Map<String, String> context) {
+            if (Objects.isNull(context)) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(context);
+            }
+        }
+    }
+
+    private static class QueryThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "async-query-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
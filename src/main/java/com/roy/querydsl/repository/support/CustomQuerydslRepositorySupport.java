@@ -5,14 +5,14 @@ import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.repository.support.count.CountStrategy;
+import com.roy.querydsl.repository.support.count.CountedPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.Querydsl;
-import org.springframework.data.querydsl.SimpleEntityPathResolver;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
@@ -20,6 +20,8 @@ import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import static org.springframework.data.querydsl.SimpleEntityPathResolver.*;
@@ -30,40 +32,46 @@ import static org.springframework.util.Assert.*;
 public abstract class CustomQuerydslRepositorySupport {
 
     private final Class domainClass;
-    private Querydsl querydsl;
     private EntityManager entityManager;
-    private JPAQueryFactory queryFactory;
+    private AsyncQueryExecutor asyncQueryExecutor;
+    private volatile Support support;
 
     public CustomQuerydslRepositorySupport(Class<?> domainClass) {
         notNull(domainClass, "Domain class must not be null");
         this.domainClass = domainClass;
     }
 
+    /**
+     * Querydsl 과 쿼리 팩토리는 처음 사용할 때 만든다.
+     * 엔티티 정보를 읽으려면 EntityManagerFactory 가 준비되어야 하므로, 주입 시점에 만들면 JPA 백그라운드 부트스트랩을 기다리게 된다.
+     */
     @Autowired
     public void setEntityManager(EntityManager entityManager) {
         notNull(entityManager, "Entity Manager must not be null");
-
-        JpaEntityInformation entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, entityManager);
-        SimpleEntityPathResolver resolver = INSTANCE;
-        EntityPath path = resolver.createPath(entityInformation.getJavaType());
         this.entityManager = entityManager;
-        this.querydsl = new Querydsl(entityManager, new PathBuilder<>(path.getType(), path.getMetadata()));
-        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    @Autowired
+    public void setAsyncQueryExecutor(AsyncQueryExecutor asyncQueryExecutor) {
+        this.asyncQueryExecutor = asyncQueryExecutor;
     }
 
     @PostConstruct
     public void validate() {
         notNull(entityManager, "Entity Manager must not be null");
-        notNull(querydsl, "Querydsl must not be null");
-        notNull(queryFactory, "Query Factory must not be null");
+        notNull(asyncQueryExecutor, "Async Query Executor must not be null");
     }
 
     protected JPAQueryFactory getQueryFactory() {
-        return queryFactory;
+        return support().queryFactory;
+    }
+
+    protected JPAQueryFactory getReadOnlyQueryFactory() {
+        return support().readOnlyQueryFactory;
     }
 
     protected Querydsl getQuerydsl() {
-        return querydsl;
+        return support().querydsl;
     }
 
     protected EntityManager getEntityManager() {
@@ -78,18 +86,78 @@ public abstract class CustomQuerydslRepositorySupport {
         return getQueryFactory().selectFrom(from);
     }
 
+    protected <T> JPAQuery<T> selectReadOnly(Expression<T> expression) {
+        return getReadOnlyQueryFactory().select(expression);
+    }
+
+    protected <T> JPAQuery<T> selectFromReadOnly(EntityPath<T> from) {
+        return getReadOnlyQueryFactory().selectFrom(from);
+    }
+
     protected <T> Page<T> applyPagination(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
-        JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+        JPAQuery jpaQuery = contentQuery.apply(getReadOnlyQueryFactory());
         List<T> content = getQuerydsl().applyPagination(pageable, jpaQuery).fetch();
-        return PageableExecutionUtils.getPage(content, pageable, jpaQuery::fetchCount);
+        return CountedPage.of(content, pageable, () -> CountStrategy.exact().count(jpaQuery, getEntityManager()));
     }
 
     protected <T> Page<T> applyPagination(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery, Function<JPAQueryFactory, JPAQuery> countQuery) {
-        JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
+        return applyPagination(pageable, contentQuery, countQuery, CountStrategy.exact());
+    }
+
+    /**
+     * countQuery 는 count 대상 행을 조회하는 쿼리이며, 행 수는 countStrategy 가 센다.
+     */
+    protected <T> CountedPage<T> applyPagination(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery,
+                                                 Function<JPAQueryFactory, JPAQuery> countQuery, CountStrategy countStrategy) {
+        JPAQuery jpaContentQuery = contentQuery.apply(getReadOnlyQueryFactory());
         List<T> content = getQuerydsl().applyPagination(pageable, jpaContentQuery).fetch();
 
-        JPAQuery countResult = countQuery.apply(getQueryFactory());
-        return PageableExecutionUtils.getPage(content, pageable, countResult::fetchCount);
+        return CountedPage.of(content, pageable,
+                () -> countStrategy.count(countQuery.apply(getReadOnlyQueryFactory()), getEntityManager()));
+    }
+
+    protected <T> CompletableFuture<Page<T>> applyPaginationAsync(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery, Function<JPAQueryFactory, JPAQuery> countQuery) {
+        return asyncQueryExecutor.submit(taskEntityManager -> {
+            JPAQueryFactory taskQueryFactory = new ReadOnlyJPAQueryFactory(taskEntityManager);
+            Querydsl taskQuerydsl = new Querydsl(taskEntityManager, support().builder);
+
+            JPAQuery jpaContentQuery = contentQuery.apply(taskQueryFactory);
+            List<T> content = taskQuerydsl.applyPagination(pageable, jpaContentQuery).fetch();
+
+            return CountedPage.of(content, pageable,
+                    () -> CountStrategy.exact().count(countQuery.apply(taskQueryFactory), taskEntityManager));
+        });
+    }
+
+    private Support support() {
+        Support current = support;
+        if (Objects.isNull(current)) {
+            synchronized (this) {
+                current = support;
+                if (Objects.isNull(current)) {
+                    current = new Support(domainClass, entityManager);
+                    support = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static class Support {
+
+        private final PathBuilder builder;
+        private final Querydsl querydsl;
+        private final JPAQueryFactory queryFactory;
+        private final JPAQueryFactory readOnlyQueryFactory;
+
+        private Support(Class domainClass, EntityManager entityManager) {
+            JpaEntityInformation entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, entityManager);
+            EntityPath path = INSTANCE.createPath(entityInformation.getJavaType());
+            this.builder = new PathBuilder<>(path.getType(), path.getMetadata());
+            this.querydsl = new Querydsl(entityManager, builder);
+            this.queryFactory = new JPAQueryFactory(entityManager);
+            this.readOnlyQueryFactory = new ReadOnlyJPAQueryFactory(entityManager);
+        }
     }
 
 }
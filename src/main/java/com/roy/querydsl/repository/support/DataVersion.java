@@ -0,0 +1,110 @@
+package com.roy.querydsl.repository.support;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.Table;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * SoccerPlayer, Team 테이블이 바뀔 때마다 올라가는 데이터 버전.
+ * Hibernate 가 준비하는 모든 SQL 을 세션 팩토리 인터셉터로 검사하여 두 테이블에 대한 insert, update, delete, merge 를 찾으므로
+ * 엔티티 변경뿐 아니라 JPQL 벌크 execute() 와 네이티브 쿼리도 포함한다. JDBC 를 직접 쓰는 코드는 {@link #markWritten()} 을 호출한다.
+ * 버전은 쓰는 시점과 그 트랜잭션이 끝난 뒤에 한 번씩 올리므로, 커밋 전에 읽은 결과가 커밋 후의 버전으로 남지 않는다.
+ * 버전은 JVM 마다 따로 세므로 epoch 와 함께 사용해야 하며, 여러 인스턴스가 같은 DB 에 쓰는 경우 다른 인스턴스의 쓰기는 알 수 없다.
+ */
+@Component
+public class DataVersion implements HibernatePropertiesCustomizer {
+
+    private static final Pattern WRITE = Pattern.compile(
+            "^(?:\\s*/\\*.*?\\*/)*\\s*(?:insert\\s+into|update|delete\\s+from|delete|merge\\s+into)\\s+([\\w.\"]+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private final Set<String> tables = Stream.of(SoccerPlayer.class, Team.class)
+            .map(DataVersion::tableName)
+            .collect(Collectors.toUnmodifiableSet());
+    private final ThreadLocal<Boolean> writtenInTransaction = new ThreadLocal<>();
+
+    public long current() {
+        return version.get();
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 현재 스레드가 추적하는 테이블에 썼음을 알린다. 버전을 올리고, 트랜잭션이 끝나면 한 번 더 올린다.
+     */
+    public void markWritten() {
+        writtenInTransaction.set(Boolean.TRUE);
+        version.incrementAndGet();
+    }
+
+    /**
+     * 현재 스레드의 트랜잭션이 추적하는 테이블에 썼고 아직 끝나지 않았으면 true.
+     */
+    public boolean isWrittenInTransaction() {
+        return Objects.nonNull(writtenInTransaction.get());
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        VersionInterceptor interceptor = new VersionInterceptor();
+        hibernateProperties.put(AvailableSettings.INTERCEPTOR, interceptor);
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, interceptor);
+    }
+
+    boolean isWrite(String sql) {
+        Matcher matcher = WRITE.matcher(sql);
+        if (!matcher.find()) {
+            return false;
+        }
+        String table = matcher.group(1).replace("\"", "").toLowerCase(Locale.ROOT);
+        return tables.contains(table.substring(table.lastIndexOf('.') + 1));
+    }
+
+    private static String tableName(Class<?> entity) {
+        Table table = entity.getAnnotation(Table.class);
+        if (Objects.nonNull(table) && !table.name().isEmpty()) {
+            return table.name().toLowerCase(Locale.ROOT);
+        }
+        return entity.getSimpleName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    private class VersionInterceptor extends EmptyInterceptor implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            if (isWrite(sql)) {
+                markWritten();
+            }
+            return sql;
+        }
+
+        @Override
+        public void afterTransactionCompletion(Transaction tx) {
+            if (Objects.nonNull(writtenInTransaction.get())) {
+                writtenInTransaction.remove();
+                version.incrementAndGet();
+            }
+        }
+    }
+
+}
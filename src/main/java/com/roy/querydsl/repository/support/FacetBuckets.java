@@ -0,0 +1,52 @@
+package com.roy.querydsl.repository.support;
+
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+
+import java.util.Arrays;
+
+/**
+ * 정수 값을 구간 번호로 나누는 CASE 식.
+ * 경계값은 파라미터가 아닌 리터럴로 넣어 select 절과 group by 절이 같은 식으로 렌더링되게 한다.
+ * 값이 null 이면 -1 을 돌려준다.
+ */
+public class FacetBuckets {
+
+    private final String unit;
+    private final int[] edges;
+
+    private FacetBuckets(String unit, int[] edges) {
+        this.unit = unit;
+        this.edges = edges;
+    }
+
+    public static FacetBuckets of(String unit, int... edges) {
+        int[] sorted = edges.clone();
+        Arrays.sort(sorted);
+        return new FacetBuckets(unit, sorted);
+    }
+
+    public NumberExpression<Integer> index(NumberExpression<Integer> value) {
+        StringBuilder template = new StringBuilder("case when {0} is null then -1");
+        for (int i = 0; i < edges.length; i++) {
+            template.append(" when {0} < ").append(edges[i]).append(" then ").append(i);
+        }
+        template.append(" else ").append(edges.length).append(" end");
+        return Expressions.numberTemplate(Integer.class, template.toString(), value);
+    }
+
+    public int size() {
+        return edges.length + 1;
+    }
+
+    public String label(int index) {
+        if (index == 0) {
+            return "~ " + edges[0] + unit;
+        }
+        if (index == edges.length) {
+            return edges[edges.length - 1] + unit + " ~";
+        }
+        return edges[index - 1] + unit + " ~ " + edges[index] + unit;
+    }
+
+}
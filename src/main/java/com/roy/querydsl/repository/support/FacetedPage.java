@@ -0,0 +1,24 @@
+package com.roy.querydsl.repository.support;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * 검색 결과 페이지와 같은 조건으로 집계한 facet 을 함께 담는다.
+ */
+public class FacetedPage<T, F> extends PageImpl<T> {
+
+    private final F facets;
+
+    public FacetedPage(List<T> content, Pageable pageable, long total, F facets) {
+        super(content, pageable, total);
+        this.facets = facets;
+    }
+
+    public F getFacets() {
+        return facets;
+    }
+
+}
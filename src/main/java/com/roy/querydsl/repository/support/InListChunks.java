@@ -0,0 +1,45 @@
+package com.roy.querydsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * IN 절에 넣을 값 목록을 최대 크기 단위로 나누고, 각 조각을 2의 거듭제곱 크기로 채운다.
+ * 채우는 값은 조각의 마지막 값을 반복하므로 결과는 바뀌지 않고, 목록 크기별로 서로 다른 SQL 이 만들어지지 않아
+ * statement 캐시와 실행 계획 캐시를 재사용할 수 있다. 중복된 값은 한 번만 넣는다.
+ */
+public final class InListChunks {
+
+    private InListChunks() {
+    }
+
+    public static <T> List<List<T>> split(Iterable<T> values, int maxChunkSize) {
+        if (Integer.bitCount(maxChunkSize) != 1) {
+            throw new IllegalArgumentException("maxChunkSize must be a power of two: " + maxChunkSize);
+        }
+        LinkedHashSet<T> unique = new LinkedHashSet<>();
+        values.forEach(unique::add);
+        List<T> distinct = new ArrayList<>(unique);
+        if (distinct.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<List<T>> chunks = new ArrayList<>((distinct.size() + maxChunkSize - 1) / maxChunkSize);
+        for (int from = 0; from < distinct.size(); from += maxChunkSize) {
+            List<T> chunk = new ArrayList<>(distinct.subList(from, Math.min(from + maxChunkSize, distinct.size())));
+            T last = chunk.get(chunk.size() - 1);
+            for (int padded = paddedSize(chunk.size()); chunk.size() < padded; ) {
+                chunk.add(last);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    public static int paddedSize(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+}
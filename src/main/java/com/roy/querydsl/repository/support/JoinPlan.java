@@ -0,0 +1,130 @@
+package com.roy.querydsl.repository.support;
+
+import com.querydsl.core.support.ReplaceVisitor;
+import com.querydsl.core.types.*;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import javax.persistence.Id;
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * 필요한 연관관계만 조인하는 쿼리를 만든다.
+ * 선언한 연관관계({@code soccerPlayer.team})를 거치는 경로는 조인 alias({@code team}) 기준으로 바꾸고,
+ * 프로젝션, 조건, 정렬 중 하나라도 alias 를 참조할 때만 left join 을 추가한다.
+ * 연관 엔티티의 식별자({@code soccerPlayer.team.id})는 외래 키 컬럼으로 읽을 수 있으므로 조인 대상이 아니다.
+ * count 쿼리는 조건에 필요한 조인만 추가하고 정렬은 붙이지 않는다.
+ */
+public class JoinPlan {
+
+    private final EntityPath<?> root;
+    private final List<OptionalJoin> joins = new ArrayList<>();
+
+    private JoinPlan(EntityPath<?> root) {
+        this.root = root;
+    }
+
+    public static JoinPlan from(EntityPath<?> root) {
+        return new JoinPlan(root);
+    }
+
+    public <P> JoinPlan leftJoin(EntityPath<P> association, EntityPath<P> alias) {
+        joins.add(new OptionalJoin(association, alias, idProperty(alias.getType())));
+        return this;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public <T> JPAQuery<T> content(JPAQueryFactory queryFactory, Expression<T> projection,
+                                   Predicate[] where, OrderSpecifier<?>... orders) {
+        Rebase rebase = new Rebase();
+        Expression<T> rebasedProjection = rebase.apply(projection);
+        Predicate[] rebasedWhere = rebase.apply(where);
+        OrderSpecifier<?>[] rebasedOrders = Arrays.stream(orders)
+                .map(order -> new OrderSpecifier(order.getOrder(), rebase.apply(order.getTarget()), order.getNullHandling()))
+                .toArray(OrderSpecifier[]::new);
+
+        JPAQuery<T> query = queryFactory.select(rebasedProjection).from(root);
+        rebase.applyJoins(query);
+        return query.where(rebasedWhere).orderBy(rebasedOrders);
+    }
+
+    public JPAQuery<Long> count(JPAQueryFactory queryFactory, Predicate... where) {
+        Rebase rebase = new Rebase();
+        Predicate[] rebasedWhere = rebase.apply(where);
+
+        JPAQuery<Long> query = queryFactory.select(Wildcard.count).from(root);
+        rebase.applyJoins(query);
+        return query.where(rebasedWhere);
+    }
+
+    static String idProperty(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Id.class)) {
+                    return field.getName();
+                }
+            }
+        }
+        throw new IllegalArgumentException("No @Id property on " + type.getName());
+    }
+
+    private static class OptionalJoin {
+
+        private final EntityPath<?> association;
+        private final EntityPath<?> alias;
+        private final String idProperty;
+
+        private OptionalJoin(EntityPath<?> association, EntityPath<?> alias, String idProperty) {
+            this.association = association;
+            this.alias = alias;
+            this.idProperty = idProperty;
+        }
+    }
+
+    private class Rebase extends ReplaceVisitor<Void> {
+
+        private final Set<OptionalJoin> required = new LinkedHashSet<>();
+
+        @Override
+        public Expression<?> visit(Path<?> expr, Void context) {
+            for (OptionalJoin join : joins) {
+                if (expr.equals(join.association)) {
+                    required.add(join);
+                    return join.alias;
+                }
+                PathMetadata metadata = expr.getMetadata();
+                if (join.association.equals(metadata.getParent()) && join.idProperty.equals(metadata.getElement())) {
+                    return expr;
+                }
+                if (expr.getRoot().equals(join.alias)) {
+                    required.add(join);
+                }
+            }
+            return super.visit(expr, context);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> Expression<T> apply(Expression<T> expression) {
+            return (Expression<T>) expression.accept(this, null);
+        }
+
+        private Predicate[] apply(Predicate[] predicates) {
+            return Arrays.stream(predicates)
+                    .filter(Objects::nonNull)
+                    .map(predicate -> (Predicate) predicate.accept(this, null))
+                    .toArray(Predicate[]::new);
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private void applyJoins(JPAQuery<?> query) {
+            for (OptionalJoin join : joins) {
+                if (required.contains(join)) {
+                    query.leftJoin((EntityPath) join.association, join.alias);
+                }
+            }
+        }
+    }
+
+}
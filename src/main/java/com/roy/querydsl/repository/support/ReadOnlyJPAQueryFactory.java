@@ -0,0 +1,40 @@
+package com.roy.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.Objects;
+
+import static org.hibernate.jpa.QueryHints.SPEC_HINT_TIMEOUT;
+
+/**
+ * 만드는 모든 쿼리에 {@link ReadOnlyQueryHints} 를 적용하는 JPAQueryFactory.
+ * 조회만 하는 메서드는 이 팩토리로 쿼리를 만들어 읽기 전용임을 표시한다.
+ * queryTimeout 을 주면 모든 쿼리에 JDBC 쿼리 타임아웃도 건다.
+ */
+public class ReadOnlyJPAQueryFactory extends JPAQueryFactory {
+
+    private final Duration queryTimeout;
+
+    public ReadOnlyJPAQueryFactory(EntityManager entityManager) {
+        this(entityManager, null);
+    }
+
+    public ReadOnlyJPAQueryFactory(EntityManager entityManager, Duration queryTimeout) {
+        super(entityManager);
+        this.queryTimeout = queryTimeout;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        JPAQuery<?> query = super.query();
+        ReadOnlyQueryHints.apply(query);
+        if (Objects.nonNull(queryTimeout)) {
+            query.setHint(SPEC_HINT_TIMEOUT, (int) queryTimeout.toMillis());
+        }
+        return query;
+    }
+
+}
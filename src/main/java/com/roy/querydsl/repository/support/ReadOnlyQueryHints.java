@@ -0,0 +1,30 @@
+package com.roy.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.AbstractJPAQuery;
+
+import javax.persistence.FlushModeType;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+/**
+ * 조회 전용 쿼리 힌트.
+ * 읽어온 엔티티를 읽기 전용으로 두어 dirty checking 용 스냅샷을 만들지 않고,
+ * 쿼리 실행 전에 영속성 컨텍스트를 flush 하지 않으며, 큰 결과를 JDBC 왕복 몇 번에 나누어 받도록 fetch size 를 지정한다.
+ */
+public final class ReadOnlyQueryHints {
+
+    public static final String READ_ONLY = "true";
+    public static final String FLUSH_MODE = "COMMIT";
+    public static final String FETCH_SIZE = "500";
+
+    private ReadOnlyQueryHints() {
+    }
+
+    public static void apply(AbstractJPAQuery<?, ?> query) {
+        query.setHint(HINT_READONLY, true);
+        query.setHint(HINT_FETCH_SIZE, Integer.parseInt(FETCH_SIZE));
+        query.setFlushMode(FlushModeType.COMMIT);
+    }
+
+}
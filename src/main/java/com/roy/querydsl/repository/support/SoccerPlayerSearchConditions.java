@@ -0,0 +1,55 @@
+package com.roy.querydsl.repository.support;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.StringExpression;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+
+import java.util.Objects;
+
+/**
+ * SoccerPlayerSearchDTO 를 조건으로 바꾼다. 경로를 생성자로 받으므로 JPA 의 Q 타입과 querydsl-sql 의 S 타입이 같은 조건을 쓴다.
+ * 값이 없는 항목은 null 조건이 되어 where 에서 무시된다.
+ */
+public class SoccerPlayerSearchConditions {
+
+    private final StringExpression playerName;
+    private final StringExpression teamName;
+    private final NumberExpression<Integer> height;
+    private final NumberExpression<Integer> weight;
+
+    public SoccerPlayerSearchConditions(StringExpression playerName, StringExpression teamName,
+                                        NumberExpression<Integer> height, NumberExpression<Integer> weight) {
+        this.playerName = playerName;
+        this.teamName = teamName;
+        this.height = height;
+        this.weight = weight;
+    }
+
+    public Predicate[] of(SoccerPlayerSearchDTO dto) {
+        return new Predicate[]{
+                playerNameEq(dto.getPlayerName()),
+                teamNameEq(dto.getTeamName()),
+                heightGt(dto.getHeightGt()),
+                weightGt(dto.getWeightGt())
+        };
+    }
+
+    private BooleanExpression playerNameEq(String value) {
+        return Objects.nonNull(value) ? playerName.eq(value) : null;
+    }
+
+    private BooleanExpression teamNameEq(String value) {
+        return Objects.nonNull(value) ? teamName.eq(value) : null;
+    }
+
+    private BooleanExpression heightGt(Integer value) {
+        return Objects.nonNull(value) ? height.gt(value) : null;
+    }
+
+    private BooleanExpression weightGt(Integer value) {
+        return Objects.nonNull(value) ? weight.gt(value) : null;
+    }
+
+}
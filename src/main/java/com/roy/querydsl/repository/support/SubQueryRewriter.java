@@ -0,0 +1,555 @@
+package com.roy.querydsl.repository.support;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.support.NumberConversion;
+import com.querydsl.core.support.ReplaceVisitor;
+import com.querydsl.core.types.*;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * JPAQuery 의 스칼라 서브 쿼리를 행마다 실행되지 않도록 바꾼다.
+ * <ul>
+ *     <li>바깥 쿼리를 참조하지 않는 집계 서브 쿼리는 바깥 쿼리를 실행할 때마다 먼저 한 번 실행하고 결과를 상수로 치환한다. (WHERE, SELECT)
+ *     서브 쿼리 안의 Param 은 바깥 쿼리에 설정한 값을 쓴다.</li>
+ *     <li>SELECT 절에서 {@code inner.key = outer.key} 하나로만 바깥 쿼리와 연관된 집계 서브 쿼리는
+ *     바깥 쿼리를 먼저 실행한 뒤 나온 key 값들로 {@code inner.key in (...) GROUP BY inner.key} 쿼리를 실행하고 결과 행마다 key 로 값을 붙인다.
+ *     JPQL 은 FROM 절의 인라인 뷰를 지원하지 않으므로 derived join 대신 애플리케이션에서 그룹 결과를 조인한다.
+ *     key 는 조인 없이 읽을 수 있는 식별자나 외래 키({@code team.id})만 허용하므로 연관이 없는 바깥 행도 빠지지 않는다.
+ *     바깥 쿼리의 SELECT 에 key 를 더해야 하므로 바깥 쿼리가 DISTINCT 이거나 GROUP BY 를 가지면 바꾸지 않는다.</li>
+ * </ul>
+ * 그 외의 서브 쿼리와 HAVING, ORDER BY 절은 그대로 두고, 남는 SELECT 대상이 없으면 프로젝션은 바꾸지 않는다.
+ */
+@RequiredArgsConstructor
+public class SubQueryRewriter {
+
+    private static final int IN_CHUNK = 512;
+
+    private final EntityManager entityManager;
+
+    public <T> JPAQuery<T> rewrite(JPAQuery<T> query) {
+        QueryMetadata metadata = query.getMetadata().clone();
+        Expression<?> projection = metadata.getProjection();
+        RewrittenProjection rewrittenProjection = projection instanceof FactoryExpression
+                ? rewriteProjection((FactoryExpression<?>) projection, declaredRoots(metadata),
+                        !metadata.isDistinct() && metadata.getGroupBy().isEmpty())
+                : null;
+        if (Objects.nonNull(rewrittenProjection)) {
+            metadata.setProjection(rewrittenProjection.row);
+        }
+        RewrittenQuery<T> rewritten = new RewrittenQuery<>(entityManager, metadata, rewrittenProjection);
+        rewritten.copyFrom(query);
+        return rewritten;
+    }
+
+    /**
+     * groupedJoin 이 false 면 바깥 쿼리가 DISTINCT 이거나 GROUP BY 를 가진 것이므로, SELECT 에 key 를 더해야 하는 그룹 조회로 바꾸지 않는다.
+     */
+    private RewrittenProjection rewriteProjection(FactoryExpression<?> projection, Set<Expression<?>> outerRoots, boolean groupedJoin) {
+        List<Expression<?>> originalArgs = projection.getArgs();
+        List<Expression<?>> queryArgs = new ArrayList<>();
+        Slot[] slots = new Slot[originalArgs.size()];
+        boolean changed = false;
+
+        for (int i = 0; i < originalArgs.size(); i++) {
+            Expression<?> arg = originalArgs.get(i);
+            if (arg instanceof SubQueryExpression) {
+                SubQueryExpression<?> subQuery = (SubQueryExpression<?>) arg;
+                if (isHoistable(subQuery)) {
+                    slots[i] = (rows, execution) -> {
+                        Object value = execution.fetchOne(subQuery.getMetadata());
+                        return row -> value;
+                    };
+                    changed = true;
+                    continue;
+                }
+                GroupedJoin join = groupedJoin ? GroupedJoin.of(subQuery, outerRoots) : null;
+                if (Objects.nonNull(join)) {
+                    int keyIndex = indexOf(queryArgs, join.outerKey);
+                    slots[i] = (rows, execution) -> join.evaluate(rows, keyIndex, execution);
+                    changed = true;
+                    continue;
+                }
+            }
+            int index = indexOf(queryArgs, arg);
+            slots[i] = (rows, execution) -> row -> row[index];
+        }
+        return changed && !queryArgs.isEmpty() ? new RewrittenProjection(projection, queryArgs, slots) : null;
+    }
+
+    private static int indexOf(List<Expression<?>> args, Expression<?> arg) {
+        int index = args.indexOf(arg);
+        if (index < 0) {
+            args.add(arg);
+            index = args.size() - 1;
+        }
+        return index;
+    }
+
+    private static Set<Expression<?>> declaredRoots(QueryMetadata metadata) {
+        Set<Expression<?>> roots = new HashSet<>();
+        for (JoinExpression join : metadata.getJoins()) {
+            Expression<?> target = join.getTarget();
+            if (target instanceof Operation && ((Operation<?>) target).getOperator() == Ops.ALIAS) {
+                target = ((Operation<?>) target).getArg(1);
+            }
+            if (target instanceof Path) {
+                roots.add(((Path<?>) target).getRoot());
+            }
+        }
+        return roots;
+    }
+
+    private static Set<Expression<?>> referencedRoots(Expression<?> expression) {
+        Set<Expression<?>> roots = new HashSet<>();
+        expression.accept(RootCollector.INSTANCE, roots);
+        return roots;
+    }
+
+    private static boolean isAggregate(Expression<?> expression) {
+        Expression<?> unwrapped = unwrapConversion(expression);
+        return unwrapped instanceof Operation && ((Operation<?>) unwrapped).getOperator() instanceof Ops.AggOps;
+    }
+
+    private static Expression<?> unwrapConversion(Expression<?> expression) {
+        return expression instanceof NumberConversion ? ((NumberConversion<?>) expression).getArgs().get(0) : expression;
+    }
+
+    private static boolean isHoistable(SubQueryExpression<?> subQuery) {
+        QueryMetadata metadata = subQuery.getMetadata();
+        return isAggregate(metadata.getProjection())
+                && metadata.getGroupBy().isEmpty()
+                && isUncorrelated(subQuery);
+    }
+
+    private static boolean isUncorrelated(SubQueryExpression<?> subQuery) {
+        Set<Expression<?>> declared = new HashSet<>();
+        subQuery.accept(DeclaredRootCollector.INSTANCE, declared);
+        return declared.containsAll(referencedRoots(subQuery));
+    }
+
+    /**
+     * WHERE 절의 비연관 집계 서브 쿼리를 이번 실행에서 얻은 값으로 바꾼다. 값이 null 이면 서브 쿼리를 그대로 둔다.
+     */
+    private static class Hoister extends ReplaceVisitor<Void> {
+
+        private final Execution execution;
+
+        private Hoister(Execution execution) {
+            this.execution = execution;
+        }
+
+        @Override
+        public Expression<?> visit(SubQueryExpression<?> expr, Void context) {
+            if (isHoistable(expr)) {
+                Object value = execution.fetchOne(expr.getMetadata());
+                if (Objects.nonNull(value)) {
+                    return ConstantImpl.create(value);
+                }
+            }
+            return super.visit(expr, context);
+        }
+    }
+
+    private static class GroupedJoin {
+
+        private final EntityPath<?> inner;
+        private final Path<?> innerKey;
+        private final Path<?> outerKey;
+        private final Expression<?> projection;
+        private final List<Predicate> filters;
+
+        private GroupedJoin(EntityPath<?> inner, Path<?> innerKey, Path<?> outerKey, Expression<?> projection, List<Predicate> filters) {
+            this.inner = inner;
+            this.innerKey = innerKey;
+            this.outerKey = outerKey;
+            this.projection = projection;
+            this.filters = filters;
+        }
+
+        private static GroupedJoin of(SubQueryExpression<?> subQuery, Set<Expression<?>> outerRoots) {
+            QueryMetadata metadata = subQuery.getMetadata();
+            List<JoinExpression> joins = metadata.getJoins();
+            if (!isAggregate(metadata.getProjection()) || !metadata.getGroupBy().isEmpty()
+                    || Objects.nonNull(metadata.getHaving()) || Objects.isNull(metadata.getWhere())
+                    || joins.size() != 1 || joins.get(0).getType() != JoinType.DEFAULT
+                    || !(joins.get(0).getTarget() instanceof EntityPath)) {
+                return null;
+            }
+            EntityPath<?> inner = (EntityPath<?>) joins.get(0).getTarget();
+            Expression<?> projection = metadata.getProjection();
+            if (!Set.of(inner).containsAll(referencedRoots(projection))) {
+                return null;
+            }
+
+            Path<?> innerKey = null;
+            Path<?> outerKey = null;
+            List<Predicate> filters = new ArrayList<>();
+            for (Predicate conjunct : conjuncts(metadata.getWhere())) {
+                Set<Expression<?>> roots = referencedRoots(conjunct);
+                if (Set.of(inner).containsAll(roots)) {
+                    filters.add(conjunct);
+                    continue;
+                }
+                Path<?>[] keys = correlation(conjunct, inner, outerRoots);
+                if (Objects.isNull(keys) || Objects.nonNull(innerKey)) {
+                    return null;
+                }
+                innerKey = keys[0];
+                outerKey = keys[1];
+            }
+            return Objects.nonNull(innerKey) ? new GroupedJoin(inner, innerKey, outerKey, projection, filters) : null;
+        }
+
+        private static List<Predicate> conjuncts(Predicate predicate) {
+            if (predicate instanceof Operation && ((Operation<?>) predicate).getOperator() == Ops.AND) {
+                List<Predicate> result = new ArrayList<>();
+                for (Expression<?> arg : ((Operation<?>) predicate).getArgs()) {
+                    result.addAll(conjuncts((Predicate) arg));
+                }
+                return result;
+            }
+            return List.of(predicate);
+        }
+
+        private static Path<?>[] correlation(Predicate conjunct, EntityPath<?> inner, Set<Expression<?>> outerRoots) {
+            if (!(conjunct instanceof Operation) || ((Operation<?>) conjunct).getOperator() != Ops.EQ) {
+                return null;
+            }
+            Expression<?> left = ((Operation<?>) conjunct).getArg(0);
+            Expression<?> right = ((Operation<?>) conjunct).getArg(1);
+            if (isKey(left, Set.of(inner)) && isKey(right, outerRoots)) {
+                return new Path<?>[]{(Path<?>) left, (Path<?>) right};
+            }
+            if (isKey(right, Set.of(inner)) && isKey(left, outerRoots)) {
+                return new Path<?>[]{(Path<?>) right, (Path<?>) left};
+            }
+            return null;
+        }
+
+        /**
+         * 조인 없이 컬럼으로 읽을 수 있는 경로, 즉 엔티티의 식별자나 연관 엔티티의 식별자(외래 키)만 key 로 쓴다.
+         */
+        private static boolean isKey(Expression<?> expression, Set<Expression<?>> roots) {
+            if (!(expression instanceof Path) || expression instanceof EntityPath
+                    || !roots.contains(((Path<?>) expression).getRoot())) {
+                return false;
+            }
+            PathMetadata metadata = ((Path<?>) expression).getMetadata();
+            Path<?> parent = metadata.getParent();
+            return Objects.nonNull(parent)
+                    && metadata.getPathType() == PathType.PROPERTY
+                    && parent.getType().isAnnotationPresent(Entity.class)
+                    && metadata.getName().equals(JoinPlan.idProperty(parent.getType()));
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private Function<Object[], Object> evaluate(List<Object[]> rows, int keyIndex, Execution execution) {
+            List<Object> keys = new ArrayList<>();
+            for (Object[] row : rows) {
+                if (Objects.nonNull(row[keyIndex])) {
+                    keys.add(row[keyIndex]);
+                }
+            }
+            Map<Object, Object> values = new HashMap<>();
+            for (List<Object> chunk : InListChunks.split(keys, IN_CHUNK)) {
+                List<Predicate> where = new ArrayList<>(filters);
+                where.add(ExpressionUtils.in((Expression) innerKey, chunk));
+                List<Tuple> groups = execution.query()
+                        .select(innerKey, projection)
+                        .from(inner)
+                        .where(where.toArray(new Predicate[0]))
+                        .groupBy(innerKey)
+                        .fetch();
+                for (Tuple group : groups) {
+                    values.put(group.get(innerKey), group.get(projection));
+                }
+            }
+            Object missing = valueForEmptyGroup();
+            return row -> values.getOrDefault(row[keyIndex], missing);
+        }
+
+        private Object valueForEmptyGroup() {
+            Operator operator = ((Operation<?>) unwrapConversion(projection)).getOperator();
+            return operator == Ops.AggOps.COUNT_AGG || operator == Ops.AggOps.COUNT_DISTINCT_AGG
+                    || operator == Ops.AggOps.COUNT_ALL_AGG || operator == Ops.AggOps.COUNT_DISTINCT_ALL_AGG
+                    ? 0L : null;
+        }
+    }
+
+    /**
+     * 바깥 쿼리 결과 행 전체를 보고, 원래 프로젝션의 인자 하나를 행마다 채우는 함수를 만든다.
+     */
+    private interface Slot {
+        Function<Object[], Object> prepare(List<Object[]> rows, Execution execution);
+    }
+
+    /**
+     * 바깥 쿼리 한 번의 실행. 서브 쿼리는 바깥 쿼리와 같은 EntityManager 와 Param 값으로 실행한다.
+     */
+    private interface Execution {
+
+        JPAQuery<?> query();
+
+        Object fetchOne(QueryMetadata metadata);
+    }
+
+    private static class RewrittenProjection {
+
+        private final FactoryExpression<?> original;
+        private final Slot[] slots;
+        private final RowExpression row;
+
+        private RewrittenProjection(FactoryExpression<?> original, List<Expression<?>> args, Slot[] slots) {
+            this.original = original;
+            this.slots = slots;
+            this.row = new RowExpression(args);
+        }
+
+        private List<Object> assemble(List<Object[]> rows, Execution execution) {
+            List<Function<Object[], Object>> values = new ArrayList<>(slots.length);
+            for (Slot slot : slots) {
+                values.add(slot.prepare(rows, execution));
+            }
+            List<Object> result = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                Object[] args = new Object[slots.length];
+                for (int i = 0; i < slots.length; i++) {
+                    args[i] = values.get(i).apply(row);
+                }
+                result.add(original.newInstance(args));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 바깥 쿼리가 실제로 조회하는 인자들. 행을 그대로 돌려주고 원래 프로젝션은 {@link RewrittenProjection} 이 만든다.
+     */
+    private static class RowExpression extends FactoryExpressionBase<Object[]> {
+
+        private final List<Expression<?>> args;
+
+        private RowExpression(List<Expression<?>> args) {
+            super(Object[].class);
+            this.args = Collections.unmodifiableList(args);
+        }
+
+        @Override
+        public List<Expression<?>> getArgs() {
+            return args;
+        }
+
+        @Override
+        public Object[] newInstance(Object... row) {
+            return row;
+        }
+
+        @Override
+        public <R, C> R accept(Visitor<R, C> v, C context) {
+            return v.visit(this, context);
+        }
+    }
+
+    /**
+     * 실행할 때마다 WHERE 절의 서브 쿼리를 먼저 실행하고, 프로젝션을 바꿨다면 결과 행을 원래 프로젝션으로 조립한다.
+     */
+    @SuppressWarnings("unchecked")
+    private static class RewrittenQuery<T> extends JPAQuery<T> implements Execution {
+
+        private final RewrittenProjection projection;
+
+        private RewrittenQuery(EntityManager entityManager, QueryMetadata metadata, RewrittenProjection projection) {
+            super(entityManager, metadata);
+            this.projection = projection;
+        }
+
+        private RewrittenQuery(EntityManager entityManager, JPQLTemplates templates, QueryMetadata metadata, RewrittenProjection projection) {
+            super(entityManager, templates, metadata);
+            this.projection = projection;
+        }
+
+        private void copyFrom(JPAQuery<T> query) {
+            clone(query);
+        }
+
+        @Override
+        public JPAQuery<?> query() {
+            JPAQuery<?> query = new JPAQuery<>(entityManager);
+            getMetadata().getParams().forEach((param, value) -> query.getMetadata().setParam((ParamExpression<Object>) param, value));
+            return query;
+        }
+
+        @Override
+        public Object fetchOne(QueryMetadata metadata) {
+            QueryMetadata subQuery = metadata.clone();
+            getMetadata().getParams().forEach((param, value) -> subQuery.setParam((ParamExpression<Object>) param, value));
+            return new JPAQuery<>(entityManager, subQuery).fetchOne();
+        }
+
+        @Override
+        protected Query createQuery(QueryModifiers modifiers, boolean forCount) {
+            QueryMetadata metadata = getMetadata();
+            Predicate where = metadata.getWhere();
+            if (Objects.isNull(where)) {
+                return super.createQuery(modifiers, forCount);
+            }
+            metadata.clearWhere();
+            metadata.addWhere((Predicate) where.accept(new Hoister(this), null));
+            try {
+                return super.createQuery(modifiers, forCount);
+            } finally {
+                metadata.clearWhere();
+                metadata.addWhere(where);
+            }
+        }
+
+        @Override
+        public List<T> fetch() {
+            return Objects.isNull(projection) ? super.fetch() : assemble(super.fetch());
+        }
+
+        @Override
+        public T fetchOne() {
+            T row = super.fetchOne();
+            return Objects.isNull(projection) || Objects.isNull(row) ? row : assemble(List.of(row)).get(0);
+        }
+
+        @Override
+        @Deprecated
+        public QueryResults<T> fetchResults() {
+            QueryResults<T> results = super.fetchResults();
+            if (Objects.isNull(projection) || results.isEmpty()) {
+                return results;
+            }
+            return new QueryResults<>(assemble(results.getResults()), results.getLimit(), results.getOffset(), results.getTotal());
+        }
+
+        @Override
+        public CloseableIterator<T> iterate() {
+            return Objects.isNull(projection) ? super.iterate() : new IteratorAdapter<>(fetch().iterator());
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return Objects.isNull(projection) ? super.stream() : fetch().stream();
+        }
+
+        @Override
+        public JPAQuery<T> clone(EntityManager entityManager, JPQLTemplates templates) {
+            RewrittenQuery<T> query = new RewrittenQuery<>(entityManager, templates, getMetadata().clone(), projection);
+            query.clone(this);
+            return query;
+        }
+
+        @Override
+        public JPAQuery<T> clone(EntityManager entityManager) {
+            return clone(entityManager, getTemplates());
+        }
+
+        private List<T> assemble(List<T> rows) {
+            return (List<T>) projection.assemble((List<Object[]>) rows, this);
+        }
+    }
+
+    private static class RootCollector implements Visitor<Void, Set<Expression<?>>> {
+
+        private static final RootCollector INSTANCE = new RootCollector();
+
+        @Override
+        public Void visit(Constant<?> expr, Set<Expression<?>> roots) {
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, Set<Expression<?>> roots) {
+            expr.getArgs().forEach(arg -> arg.accept(this, roots));
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, Set<Expression<?>> roots) {
+            expr.getArgs().forEach(arg -> arg.accept(this, roots));
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, Set<Expression<?>> roots) {
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, Set<Expression<?>> roots) {
+            roots.add(expr.getRoot());
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Set<Expression<?>> roots) {
+            QueryMetadata metadata = expr.getMetadata();
+            for (JoinExpression join : metadata.getJoins()) {
+                Expression<?> target = join.getTarget();
+                if (target instanceof Operation && ((Operation<?>) target).getOperator() == Ops.ALIAS) {
+                    ((Operation<?>) target).getArg(0).accept(this, roots);
+                }
+                if (Objects.nonNull(join.getCondition())) {
+                    join.getCondition().accept(this, roots);
+                }
+            }
+            accept(metadata.getProjection(), roots);
+            accept(metadata.getWhere(), roots);
+            accept(metadata.getHaving(), roots);
+            metadata.getGroupBy().forEach(groupBy -> groupBy.accept(this, roots));
+            metadata.getOrderBy().forEach(orderBy -> orderBy.getTarget().accept(this, roots));
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, Set<Expression<?>> roots) {
+            expr.getArgs().forEach(arg -> {
+                if (arg instanceof Expression) {
+                    ((Expression<?>) arg).accept(this, roots);
+                }
+            });
+            return null;
+        }
+
+        private void accept(Expression<?> expression, Set<Expression<?>> roots) {
+            if (Objects.nonNull(expression)) {
+                expression.accept(this, roots);
+            }
+        }
+    }
+
+    private static class DeclaredRootCollector extends RootCollector {
+
+        private static final DeclaredRootCollector INSTANCE = new DeclaredRootCollector();
+
+        @Override
+        public Void visit(Path<?> expr, Set<Expression<?>> roots) {
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Set<Expression<?>> roots) {
+            roots.addAll(declaredRoots(expr.getMetadata()));
+            return super.visit(expr, roots);
+        }
+    }
+
+}
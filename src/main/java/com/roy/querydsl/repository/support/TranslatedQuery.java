@@ -0,0 +1,109 @@
+package com.roy.querydsl.repository.support;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
+import org.hibernate.engine.query.spi.HQLQueryPlan;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.hql.internal.ast.QueryTranslatorImpl;
+import org.hibernate.hql.spi.QueryTranslator;
+import org.hibernate.param.ParameterSpecification;
+import org.hibernate.param.PositionalParameterSpecification;
+import org.hibernate.type.Type;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Querydsl 쿼리를 Hibernate 가 만드는 SQL 과 바인딩할 파라미터로 번역한다.
+ * JPQL 로 표현할 수 없는 SQL(서브쿼리 감싸기, UNION ALL, 윈도 함수)로 쿼리를 감쌀 때 사용한다.
+ * 컬렉션 파라미터는 SQL 이 바인딩 값 개수에 따라 달라지고 다형성 쿼리는 SQL 이 여러 개이므로 번역하지 않는다.
+ * Hibernate 5 에는 쿼리 플랜 캐시를 꺼낼 수 있는 폐기되지 않은 API 가 없으므로, 번역한 플랜은 세션 팩토리와 JPQL 별로 따로 캐시한다.
+ */
+public class TranslatedQuery {
+
+    private static final int MAX_PLANS = 256;
+    private static final Map<List<Object>, HQLQueryPlan> PLANS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, HQLQueryPlan> eldest) {
+            return size() > MAX_PLANS;
+        }
+    };
+
+    private final String sql;
+    private final List<ParameterSpecification> parameters;
+    private final List<Object> constants;
+    private final SessionFactoryImplementor sessionFactory;
+
+    private TranslatedQuery(String sql, List<ParameterSpecification> parameters, List<Object> constants,
+                            SessionFactoryImplementor sessionFactory) {
+        this.sql = sql;
+        this.parameters = parameters;
+        this.constants = constants;
+        this.sessionFactory = sessionFactory;
+    }
+
+    public static Optional<TranslatedQuery> translate(QueryMetadata metadata, EntityManager entityManager) {
+        JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(entityManager), entityManager);
+        serializer.serialize(metadata, false, null);
+        List<Object> constants = serializer.getConstants();
+        if (constants.stream().anyMatch(Collection.class::isInstance)) {
+            return Optional.empty();
+        }
+
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        HQLQueryPlan plan = plan(serializer.toString(), sessionFactory);
+        QueryTranslator[] translators = plan.getTranslators();
+        if (translators.length != 1 || !(translators[0] instanceof QueryTranslatorImpl)) {
+            return Optional.empty();
+        }
+        QueryTranslatorImpl translator = (QueryTranslatorImpl) translators[0];
+        return Optional.of(new TranslatedQuery(translator.getSQLString(),
+                translator.getCollectedParameterSpecifications(), constants, sessionFactory));
+    }
+
+    private static HQLQueryPlan plan(String jpql, SessionFactoryImplementor sessionFactory) {
+        List<Object> key = List.of(sessionFactory, jpql);
+        synchronized (PLANS) {
+            HQLQueryPlan plan = PLANS.get(key);
+            if (Objects.nonNull(plan)) {
+                return plan;
+            }
+        }
+        HQLQueryPlan plan = new HQLQueryPlan(jpql, false, Collections.emptyMap(), sessionFactory);
+        synchronized (PLANS) {
+            PLANS.put(key, plan);
+        }
+        return plan;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * position 부터 파라미터를 바인딩하고 다음 위치를 돌려준다.
+     */
+    public int bind(PreparedStatement statement, int position, SharedSessionContractImplementor session) throws SQLException {
+        for (ParameterSpecification parameter : parameters) {
+            int label = ((PositionalParameterSpecification) parameter).getLabel();
+            Object value = constants.get(label - 1);
+            Type type = Objects.nonNull(parameter.getExpectedType())
+                    ? parameter.getExpectedType()
+                    : sessionFactory.getTypeHelper().heuristicType(value.getClass().getName());
+            type.nullSafeSet(statement, value, position, session);
+            position += type.getColumnSpan(sessionFactory);
+        }
+        return position;
+    }
+
+}
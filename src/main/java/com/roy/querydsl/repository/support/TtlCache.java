@@ -0,0 +1,64 @@
+package com.roy.querydsl.repository.support;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 만료 시간과 최대 크기가 있는 LRU 캐시.
+ * 만료 시간이 0 이면 캐시하지 않고 매번 loader 를 호출한다.
+ * 변경 시 무효화하지 않으므로 만료 시간만큼 오래된 값을 돌려줄 수 있다.
+ */
+public class TtlCache<K, V> {
+
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+
+    public TtlCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        if (ttlNanos <= 0) {
+            return loader.get();
+        }
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (Objects.nonNull(entry) && now - entry.loadedAt < ttlNanos) {
+                return entry.value;
+            }
+        }
+        V value = loader.get();
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, now));
+        }
+        return value;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.roy.querydsl.repository.support.admission;
+
+import java.util.Locale;
+
+/**
+ * 검색 하나의 예상 비용 등급. 등급별 한도는 {@link SearchAdmissionProperties} 에 있다.
+ */
+public enum QueryCost {
+
+    CHEAP,
+    MODERATE,
+    EXPENSIVE;
+
+    String propertyName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.roy.querydsl.repository.support.admission;
+
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 검색을 비용 등급({@link QueryCost})별 동시 실행 한도 안에서만 실행한다.
+ * 자리가 없으면 queue-timeout 만큼 기다린 뒤 {@link SearchRejectedException} 으로 거절하므로, 비싼 검색이 몰려도 싼 조회의 자리는 남는다.
+ * 기다리는 중에 인터럽트되면 거절로 세지 않고 인터럽트 상태를 복원한 뒤 {@link CancellationException} 을 던진다.
+ * 실행하는 쿼리에는 등급별 query-timeout 을 JDBC 쿼리 타임아웃으로 건다. JDBC 타임아웃은 초 단위이므로 1초 이상, 초 단위로 올림한다.
+ * moderate 와 expensive 의 max-concurrent 합은 커넥션 풀 크기보다 작게 두어야 싼 조회가 커넥션을 기다리지 않는다.
+ */
+@Component
+@EnableConfigurationProperties(SearchAdmissionProperties.class)
+public class SearchAdmissionController {
+
+    static final String ACTIVE = "querydsl.admission.active";
+    static final String REJECTED = "querydsl.admission.rejected";
+
+    private final SearchCostEstimator estimator;
+    private final Map<QueryCost, Lane> lanes = new EnumMap<>(QueryCost.class);
+
+    public SearchAdmissionController(SearchAdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.estimator = new SearchCostEstimator(properties.getDeepOffset());
+        for (QueryCost cost : QueryCost.values()) {
+            SearchAdmissionProperties.Limits limits = properties.limits(cost);
+            lanes.put(cost, new Lane(cost, limits.getMaxConcurrent(), limits.getQueueTimeout(), limits.getQueryTimeout(), meterRegistry));
+        }
+    }
+
+    public QueryCost estimate(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        return estimator.estimate(dto, pageable);
+    }
+
+    /**
+     * work 는 넘겨받은 타임아웃을 자신이 실행하는 쿼리에 걸어야 한다.
+     */
+    public <T> T admit(QueryCost cost, Function<Duration, T> work) {
+        Lane lane = lanes.get(cost);
+        lane.acquire();
+        try {
+            return work.apply(lane.queryTimeout);
+        } finally {
+            lane.permits.release();
+        }
+    }
+
+    private static class Lane {
+
+        private final QueryCost cost;
+        private final int maxConcurrent;
+        private final Duration queueTimeout;
+        private final Duration queryTimeout;
+        private final Semaphore permits;
+        private final Counter rejected;
+
+        private Lane(QueryCost cost, int maxConcurrent, Duration queueTimeout, Duration queryTimeout, MeterRegistry meterRegistry) {
+            this.cost = cost;
+            this.maxConcurrent = maxConcurrent;
+            this.queueTimeout = queueTimeout;
+            this.queryTimeout = Duration.ofSeconds(Math.max(1, (queryTimeout.toMillis() + 999) / 1000));
+            this.permits = new Semaphore(maxConcurrent, true);
+            this.rejected = Counter.builder(REJECTED)
+                    .tag("cost", cost.propertyName())
+                    .description("Searches shed because their cost class was at its concurrency limit")
+                    .register(meterRegistry);
+            Gauge.builder(ACTIVE, permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                    .tag("cost", cost.propertyName())
+                    .register(meterRegistry);
+        }
+
+        private void acquire() {
+            try {
+                if (permits.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                CancellationException cancelled = new CancellationException("Interrupted while waiting for a " + cost + " search slot");
+                cancelled.initCause(e);
+                throw cancelled;
+            }
+            rejected.increment();
+            throw new SearchRejectedException(cost, cost + " search rejected: " + maxConcurrent
+                    + " already running and no slot freed within " + queueTimeout.toMillis()
+                    + "ms, add a name or team filter or request a shallower page");
+        }
+
+    }
+
+}
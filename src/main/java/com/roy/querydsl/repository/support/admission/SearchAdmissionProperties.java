@@ -0,0 +1,48 @@
+package com.roy.querydsl.repository.support.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * querydsl.admission 설정과 그 기본값.
+ * 비용 등급마다 querydsl.admission.{cheap|moderate|expensive}.{max-concurrent|queue-timeout|query-timeout} 로 바꿀 수 있고,
+ * 일부만 지정하면 나머지는 기본값을 유지한다.
+ */
+@Data
+@ConfigurationProperties("querydsl.admission")
+public class SearchAdmissionProperties {
+
+    /**
+     * 이 offset 이상을 요청하는 페이지는 깊은 페이지로 보고 비용 점수를 더한다.
+     */
+    private long deepOffset = 1000;
+    private Limits cheap = new Limits(16, Duration.ofSeconds(1), Duration.ofSeconds(2));
+    private Limits moderate = new Limits(6, Duration.ofMillis(500), Duration.ofSeconds(5));
+    private Limits expensive = new Limits(2, Duration.ofMillis(100), Duration.ofSeconds(10));
+
+    Limits limits(QueryCost cost) {
+        switch (cost) {
+            case CHEAP:
+                return cheap;
+            case MODERATE:
+                return moderate;
+            default:
+                return expensive;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limits {
+
+        private int maxConcurrent;
+        private Duration queueTimeout;
+        private Duration queryTimeout;
+    }
+
+}
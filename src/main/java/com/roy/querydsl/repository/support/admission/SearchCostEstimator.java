@@ -0,0 +1,69 @@
+package com.roy.querydsl.repository.support.admission;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 검색 조건과 페이지로 비용 등급을 매긴다.
+ * 동등 조건(선수 이름, 팀 이름)이 없으면 2점, 범위 조건만 있으면 1점,
+ * offset 이 deep-offset 이상이거나 페이징하지 않으면 2점, 인덱스의 첫 컬럼이 아닌 속성으로 정렬하면 1점을 더한다.
+ * 0점은 CHEAP, 3점 이상은 EXPENSIVE, 나머지는 MODERATE 다.
+ * 조건이 있는지는 SoccerPlayerSearchConditions 와 같이 null 여부로 판단한다.
+ * 정렬에 쓸 수 있는 속성은 SoccerPlayer 의 @Id 와 @Table 인덱스에서 읽는다.
+ */
+class SearchCostEstimator {
+
+    private static final int EXPENSIVE_SCORE = 3;
+
+    private final long deepOffset;
+    private final Set<String> indexedProperties;
+
+    SearchCostEstimator(long deepOffset) {
+        this.deepOffset = deepOffset;
+        this.indexedProperties = indexedProperties(SoccerPlayer.class);
+    }
+
+    QueryCost estimate(SoccerPlayerSearchDTO dto, Pageable pageable) {
+        int score = 0;
+        if (Objects.isNull(dto.getPlayerName()) && Objects.isNull(dto.getTeamName())) {
+            score += Objects.nonNull(dto.getHeightGt()) || Objects.nonNull(dto.getWeightGt()) ? 1 : 2;
+        }
+        if (pageable.isUnpaged() || pageable.getOffset() >= deepOffset) {
+            score += 2;
+        }
+        if (pageable.getSort().stream().map(Sort.Order::getProperty).anyMatch(property -> !indexedProperties.contains(property))) {
+            score += 1;
+        }
+        return score == 0 ? QueryCost.CHEAP : score >= EXPENSIVE_SCORE ? QueryCost.EXPENSIVE : QueryCost.MODERATE;
+    }
+
+    private static Set<String> indexedProperties(Class<?> entity) {
+        Set<String> leadingColumns = Arrays.stream(entity.getAnnotation(Table.class).indexes())
+                .map(Index::columnList)
+                .map(columns -> columns.split(",")[0].trim().split("\\s+")[0])
+                .collect(Collectors.toSet());
+        Set<String> properties = new HashSet<>();
+        for (Field field : entity.getDeclaredFields()) {
+            Column column = field.getAnnotation(Column.class);
+            String columnName = Objects.nonNull(column) && !column.name().isEmpty() ? column.name() : field.getName();
+            if (field.isAnnotationPresent(Id.class) || leadingColumns.contains(columnName)) {
+                properties.add(field.getName());
+            }
+        }
+        return properties;
+    }
+
+}
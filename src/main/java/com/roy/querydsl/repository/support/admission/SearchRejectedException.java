@@ -0,0 +1,26 @@
+package com.roy.querydsl.repository.support.admission;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 비용 등급의 동시 실행 한도가 찼고 queue-timeout 안에 자리가 나지 않아 검색을 실행하지 않았다.
+ * 컨트롤러까지 올라오면 503 으로 응답한다.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SearchRejectedException extends RejectedExecutionException {
+
+    private final QueryCost cost;
+
+    SearchRejectedException(QueryCost cost, String message) {
+        super(message);
+        this.cost = cost;
+    }
+
+    public QueryCost getCost() {
+        return cost;
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.roy.querydsl.repository.support.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 바이트 배열 값을 direct ByteBuffer 슬랩에 저장하는 LRU 저장소.
+ * 슬랩은 blockSize 크기의 블록으로 나누어 쓰고, 값 하나는 여러 블록에 걸쳐 저장된다.
+ * 슬랩은 필요할 때 maxBytes 까지 할당하며, 빈 블록이 모자라면 가장 오래 읽지 않은 값부터 내보낸다.
+ * 힙에는 키와 블록 번호만 남는다.
+ */
+public class OffHeapSlabStore<K> {
+
+    private final int blockSize;
+    private final int blocksPerSlab;
+    private final int maxSlabs;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final ArrayDeque<Integer> freeBlocks = new ArrayDeque<>();
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long evictions;
+
+    public OffHeapSlabStore(long maxBytes, int slabBytes, int blockSize) {
+        this.blockSize = blockSize;
+        this.blocksPerSlab = Math.max(1, (int) Math.min(slabBytes, maxBytes) / blockSize);
+        this.maxSlabs = (int) (maxBytes / ((long) blocksPerSlab * blockSize));
+    }
+
+    public synchronized byte[] get(K key) {
+        Entry entry = entries.get(key);
+        if (Objects.isNull(entry)) {
+            return null;
+        }
+        byte[] value = new byte[entry.length];
+        int offset = 0;
+        for (int block : entry.blocks) {
+            int length = Math.min(blockSize, value.length - offset);
+            block(block).get(value, offset, length);
+            offset += length;
+        }
+        return value;
+    }
+
+    /**
+     * 저장 공간 전체보다 큰 값은 저장하지 않고 false 를 돌려준다.
+     */
+    public synchronized boolean put(K key, byte[] value) {
+        remove(key);
+        int needed = Math.max(1, (value.length + blockSize - 1) / blockSize);
+        if (needed > (long) maxSlabs * blocksPerSlab) {
+            return false;
+        }
+        while (freeBlocks.size() < needed && !allocateSlab()) {
+            evictEldest();
+        }
+
+        int[] blocks = new int[needed];
+        int offset = 0;
+        for (int i = 0; i < needed; i++) {
+            blocks[i] = freeBlocks.pop();
+            int length = Math.min(blockSize, value.length - offset);
+            block(blocks[i]).put(value, offset, length);
+            offset += length;
+        }
+        entries.put(key, new Entry(blocks, value.length));
+        return true;
+    }
+
+    public synchronized void remove(K key) {
+        Entry entry = entries.remove(key);
+        if (Objects.nonNull(entry)) {
+            release(entry);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getAllocatedBytes() {
+        return (long) slabs.size() * blocksPerSlab * blockSize;
+    }
+
+    private boolean allocateSlab() {
+        if (slabs.size() >= maxSlabs) {
+            return false;
+        }
+        int first = slabs.size() * blocksPerSlab;
+        slabs.add(ByteBuffer.allocateDirect(blocksPerSlab * blockSize));
+        for (int i = 0; i < blocksPerSlab; i++) {
+            freeBlocks.add(first + i);
+        }
+        return true;
+    }
+
+    private void evictEldest() {
+        Iterator<Map.Entry<K, Entry>> eldest = entries.entrySet().iterator();
+        release(eldest.next().getValue());
+        eldest.remove();
+        evictions++;
+    }
+
+    private void release(Entry entry) {
+        for (int block : entry.blocks) {
+            freeBlocks.push(block);
+        }
+    }
+
+    private ByteBuffer block(int block) {
+        ByteBuffer slab = slabs.get(block / blocksPerSlab).duplicate();
+        slab.position((block % blocksPerSlab) * blockSize);
+        return slab;
+    }
+
+    private static class Entry {
+
+        private final int[] blocks;
+        private final int length;
+
+        private Entry(int[] blocks, int length) {
+            this.blocks = blocks;
+            this.length = length;
+        }
+    }
+
+}
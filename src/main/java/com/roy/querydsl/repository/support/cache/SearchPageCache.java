@@ -0,0 +1,97 @@
+package com.roy.querydsl.repository.support.cache;
+
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.repository.support.DataVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 자주 찾는 검색의 앞쪽 페이지를 TeamPageCodec 형식으로 OffHeapSlabStore 에 캐시한다.
+ * 페이지 번호가 max-page 미만인 페이지만 캐시하고, 읽을 때마다 바이트에서 새 페이지로 복원한다.
+ * 키에 DataVersion 을 포함하므로 SoccerPlayer 나 Team 이 바뀌면(벌크 수정, upsert 포함) 이전 항목은 더 이상 읽히지 않고,
+ * 버전이 바뀐 뒤 처음 읽을 때 전체를 비운다. 쓰기를 한 트랜잭션 안에서는 캐시를 거치지 않는다. max-bytes 가 0 이면 캐시하지 않는다.
+ */
+@Component
+public class SearchPageCache {
+
+    private static final int SLAB_BYTES = 1024 * 1024;
+
+    private final DataVersion dataVersion;
+    private final OffHeapSlabStore<List<Object>> store;
+    private final int maxPage;
+    private final boolean enabled;
+    private final AtomicLong clearedVersion = new AtomicLong(-1);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SearchPageCache(DataVersion dataVersion,
+                           @Value("${querydsl.page-cache.max-bytes:0B}") DataSize maxBytes,
+                           @Value("${querydsl.page-cache.block-size:256B}") DataSize blockSize,
+                           @Value("${querydsl.page-cache.max-page:3}") int maxPage) {
+        this.dataVersion = dataVersion;
+        this.store = new OffHeapSlabStore<>(maxBytes.toBytes(), SLAB_BYTES, (int) blockSize.toBytes());
+        this.maxPage = maxPage;
+        this.enabled = maxBytes.toBytes() > 0;
+    }
+
+    /**
+     * key 는 페이지 번호와 크기를 제외한 검색 조건이다.
+     */
+    public Page<SoccerPlayerTeamDTO> get(List<Object> key, Pageable pageable, Supplier<Page<SoccerPlayerTeamDTO>> loader) {
+        if (!enabled || pageable.isUnpaged() || pageable.getPageNumber() >= maxPage || isDirtyTransaction()) {
+            return loader.get();
+        }
+
+        long version = dataVersion.current();
+        long cleared = clearedVersion.get();
+        if (cleared != version && clearedVersion.compareAndSet(cleared, version)) {
+            store.clear();
+        }
+
+        List<Object> pageKey = List.of(version, key, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        byte[] cached = store.get(pageKey);
+        if (Objects.nonNull(cached)) {
+            hits.increment();
+            return TeamPageCodec.decode(cached, pageable);
+        }
+
+        misses.increment();
+        Page<SoccerPlayerTeamDTO> page = loader.get();
+        store.put(pageKey, TeamPageCodec.encode(page));
+        return page;
+    }
+
+    /**
+     * 쓰기를 한 트랜잭션 안의 검색은 아직 커밋되지 않았거나 롤백될 행을 볼 수 있으므로 캐시를 읽지도 쓰지도 않는다.
+     */
+    private boolean isDirtyTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive() && dataVersion.isWrittenInTransaction();
+    }
+
+    public void invalidateAll() {
+        store.clear();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public OffHeapSlabStore<List<Object>> getStore() {
+        return store;
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.roy.querydsl.repository.support.cache;
+
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * SoccerPlayerTeamDTO 페이지의 바이너리 표현.
+ * total, 행 수, 팀 이름 사전 뒤에 행마다 선수 id, 선수 이름, 팀 id, 팀 이름 사전 번호를 쓴다.
+ * 숫자는 varint 로, null 은 0 으로 쓰고 값은 1 을 더해 구분한다. 문자열은 UTF-8 길이 + 1 과 바이트로 쓴다.
+ */
+public final class TeamPageCodec {
+
+    private TeamPageCodec() {
+    }
+
+    public static byte[] encode(Page<SoccerPlayerTeamDTO> page) {
+        List<SoccerPlayerTeamDTO> rows = page.getContent();
+        Map<String, Integer> teams = new LinkedHashMap<>();
+        for (SoccerPlayerTeamDTO row : rows) {
+            if (Objects.nonNull(row.getTeamName())) {
+                teams.putIfAbsent(row.getTeamName(), teams.size() + 1);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + rows.size() * 12);
+        writeVarLong(out, page.getTotalElements());
+        writeVarLong(out, rows.size());
+        writeVarLong(out, teams.size());
+        teams.keySet().forEach(team -> writeString(out, team));
+        for (SoccerPlayerTeamDTO row : rows) {
+            writeNullableLong(out, row.getPlayerId());
+            writeString(out, row.getPlayerName());
+            writeNullableLong(out, row.getTeamId());
+            writeVarLong(out, Objects.nonNull(row.getTeamName()) ? teams.get(row.getTeamName()) : 0);
+        }
+        return out.toByteArray();
+    }
+
+    public static Page<SoccerPlayerTeamDTO> decode(byte[] bytes, Pageable pageable) {
+        Reader in = new Reader(bytes);
+        long total = in.readVarLong();
+        int rowCount = (int) in.readVarLong();
+        int teamCount = (int) in.readVarLong();
+        String[] teams = new String[teamCount + 1];
+        for (int i = 1; i <= teamCount; i++) {
+            teams[i] = in.readString();
+        }
+
+        List<SoccerPlayerTeamDTO> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Long playerId = in.readNullableLong();
+            String playerName = in.readString();
+            Long teamId = in.readNullableLong();
+            String teamName = teams[(int) in.readVarLong()];
+            rows.add(new SoccerPlayerTeamDTO(playerId, playerName, teamId, teamName));
+        }
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    private static void writeNullableLong(ByteArrayOutputStream out, Long value) {
+        writeVarLong(out, Objects.isNull(value) ? 0 : ((value << 1) ^ (value >> 63)) + 1);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (Objects.isNull(value)) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private Long readNullableLong() {
+            long encoded = readVarLong();
+            if (encoded == 0) {
+                return null;
+            }
+            long zigzag = encoded - 1;
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        private String readString() {
+            int length = (int) readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(bytes, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.roy.querydsl.repository.support.count;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class Count {
+
+    private final long value;
+    private final Accuracy accuracy;
+
+    public static Count exact(long value) {
+        return new Count(value, Accuracy.EXACT);
+    }
+
+    public static Count atLeast(long value) {
+        return new Count(value, Accuracy.AT_LEAST);
+    }
+
+    public static Count estimated(long value) {
+        return new Count(value, Accuracy.ESTIMATED);
+    }
+
+    public boolean isExact() {
+        return accuracy == Accuracy.EXACT;
+    }
+
+    @Override
+    public String toString() {
+        return accuracy == Accuracy.AT_LEAST ? value + "+" : accuracy == Accuracy.ESTIMATED ? "~" + value : String.valueOf(value);
+    }
+
+    public enum Accuracy {
+        EXACT, AT_LEAST, ESTIMATED
+    }
+
+}
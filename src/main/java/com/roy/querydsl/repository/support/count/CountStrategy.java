@@ -0,0 +1,30 @@
+package com.roy.querydsl.repository.support.count;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.roy.querydsl.repository.support.count.impl.CappedCountStrategy;
+import com.roy.querydsl.repository.support.count.impl.EstimatedCountStrategy;
+import com.roy.querydsl.repository.support.count.impl.ExactCountStrategy;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 페이지 total 을 구하는 방법.
+ * 전달받은 쿼리의 결과 행 수를 세며, 쿼리의 정렬과 offset/limit 은 무시한다.
+ */
+public interface CountStrategy {
+
+    Count count(JPAQuery<?> query, EntityManager entityManager);
+
+    static CountStrategy exact() {
+        return ExactCountStrategy.INSTANCE;
+    }
+
+    static CountStrategy capped(long cap) {
+        return new CappedCountStrategy(cap);
+    }
+
+    static CountStrategy estimated() {
+        return new EstimatedCountStrategy(exact());
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.roy.querydsl.repository.support.count;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * total 의 정확도를 함께 들고 있는 Page.
+ * {@link org.springframework.data.support.PageableExecutionUtils} 와 같이 첫 페이지나 마지막 페이지에서
+ * total 을 계산할 수 있으면 count 쿼리를 실행하지 않는다.
+ */
+public class CountedPage<T> extends PageImpl<T> {
+
+    private final Count count;
+
+    public CountedPage(List<T> content, Pageable pageable, Count count) {
+        super(content, pageable, count.getValue());
+        this.count = count;
+    }
+
+    public static <T> CountedPage<T> of(List<T> content, Pageable pageable, Supplier<Count> countSupplier) {
+        if (pageable.isUnpaged() || pageable.getOffset() == 0) {
+            if (pageable.isUnpaged() || pageable.getPageSize() > content.size()) {
+                return new CountedPage<>(content, pageable, Count.exact(content.size()));
+            }
+            return new CountedPage<>(content, pageable, countSupplier.get());
+        }
+        if (!content.isEmpty() && pageable.getPageSize() > content.size()) {
+            return new CountedPage<>(content, pageable, Count.exact(pageable.getOffset() + content.size()));
+        }
+        return new CountedPage<>(content, pageable, countSupplier.get());
+    }
+
+    public Count getCount() {
+        return count;
+    }
+
+    public boolean isTotalExact() {
+        return count.isExact();
+    }
+
+}
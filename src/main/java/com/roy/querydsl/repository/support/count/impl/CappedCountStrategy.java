@@ -0,0 +1,42 @@
+package com.roy.querydsl.repository.support.count.impl;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.roy.querydsl.repository.support.count.Count;
+import com.roy.querydsl.repository.support.count.CountStrategy;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 상한이 있는 count.
+ * 최대 {@code cap + 1} 행만 읽고 멈추며, 상한을 넘으면 "1000+" 처럼 하한으로 표시되는 결과를 돌려준다.
+ * group by 나 distinct 쿼리는 결과 행이 프로젝션에 따라 달라지므로 프로젝션을 그대로 두고 읽는다.
+ */
+public class CappedCountStrategy implements CountStrategy {
+
+    private final long cap;
+
+    public CappedCountStrategy(long cap) {
+        if (cap < 1) {
+            throw new IllegalArgumentException("Cap must be positive: " + cap);
+        }
+        this.cap = cap;
+    }
+
+    @Override
+    public Count count(JPAQuery<?> query, EntityManager entityManager) {
+        JPAQuery<?> rowQuery = query.clone(entityManager);
+        QueryMetadata metadata = rowQuery.getMetadata();
+        metadata.clearOrderBy();
+        metadata.setModifiers(QueryModifiers.limit(cap + 1));
+        if (metadata.getGroupBy().isEmpty() && !metadata.isDistinct()) {
+            metadata.setProjection(Expressions.numberTemplate(Integer.class, "1"));
+        }
+
+        int rows = rowQuery.fetch().size();
+        return rows > cap ? Count.atLeast(cap) : Count.exact(rows);
+    }
+
+}
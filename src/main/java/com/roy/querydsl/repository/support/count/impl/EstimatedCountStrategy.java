@@ -0,0 +1,98 @@
+package com.roy.querydsl.repository.support.count.impl;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.roy.querydsl.repository.support.count.Count;
+import com.roy.querydsl.repository.support.count.CountStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * DB 통계 기반 추정 count.
+ * 조건, 조인, group by, distinct 가 없는 전체 테이블 조회일 때만 통계의 행 수를 사용하고,
+ * 그 외의 쿼리나 통계를 읽을 수 없는 DB 에서는 위임받은 전략으로 센다.
+ * 지원하는 DB 는 H2, PostgreSQL, MySQL/MariaDB 이다.
+ */
+@Slf4j
+public class EstimatedCountStrategy implements CountStrategy {
+
+    private static final String H2 =
+            "select row_count_estimate from information_schema.tables where upper(table_name) = upper(?)";
+    private static final String POSTGRESQL =
+            "select cast(reltuples as bigint) from pg_class where relname = lower(?) and relkind = 'r'";
+    private static final String MYSQL =
+            "select table_rows from information_schema.tables where table_schema = database() and table_name = ?";
+
+    private final CountStrategy fallback;
+
+    public EstimatedCountStrategy(CountStrategy fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Count count(JPAQuery<?> query, EntityManager entityManager) {
+        QueryMetadata metadata = query.getMetadata();
+        List<JoinExpression> joins = metadata.getJoins();
+        if (Objects.nonNull(metadata.getWhere()) || Objects.nonNull(metadata.getHaving())
+                || !metadata.getGroupBy().isEmpty() || metadata.isDistinct()
+                || joins.size() != 1 || !(joins.get(0).getTarget() instanceof EntityPath)) {
+            return fallback.count(query, entityManager);
+        }
+
+        String table = tableName(entityManager, ((EntityPath<?>) joins.get(0).getTarget()).getType());
+        long estimate = entityManager.unwrap(Session.class).doReturningWork(connection -> estimate(connection, table));
+        return estimate < 0 ? fallback.count(query, entityManager) : Count.estimated(estimate);
+    }
+
+    private String tableName(EntityManager entityManager, Class<?> entityType) {
+        EntityPersister persister = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMetamodel()
+                .entityPersister(entityType);
+        return ((AbstractEntityPersister) persister).getTableName();
+    }
+
+    private long estimate(Connection connection, String table) throws SQLException {
+        String sql = statisticsQuery(connection.getMetaData().getDatabaseProductName());
+        if (Objects.isNull(sql)) {
+            return -1;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? Math.max(resultSet.getLong(1), 0L) : -1;
+            }
+        } catch (SQLException e) {
+            log.debug("Row count estimate unavailable for {}", table, e);
+            return -1;
+        }
+    }
+
+    private String statisticsQuery(String databaseProductName) {
+        switch (databaseProductName) {
+            case "H2":
+                return H2;
+            case "PostgreSQL":
+                return POSTGRESQL;
+            case "MySQL":
+            case "MariaDB":
+                return MYSQL;
+            default:
+                return null;
+        }
+    }
+
+}
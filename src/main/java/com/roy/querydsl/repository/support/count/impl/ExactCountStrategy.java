@@ -0,0 +1,146 @@
+package com.roy.querydsl.repository.support.count.impl;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.jpa.JPAQueryMixin;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.roy.querydsl.repository.support.TranslatedQuery;
+import com.roy.querydsl.repository.support.count.Count;
+import com.roy.querydsl.repository.support.count.CountStrategy;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 정확한 count.
+ * 단순 쿼리는 같은 조인과 조건으로 {@code count(*)} 를, 단일 컬럼 distinct 쿼리는 {@code count(distinct ...)} 를 실행한다.
+ * group by 나 여러 컬럼 distinct 쿼리는 JPQL 로 감쌀 수 없으므로 Hibernate 가 번역한 SQL 을
+ * {@code select count(*) from (...)} 로 감싸 DB 에서 센다.
+ */
+public class ExactCountStrategy implements CountStrategy {
+
+    public static final ExactCountStrategy INSTANCE = new ExactCountStrategy();
+
+    @Override
+    public Count count(JPAQuery<?> contentQuery, EntityManager entityManager) {
+        JPAQuery<?> query = withoutFetchJoins(contentQuery, entityManager);
+        QueryMetadata metadata = query.getMetadata();
+        if (metadata.getGroupBy().isEmpty() && !metadata.isDistinct()) {
+            return Count.exact(fetchAggregate(query, entityManager, Wildcard.count));
+        }
+        Expression<?> projection = metadata.getProjection();
+        if (metadata.getGroupBy().isEmpty() && !(projection instanceof FactoryExpression)) {
+            return Count.exact(fetchAggregate(query, entityManager,
+                    Expressions.numberOperation(Long.class, Ops.AggOps.COUNT_DISTINCT_AGG, projection)));
+        }
+        return Count.exact(countSubSelect(query, entityManager));
+    }
+
+    /**
+     * fetch join 은 select 절에 소유 엔티티가 있어야 하므로 count 쿼리에서는 일반 join 으로 바꾼다.
+     * 정렬과 페이징은 count 에서 쓰지 않으므로 옮기지 않는다.
+     */
+    private static JPAQuery<?> withoutFetchJoins(JPAQuery<?> query, EntityManager entityManager) {
+        QueryMetadata source = query.getMetadata();
+        if (source.getJoins().stream().noneMatch(join -> join.getFlags().contains(JPAQueryMixin.FETCH))) {
+            return query;
+        }
+        DefaultQueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.setValidate(false);
+        for (JoinExpression join : source.getJoins()) {
+            metadata.addJoin(join.getType(), join.getTarget());
+            if (Objects.nonNull(join.getCondition())) {
+                metadata.addJoinCondition(join.getCondition());
+            }
+            join.getFlags().stream()
+                    .filter(flag -> !JPAQueryMixin.FETCH.equals(flag))
+                    .forEach(metadata::addJoinFlag);
+        }
+        if (Objects.nonNull(source.getWhere())) {
+            metadata.addWhere(source.getWhere());
+        }
+        source.getGroupBy().forEach(metadata::addGroupBy);
+        if (Objects.nonNull(source.getHaving())) {
+            metadata.addHaving(source.getHaving());
+        }
+        source.getFlags().forEach(metadata::addFlag);
+        source.getParams().forEach((param, value) -> setParam(metadata, param, value));
+        metadata.setDistinct(source.isDistinct());
+        metadata.setProjection(source.getProjection());
+        return new JPAQuery<>(entityManager, metadata);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setParam(QueryMetadata metadata, ParamExpression<?> param, Object value) {
+        metadata.setParam((ParamExpression<Object>) param, value);
+    }
+
+    private long fetchAggregate(JPAQuery<?> query, EntityManager entityManager, Expression<Long> aggregate) {
+        JPAQuery<Long> countQuery = query.clone(entityManager).select(aggregate);
+        QueryMetadata metadata = countQuery.getMetadata();
+        metadata.clearOrderBy();
+        metadata.setModifiers(QueryModifiers.EMPTY);
+        metadata.setDistinct(false);
+        Long count = countQuery.fetchOne();
+        return Objects.nonNull(count) ? count : 0L;
+    }
+
+    private long countSubSelect(JPAQuery<?> query, EntityManager entityManager) {
+        QueryMetadata metadata = query.getMetadata().clone();
+        metadata.clearOrderBy();
+        metadata.setModifiers(QueryModifiers.EMPTY);
+
+        Optional<TranslatedQuery> translated = TranslatedQuery.translate(metadata, entityManager);
+        if (translated.isEmpty()) {
+            return scrollCount(query, entityManager);
+        }
+        String sql = "select count(*) from (" + translated.get().getSql() + ") counted";
+
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                translated.get().bind(statement, 1, session);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getLong(1);
+                }
+            }
+        });
+    }
+
+    private long scrollCount(JPAQuery<?> query, EntityManager entityManager) {
+        JPAQuery<?> rowQuery = query.clone(entityManager);
+        QueryMetadata metadata = rowQuery.getMetadata();
+        metadata.clearOrderBy();
+        metadata.setModifiers(QueryModifiers.EMPTY);
+        if (!metadata.getGroupBy().isEmpty()) {
+            metadata.setProjection(Expressions.list(metadata.getGroupBy().toArray(new Expression<?>[0])));
+        }
+
+        long count = 0;
+        try (org.hibernate.ScrollableResults results = rowQuery.createQuery()
+                .unwrap(org.hibernate.query.Query.class)
+                .scroll(org.hibernate.ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
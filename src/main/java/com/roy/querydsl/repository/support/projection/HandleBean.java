@@ -0,0 +1,46 @@
+package com.roy.querydsl.repository.support.projection;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+
+import java.util.List;
+
+/**
+ * setter 또는 필드로 값을 채우는 DTO 프로젝션.
+ * 프로퍼티 이름은 경로 이름이나 alias 로 정하며, null 값은 {@link com.querydsl.core.types.QBean} 과 같이 채우지 않는다.
+ */
+public class HandleBean<T> extends FactoryExpressionBase<T> {
+
+    private final List<Expression<?>> args;
+    private final boolean fieldAccess;
+    private final RowFactories.BeanFactory factory;
+
+    HandleBean(Class<? extends T> type, boolean fieldAccess, Expression<?>... args) {
+        super(type);
+        this.args = List.of(args);
+        this.fieldAccess = fieldAccess;
+        this.factory = RowFactories.bean(type, RowFactories.propertyNames(args), fieldAccess);
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object... values) {
+        return (T) factory.create(values);
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    public boolean isFieldAccess() {
+        return fieldAccess;
+    }
+
+}
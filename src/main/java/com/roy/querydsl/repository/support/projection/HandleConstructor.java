@@ -0,0 +1,39 @@
+package com.roy.querydsl.repository.support.projection;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+
+import java.util.List;
+
+/**
+ * 인자 타입이 맞는 생성자로 DTO 를 만드는 프로젝션.
+ */
+public class HandleConstructor<T> extends FactoryExpressionBase<T> {
+
+    private final List<Expression<?>> args;
+    private final RowFactories.ConstructorFactory factory;
+
+    HandleConstructor(Class<? extends T> type, Expression<?>... args) {
+        super(type);
+        this.args = List.of(args);
+        this.factory = RowFactories.constructor(type, RowFactories.argumentTypes(args));
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object... values) {
+        return (T) factory.create(values);
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.roy.querydsl.repository.support.projection;
+
+import com.querydsl.core.types.Expression;
+
+/**
+ * {@link com.querydsl.core.types.Projections} 의 bean, fields, constructor 를 대체하는 프로젝션.
+ * DTO 클래스와 alias 조합마다 setter, 필드, 생성자 호출을 한 번만 만들어 캐시하고,
+ * 행마다 리플렉션 없이 직접 호출로 DTO 를 만든다.
+ */
+public final class HandleProjections {
+
+    private HandleProjections() {
+    }
+
+    public static <T> HandleBean<T> bean(Class<? extends T> type, Expression<?>... exprs) {
+        return new HandleBean<>(type, false, exprs);
+    }
+
+    public static <T> HandleBean<T> fields(Class<? extends T> type, Expression<?>... exprs) {
+        return new HandleBean<>(type, true, exprs);
+    }
+
+    public static <T> HandleConstructor<T> constructor(Class<? extends T> type, Expression<?>... exprs) {
+        return new HandleConstructor<>(type, exprs);
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.roy.querydsl.repository.support.projection;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionException;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * DTO 를 만드는 호출을 생성하고 캐시한다.
+ * public 생성자와 setter 는 LambdaMetafactory 로 {@link Supplier}, {@link BiConsumer} 구현을 만들어 JIT 가 인라인할 수 있게 하고,
+ * 필드와 public 이 아닌 멤버는 MethodHandle 로 호출한다.
+ */
+final class RowFactories {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ConcurrentMap<List<Object>, BeanFactory> BEANS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<List<Object>, ConstructorFactory> CONSTRUCTORS = new ConcurrentHashMap<>();
+
+    private RowFactories() {
+    }
+
+    static BeanFactory bean(Class<?> type, List<String> properties, boolean fieldAccess) {
+        return BEANS.computeIfAbsent(List.of(type, fieldAccess, properties),
+                key -> createBean(type, properties, fieldAccess));
+    }
+
+    static ConstructorFactory constructor(Class<?> type, List<Class<?>> argumentTypes) {
+        return CONSTRUCTORS.computeIfAbsent(List.of(type, argumentTypes),
+                key -> createConstructor(type, argumentTypes));
+    }
+
+    static List<String> propertyNames(Expression<?>... args) {
+        return Arrays.stream(args).map(RowFactories::propertyName).collect(Collectors.toUnmodifiableList());
+    }
+
+    static List<Class<?>> argumentTypes(Expression<?>... args) {
+        return Arrays.stream(args).<Class<?>>map(Expression::getType).collect(Collectors.toUnmodifiableList());
+    }
+
+    private static String propertyName(Expression<?> expr) {
+        if (expr instanceof Path) {
+            return ((Path<?>) expr).getMetadata().getName();
+        }
+        if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.ALIAS) {
+            return ((Path<?>) ((Operation<?>) expr).getArg(1)).getMetadata().getName();
+        }
+        throw new ExpressionException("Unsupported expression " + expr);
+    }
+
+    private static BeanFactory createBean(Class<?> type, List<String> properties, boolean fieldAccess) {
+        try {
+            Supplier<Object> instantiator = instantiator(type);
+            List<BiConsumer<Object, Object>> writers = new ArrayList<>(properties.size());
+            for (String property : properties) {
+                writers.add(fieldAccess ? fieldWriter(type, property) : setterWriter(type, property));
+            }
+            return new BeanFactory(instantiator, writers);
+        } catch (ExpressionException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ExpressionException("Cannot create projection for " + type.getName(), e);
+        }
+    }
+
+    private static ConstructorFactory createConstructor(Class<?> type, List<Class<?>> argumentTypes) {
+        Constructor<?> constructor = Arrays.stream(type.getDeclaredConstructors())
+                .filter(candidate -> matches(candidate.getParameterTypes(), argumentTypes))
+                .findFirst()
+                .orElseThrow(() -> new ExpressionException("No constructor found for " + type.getName() + " with " + argumentTypes));
+        try {
+            MethodHandle handle = lookupFor(constructor.getModifiers(), type).unreflectConstructor(constructor)
+                    .asType(MethodType.genericMethodType(argumentTypes.size()))
+                    .asSpreader(Object[].class, argumentTypes.size());
+            return new ConstructorFactory(handle);
+        } catch (IllegalAccessException e) {
+            throw new ExpressionException("Cannot access constructor of " + type.getName(), e);
+        }
+    }
+
+    private static boolean matches(Class<?>[] parameterTypes, List<Class<?>> argumentTypes) {
+        if (parameterTypes.length != argumentTypes.size()) {
+            return false;
+        }
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (!ClassUtils.resolvePrimitiveIfNecessary(parameterTypes[i])
+                    .isAssignableFrom(ClassUtils.resolvePrimitiveIfNecessary(argumentTypes.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> instantiator(Class<?> type) throws Throwable {
+        Constructor<?> constructor = type.getDeclaredConstructor();
+        MethodHandle handle = lookupFor(constructor.getModifiers(), type).unreflectConstructor(constructor);
+        if (isPublic(constructor.getModifiers(), type)) {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    handle,
+                    MethodType.methodType(type));
+            return (Supplier<Object>) site.getTarget().invokeExact();
+        }
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return (Object) generic.invokeExact();
+            } catch (Throwable e) {
+                throw new ExpressionException(e.getMessage(), e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setterWriter(Class<?> type, String property) throws Throwable {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, property);
+        if (Objects.isNull(descriptor) || Objects.isNull(descriptor.getWriteMethod())) {
+            throw new ExpressionException("No setter for " + property + " on " + type.getName());
+        }
+        Method setter = descriptor.getWriteMethod();
+        MethodHandle handle = lookupFor(setter.getModifiers(), setter.getDeclaringClass()).unreflect(setter);
+        if (isPublic(setter.getModifiers(), setter.getDeclaringClass())) {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, setter.getDeclaringClass(),
+                            ClassUtils.resolvePrimitiveIfNecessary(setter.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        }
+        return writer(handle.asType(MethodType.methodType(void.class, Object.class, Object.class)));
+    }
+
+    private static BiConsumer<Object, Object> fieldWriter(Class<?> type, String property) throws Throwable {
+        Field field = ReflectionUtils.findField(type, property);
+        if (Objects.isNull(field) || Modifier.isStatic(field.getModifiers())) {
+            throw new ExpressionException("No field " + property + " on " + type.getName());
+        }
+        MethodHandle handle = MethodHandles.privateLookupIn(field.getDeclaringClass(), LOOKUP).unreflectSetter(field);
+        return writer(handle.asType(MethodType.methodType(void.class, Object.class, Object.class)));
+    }
+
+    private static BiConsumer<Object, Object> writer(MethodHandle handle) {
+        return (bean, value) -> {
+            try {
+                handle.invokeExact(bean, value);
+            } catch (Throwable e) {
+                throw new ExpressionException(e.getMessage(), e);
+            }
+        };
+    }
+
+    private static MethodHandles.Lookup lookupFor(int modifiers, Class<?> declaringClass) throws IllegalAccessException {
+        return isPublic(modifiers, declaringClass) ? LOOKUP : MethodHandles.privateLookupIn(declaringClass, LOOKUP);
+    }
+
+    private static boolean isPublic(int modifiers, Class<?> declaringClass) {
+        return Modifier.isPublic(modifiers) && Modifier.isPublic(declaringClass.getModifiers());
+    }
+
+    static final class BeanFactory {
+
+        private final Supplier<Object> instantiator;
+        private final List<BiConsumer<Object, Object>> writers;
+
+        private BeanFactory(Supplier<Object> instantiator, List<BiConsumer<Object, Object>> writers) {
+            this.instantiator = instantiator;
+            this.writers = writers;
+        }
+
+        Object create(Object[] values) {
+            Object bean = instantiator.get();
+            for (int i = 0; i < writers.size(); i++) {
+                if (Objects.nonNull(values[i])) {
+                    writers.get(i).accept(bean, values[i]);
+                }
+            }
+            return bean;
+        }
+    }
+
+    static final class ConstructorFactory {
+
+        private final MethodHandle handle;
+
+        private ConstructorFactory(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        Object create(Object[] values) {
+            try {
+                return (Object) handle.invokeExact(values);
+            } catch (Throwable e) {
+                throw new ExpressionException(e.getMessage(), e);
+            }
+        }
+    }
+
+}
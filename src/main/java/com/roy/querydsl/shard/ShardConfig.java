@@ -0,0 +1,36 @@
+package com.roy.querydsl.shard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * querydsl.shards.enabled=true 일 때 querydsl.shards.count 개의 샤드와 샤드 레포지토리를 만든다.
+ * 각 샤드의 JDBC URL 은 url-pattern 의 %d 에 샤드 번호를 넣어 만들고, JPA 설정은 기본 spring.jpa 설정을 그대로 쓴다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "querydsl.shards.enabled", havingValue = "true")
+public class ShardConfig {
+
+    @Bean
+    public Shards shards(EntityManagerFactoryBuilder builder, JpaProperties jpaProperties, HibernateProperties hibernateProperties,
+                         @Value("${querydsl.shards.count:4}") int count,
+                         @Value("${querydsl.shards.url-pattern:jdbc:h2:mem:shard-%d;DB_CLOSE_DELAY=-1}") String urlPattern,
+                         @Value("${querydsl.shards.username:sa}") String username,
+                         @Value("${querydsl.shards.password:}") String password) {
+        return new Shards(count, urlPattern, username, password, builder, jpaProperties, hibernateProperties);
+    }
+
+    @Bean
+    public ShardedSoccerPlayerRepository shardedSoccerPlayerRepository(Shards shards,
+                                                                       @Value("${querydsl.shards.timeout:5s}") Duration timeout) {
+        return new ShardedSoccerPlayerRepository(shards, timeout);
+    }
+
+}
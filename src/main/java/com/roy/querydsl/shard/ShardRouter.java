@@ -0,0 +1,112 @@
+package com.roy.querydsl.shard;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.roy.querydsl.domain.Team;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 팀을 기준으로 샤드를 정한다. 새 팀은 이름의 해시로, 저장된 팀은 식별자로 샤드를 찾는다({@link Shards} 의 시퀀스 배치 참고).
+ * 조건에 팀 이름이나 팀 식별자의 eq / in 이 and 로 걸려 있으면 해당 샤드만, 아니면 모든 샤드를 고른다.
+ * 팀이 없는 선수와 이름이 없는 새 팀은 0번 샤드에 둔다.
+ */
+public class ShardRouter {
+
+    private static final String TEAM_NAME = "name";
+    private static final String TEAM_ID = "id";
+
+    private final int count;
+
+    public ShardRouter(int count) {
+        this.count = count;
+    }
+
+    public int shardOf(Team team) {
+        if (Objects.isNull(team)) {
+            return 0;
+        }
+        return Objects.nonNull(team.getId()) ? shardOfTeamId(team.getId()) : shardOfTeamName(team.getName());
+    }
+
+    public int shardOfTeamName(String teamName) {
+        if (Objects.isNull(teamName)) {
+            return 0;
+        }
+        return Math.floorMod(teamName.hashCode(), count);
+    }
+
+    public int shardOfTeamId(long teamId) {
+        return (int) Math.floorMod(teamId, (long) count);
+    }
+
+    public Set<Integer> route(Predicate predicate) {
+        return shards(predicate).orElseGet(() -> IntStream.range(0, count).boxed()
+                .collect(Collectors.toCollection(TreeSet::new)));
+    }
+
+    private Optional<Set<Integer>> shards(Expression<?> expression) {
+        if (!(expression instanceof Operation)) {
+            return Optional.empty();
+        }
+        Operation<?> operation = (Operation<?>) expression;
+        List<Expression<?>> args = operation.getArgs();
+        if (operation.getOperator() == Ops.AND) {
+            Optional<Set<Integer>> left = shards(args.get(0));
+            Optional<Set<Integer>> right = shards(args.get(1));
+            if (left.isPresent() && right.isPresent()) {
+                Set<Integer> both = new TreeSet<>(left.get());
+                both.retainAll(right.get());
+                return Optional.of(both);
+            }
+            return left.isPresent() ? left : right;
+        }
+        if (operation.getOperator() == Ops.OR) {
+            Optional<Set<Integer>> left = shards(args.get(0));
+            Optional<Set<Integer>> right = shards(args.get(1));
+            if (left.isPresent() && right.isPresent()) {
+                Set<Integer> either = new TreeSet<>(left.get());
+                either.addAll(right.get());
+                return Optional.of(either);
+            }
+            return Optional.empty();
+        }
+        if ((operation.getOperator() == Ops.EQ || operation.getOperator() == Ops.IN)
+                && args.get(0) instanceof Path && args.get(1) instanceof Constant) {
+            return teamProperty((Path<?>) args.get(0))
+                    .map(property -> values(((Constant<?>) args.get(1)).getConstant()).stream()
+                            .map(value -> TEAM_ID.equals(property)
+                                    ? shardOfTeamId(((Number) value).longValue())
+                                    : shardOfTeamName((String) value))
+                            .collect(Collectors.toCollection(TreeSet::new)));
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> teamProperty(Path<?> path) {
+        Path<?> parent = path.getMetadata().getParent();
+        if (Objects.isNull(parent) || !Team.class.equals(parent.getType())) {
+            return Optional.empty();
+        }
+        String property = path.getMetadata().getName();
+        return TEAM_NAME.equals(property) || TEAM_ID.equals(property) ? Optional.of(property) : Optional.empty();
+    }
+
+    private static Collection<?> values(Object constant) {
+        return constant instanceof Collection ? new HashSet<>((Collection<?>) constant) : Collections.singleton(constant);
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.roy.querydsl.shard;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.OrderSpecifier.NullHandling;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.repository.support.JoinPlan;
+import com.roy.querydsl.repository.support.ReadOnlyJPAQueryFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static com.roy.querydsl.domain.QTeam.team;
+
+/**
+ * 팀 기준으로 나눈 샤드에 선수를 저장하고 조회한다.
+ * 선수는 팀과 같은 샤드에 저장하며, 다른 샤드의 팀으로 옮기는 것은 지원하지 않는다.
+ * 조회 조건이 한 샤드로 좁혀지면 그 샤드에서 페이지를 그대로 읽고, 아니면 모든 샤드에 동시에 앞쪽 offset + size 행을 정렬해 읽은 뒤
+ * 정렬 순서대로 합쳐 페이지를 자르고 count 는 샤드별 count 의 합으로 한다.
+ * 샤드 사이의 순서가 항상 같도록 정렬 끝에 선수 식별자를 붙이며, 문자열 정렬은 DB 의 collation 이 Java 의 compareTo 와 같다고 가정한다.
+ * 엔티티를 프로젝션하면 준영속 상태로 돌아오므로 DTO 프로젝션을 사용한다.
+ */
+public class ShardedSoccerPlayerRepository implements DisposableBean {
+
+    private static final JoinPlan SEARCH_PLAN = JoinPlan.from(soccerPlayer)
+            .leftJoin(soccerPlayer.team, team);
+    private static final PathBuilder<SoccerPlayer> ROOT = new PathBuilder<>(SoccerPlayer.class, soccerPlayer.getMetadata());
+
+    private final Shards shards;
+    private final ShardRouter router;
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public ShardedSoccerPlayerRepository(Shards shards, Duration timeout) {
+        this.shards = shards;
+        this.router = new ShardRouter(shards.size());
+        this.timeout = timeout;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(shards.size() * 2,
+                runnable -> new Thread(runnable, "shard-query-" + sequence.incrementAndGet()));
+    }
+
+    public ShardRouter getRouter() {
+        return router;
+    }
+
+    /**
+     * 선수를 팀의 샤드별로 묶어 샤드마다 한 트랜잭션으로 저장한다. 새 팀은 선수와 함께 저장된다.
+     */
+    public void saveAll(Collection<SoccerPlayer> players) {
+        Map<Integer, List<SoccerPlayer>> byShard = players.stream()
+                .collect(Collectors.groupingBy(player -> router.shardOf(player.getTeam())));
+        byShard.forEach((shard, group) -> {
+            EntityManager entityManager = shards.get(shard).createEntityManager();
+            EntityTransaction transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                for (SoccerPlayer player : group) {
+                    Team playerTeam = player.getTeam();
+                    if (Objects.nonNull(playerTeam) && Objects.nonNull(playerTeam.getId())) {
+                        player.changeTeam(entityManager.getReference(Team.class, playerTeam.getId()));
+                    }
+                    entityManager.persist(player);
+                }
+                transaction.commit();
+            } finally {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                entityManager.close();
+            }
+        });
+    }
+
+    public <T> Page<T> findAll(Predicate predicate, Pageable pageable, Expression<T> projection) {
+        Set<Integer> targets = router.route(predicate);
+        List<OrderSpecifier<?>> orders = orders(pageable.getSort());
+        OrderSpecifier<?>[] orderArray = orders.toArray(OrderSpecifier[]::new);
+        Predicate[] where = {predicate};
+
+        if (targets.size() == 1) {
+            int shard = targets.iterator().next();
+            return read(shard, queryFactory -> {
+                JPAQuery<T> content = SEARCH_PLAN.content(queryFactory, projection, where, orderArray);
+                if (pageable.isPaged()) {
+                    content.offset(pageable.getOffset()).limit(pageable.getPageSize());
+                }
+                return new PageImpl<>(content.fetch(), pageable, SEARCH_PLAN.count(queryFactory, where).fetchOne());
+            });
+        }
+
+        Expression<?>[] columns = new Expression<?>[orders.size() + 1];
+        columns[0] = projection;
+        for (int i = 0; i < orders.size(); i++) {
+            columns[i + 1] = orders.get(i).getTarget();
+        }
+        List<CompletableFuture<List<Tuple>>> contents = new ArrayList<>();
+        List<CompletableFuture<Long>> counts = new ArrayList<>();
+        for (int shard : targets) {
+            contents.add(readAsync(shard, queryFactory -> {
+                JPAQuery<Tuple> content = SEARCH_PLAN.content(queryFactory, Projections.tuple(columns), where, orderArray);
+                if (pageable.isPaged()) {
+                    content.limit(pageable.getOffset() + pageable.getPageSize());
+                }
+                return content.fetch();
+            }));
+            counts.add(readAsync(shard, queryFactory -> SEARCH_PLAN.count(queryFactory, where).fetchOne()));
+        }
+
+        List<List<Tuple>> sorted = contents.stream().map(this::await).collect(Collectors.toList());
+        long total = counts.stream().mapToLong(this::await).sum();
+        List<Tuple> page = SortedMerge.merge(sorted,
+                SortedMerge.comparator(orders, (Tuple row) -> IntStream.range(1, columns.length)
+                        .mapToObj(i -> row.get(i, Object.class))
+                        .toArray()),
+                pageable.isPaged() ? pageable.getOffset() : 0,
+                pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE);
+        List<T> content = page.stream()
+                .map(row -> row.get(0, projection.getType()))
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    public long count(Predicate predicate) {
+        Predicate[] where = {predicate};
+        return router.route(predicate).stream()
+                .map(shard -> readAsync(shard, queryFactory -> SEARCH_PLAN.count(queryFactory, where).fetchOne()))
+                .collect(Collectors.toList()).stream()
+                .mapToLong(this::await)
+                .sum();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <R> CompletableFuture<R> readAsync(int shard, Function<JPAQueryFactory, R> work) {
+        return CompletableFuture.supplyAsync(() -> read(shard, work), executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private <R> R read(int shard, Function<JPAQueryFactory, R> work) {
+        EntityManager entityManager = shards.get(shard).createEntityManager();
+        try {
+            return work.apply(new ReadOnlyJPAQueryFactory(entityManager));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static List<OrderSpecifier<?>> orders(Sort sort) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            PathBuilder<?> parent = ROOT;
+            String[] properties = order.getProperty().split("\\.");
+            for (int i = 0; i < properties.length - 1; i++) {
+                parent = parent.get(properties[i]);
+            }
+            orders.add(SortedMerge.explicit(new OrderSpecifier(
+                    order.isAscending() ? Order.ASC : Order.DESC,
+                    parent.getComparable(properties[properties.length - 1], Comparable.class),
+                    nullHandling(order.getNullHandling()))));
+        }
+        orders.add(soccerPlayer.id.asc());
+        return orders;
+    }
+
+    private static NullHandling nullHandling(Sort.NullHandling nullHandling) {
+        switch (nullHandling) {
+            case NULLS_FIRST:
+                return NullHandling.NullsFirst;
+            case NULLS_LAST:
+                return NullHandling.NullsLast;
+            default:
+                return NullHandling.Default;
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.roy.querydsl.shard;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * 샤드마다 DataSource 와 EntityManagerFactory 를 하나씩 만든다.
+ * 기본 DataSource, EntityManagerFactory 자동 설정이 물러나지 않도록 빈으로 등록하지 않고 직접 만들고 닫는다.
+ * 샤드 i 의 식별자 시퀀스는 i 부터 샤드 수만큼 증가하도록 맞추므로 식별자는 모든 샤드에서 유일하고 id % 샤드 수 가 샤드 번호가 된다.
+ */
+public class Shards implements DisposableBean {
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<LocalContainerEntityManagerFactoryBean> factoryBeans = new ArrayList<>();
+    private final List<EntityManagerFactory> entityManagerFactories = new ArrayList<>();
+
+    public Shards(int count, String urlPattern, String username, String password,
+                  EntityManagerFactoryBuilder builder, JpaProperties jpaProperties, HibernateProperties hibernateProperties) {
+        if (count < 1) {
+            throw new IllegalArgumentException("shard count must be positive: " + count);
+        }
+        Map<String, Object> properties = hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings().ddlAuto(() -> "create-drop"));
+        try {
+            for (int shard = 0; shard < count; shard++) {
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(String.format(urlPattern, shard))
+                        .username(username)
+                        .password(password)
+                        .build();
+                dataSource.setPoolName("shard-" + shard);
+                dataSources.add(dataSource);
+
+                LocalContainerEntityManagerFactoryBean factoryBean = builder.dataSource(dataSource)
+                        .packages(SoccerPlayer.class)
+                        .persistenceUnit("shard-" + shard)
+                        .properties(properties)
+                        .build();
+                factoryBean.afterPropertiesSet();
+                factoryBeans.add(factoryBean);
+                entityManagerFactories.add(factoryBean.getObject());
+
+                alignSequences(factoryBean.getObject(), shard, count);
+            }
+        } catch (RuntimeException e) {
+            destroy();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return entityManagerFactories.size();
+    }
+
+    public EntityManagerFactory get(int shard) {
+        return entityManagerFactories.get(shard);
+    }
+
+    public List<EntityManagerFactory> getAll() {
+        return Collections.unmodifiableList(entityManagerFactories);
+    }
+
+    @Override
+    public void destroy() {
+        factoryBeans.forEach(LocalContainerEntityManagerFactoryBean::destroy);
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    /**
+     * 현재 값 이후에서 shard 와 합동인 값부터 count 씩 증가하도록 시퀀스를 다시 시작한다. 이미 데이터가 있는 샤드에도 안전하다.
+     */
+    private static void alignSequences(EntityManagerFactory entityManagerFactory, int shard, int count) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        Set<String> sequences = new LinkedHashSet<>();
+        Stream.of(Team.class, SoccerPlayer.class)
+                .map(type -> sessionFactory.getMetamodel().entityPersister(type))
+                .map(EntityPersister::getIdentifierGenerator)
+                .forEach(generator -> {
+                    if (!(generator instanceof SequenceStyleGenerator)) {
+                        throw new IllegalStateException("sharded entities must use a sequence identifier");
+                    }
+                    sequences.add(((SequenceStyleGenerator) generator).getDatabaseStructure().getPhysicalName().render());
+                });
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            transaction.begin();
+            for (String sequence : sequences) {
+                long current = ((Number) entityManager.createNativeQuery(dialect.getSequenceNextValString(sequence))
+                        .getSingleResult()).longValue();
+                long start = current + Math.floorMod(shard - current, count);
+                entityManager.createNativeQuery("alter sequence " + sequence + " restart with " + start + " increment by " + count)
+                        .executeUpdate();
+            }
+            transaction.commit();
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            entityManager.close();
+        }
+    }
+
+}
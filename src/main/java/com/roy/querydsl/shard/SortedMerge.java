@@ -0,0 +1,97 @@
+package com.roy.querydsl.shard;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.OrderSpecifier.NullHandling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * 이미 정렬된 목록 여러 개를 우선순위 큐로 합친다(k-way merge). offset 만큼 건너뛴 뒤 limit 개만 꺼내므로
+ * 각 목록의 앞쪽 offset + limit 개만 있으면 전체를 정렬한 결과와 같은 페이지가 나온다.
+ */
+class SortedMerge {
+
+    private SortedMerge() {
+    }
+
+    static <R> List<R> merge(List<List<R>> sorted, Comparator<? super R> comparator, long offset, int limit) {
+        PriorityQueue<Head<R>> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (left, right) -> comparator.compare(left.value, right.value));
+        for (List<R> rows : sorted) {
+            Iterator<R> iterator = rows.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+
+        List<R> page = new ArrayList<>(Math.min(limit, 1024));
+        long skipped = 0;
+        while (!heads.isEmpty() && page.size() < limit) {
+            Head<R> head = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(head.value);
+            }
+            if (head.rest.hasNext()) {
+                heads.add(new Head<>(head.rest.next(), head.rest));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 각 행에서 정렬 값을 꺼내 OrderSpecifier 의 방향과 null 처리대로 비교한다.
+     * null 처리는 DB 기본값에 맡기지 않고 {@link #explicit(OrderSpecifier)} 로 쿼리와 비교기 양쪽에 같은 값을 지정해야 한다.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static <R> Comparator<R> comparator(List<OrderSpecifier<?>> orders, Function<R, Object[]> values) {
+        return (left, right) -> {
+            Object[] leftValues = values.apply(left);
+            Object[] rightValues = values.apply(right);
+            for (int i = 0; i < orders.size(); i++) {
+                OrderSpecifier<?> order = orders.get(i);
+                Comparable a = (Comparable) leftValues[i];
+                Comparable b = (Comparable) rightValues[i];
+                int result;
+                if (Objects.isNull(a) || Objects.isNull(b)) {
+                    int nullsFirst = order.getNullHandling() == NullHandling.NullsFirst ? -1 : 1;
+                    result = Objects.isNull(a) ? (Objects.isNull(b) ? 0 : nullsFirst) : -nullsFirst;
+                } else {
+                    result = order.isAscending() ? a.compareTo(b) : b.compareTo(a);
+                }
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static OrderSpecifier<?> explicit(OrderSpecifier<?> order) {
+        if (order.getNullHandling() != NullHandling.Default) {
+            return order;
+        }
+        return new OrderSpecifier(order.getOrder(), order.getTarget(),
+                order.isAscending() ? NullHandling.NullsFirst : NullHandling.NullsLast);
+    }
+
+    private static class Head<R> {
+
+        private final R value;
+        private final Iterator<R> rest;
+
+        private Head(R value, Iterator<R> rest) {
+            this.value = value;
+            this.rest = rest;
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.roy.querydsl.startup;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 빈 하나의 생성 시간. total 은 의존하는 빈의 생성 시간을 포함하고 self 는 제외한다.
+ */
+@Getter
+public class BeanInitTime {
+
+    private final String beanName;
+    private final Duration total;
+    private final Duration self;
+
+    public BeanInitTime(String beanName, Duration total, Duration self) {
+        this.beanName = beanName;
+        this.total = total;
+        this.self = self;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%8.1f ms self %8.1f ms total  %s", self.toNanos() / 1e6, total.toNanos() / 1e6, beanName);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.roy.querydsl.startup;
+
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * BufferingApplicationStartup 에 기록된 spring.beans.instantiate 단계를 빈별 생성 시간으로 정리한다.
+ */
+public final class StartupTimeline {
+
+    static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private StartupTimeline() {
+    }
+
+    /**
+     * 기록된 단계를 비우고, 빈별 생성 시간을 self 시간이 긴 순서로 돌려준다.
+     */
+    public static List<BeanInitTime> drainBeanInitTimes(BufferingApplicationStartup startup) {
+        List<TimelineEvent> events = startup.drainBufferedTimeline().getEvents();
+
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (BEAN_INSTANTIATE.equals(step.getName()) && Objects.nonNull(step.getParentId())) {
+                childTime.merge(step.getParentId(), event.getDuration(), Duration::plus);
+            }
+        }
+
+        List<BeanInitTime> beans = new ArrayList<>();
+        for (TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (!BEAN_INSTANTIATE.equals(step.getName())) {
+                continue;
+            }
+            Duration self = event.getDuration().minus(childTime.getOrDefault(step.getId(), Duration.ZERO));
+            beans.add(new BeanInitTime(beanName(step), event.getDuration(), self.isNegative() ? Duration.ZERO : self));
+        }
+        beans.sort(Comparator.comparing(BeanInitTime::getSelf).reversed());
+        return beans;
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+
+}
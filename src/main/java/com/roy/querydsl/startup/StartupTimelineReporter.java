@@ -0,0 +1,41 @@
+package com.roy.querydsl.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 기동이 끝나면 빈별 생성 시간 상위 report-top 개를 로그로 남긴다.
+ * QuerydslApplication 처럼 BufferingApplicationStartup 으로 기동했을 때만 동작한다.
+ */
+@Slf4j
+@Component
+public class StartupTimelineReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final int reportTop;
+
+    public StartupTimelineReporter(@Value("${querydsl.startup.report-top:20}") int reportTop) {
+        this.reportTop = reportTop;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup) || reportTop <= 0) {
+            return;
+        }
+
+        List<BeanInitTime> beans = StartupTimeline.drainBeanInitTimes((BufferingApplicationStartup) startup);
+        log.info("Application ready in {} ms, {} beans instantiated during startup, slowest:\n{}",
+                event.getTimeTaken().toMillis(), beans.size(),
+                beans.stream().limit(reportTop).map(BeanInitTime::toString).collect(Collectors.joining("\n")));
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.roy.querydsl.statistics;
+
+import com.roy.querydsl.dto.HibernateStatisticsDTO;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.Objects;
+
+/**
+ * /actuator/hibernatequeries 에서 플랜 캐시, 로드, flush 요약과 누적 실행 시간 순 상위 HQL 을 보여준다.
+ * 쿼리의 hash 는 hibernate.query.* 메트릭의 query 태그와 같다.
+ */
+@Endpoint(id = "hibernatequeries")
+public class HibernateQueriesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final HibernateQueryStatistics hibernateQueryStatistics;
+
+    public HibernateQueriesEndpoint(HibernateQueryStatistics hibernateQueryStatistics) {
+        this.hibernateQueryStatistics = hibernateQueryStatistics;
+    }
+
+    @ReadOperation
+    public HibernateStatisticsDTO queries(@Nullable Integer limit) {
+        return hibernateQueryStatistics.report(Objects.isNull(limit) ? DEFAULT_LIMIT : limit);
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.roy.querydsl.statistics;
+
+import com.roy.querydsl.dto.HibernateStatisticsDTO;
+import com.roy.querydsl.dto.QueryStatisticsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.DigestUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate 통계를 메트릭과 조회용 요약으로 옮긴다.
+ * refresh-interval 마다 누적 실행 시간이 가장 긴 top-queries 개의 HQL 을 query=해시 태그의 메트릭으로 등록하고, 순위에서 밀려난 쿼리의 메트릭은 지운다.
+ * 같은 주기로 쿼리 플랜 캐시 miss 증가분을 보고, min-misses 이상이면서 miss 비율이 miss-ratio 이상이면 경고를 남기고 알림 카운터를 올린다.
+ */
+@Slf4j
+public class HibernateQueryStatistics implements DisposableBean {
+
+    static final String QUERY_EXECUTIONS = "hibernate.query.executions";
+    static final String QUERY_MAX = "hibernate.query.executions.max";
+    static final String QUERY_ROWS = "hibernate.query.rows";
+    static final String COLLECTION_FETCHES = "hibernate.collection.role.fetches";
+    static final String PLAN_CACHE_ALERTS = "hibernate.query.plan.cache.alerts";
+
+    private static final int HASH_LENGTH = 12;
+
+    private final Statistics statistics;
+    private final MeterRegistry meterRegistry;
+    private final int topQueries;
+    private final long minMisses;
+    private final double missRatio;
+    private final Counter planCacheAlerts;
+    private final Map<String, List<Meter>> queryMeters = new HashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private long lastPlanCacheHits;
+    private long lastPlanCacheMisses;
+
+    public HibernateQueryStatistics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry, Duration refreshInterval,
+                                    int topQueries, long minMisses, double missRatio) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.meterRegistry = meterRegistry;
+        this.topQueries = topQueries;
+        this.minMisses = minMisses;
+        this.missRatio = missRatio;
+        this.planCacheAlerts = Counter.builder(PLAN_CACHE_ALERTS)
+                .description("Number of refresh windows in which query plan cache misses spiked")
+                .register(meterRegistry);
+        this.lastPlanCacheHits = statistics.getQueryPlanCacheHitCount();
+        this.lastPlanCacheMisses = statistics.getQueryPlanCacheMissCount();
+        for (String role : statistics.getCollectionRoleNames()) {
+            FunctionCounter.builder(COLLECTION_FETCHES, statistics, stats -> stats.getCollectionStatistics(role).getFetchCount())
+                    .tag("role", shortRole(role))
+                    .description("Number of lazy collection fetches per collection role")
+                    .register(meterRegistry);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hibernate-statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::refreshQuietly,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public List<QueryStatisticsDTO> top(int limit) {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> toDTO(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QueryStatisticsDTO::getTotalMillis).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public HibernateStatisticsDTO report(int limit) {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        return new HibernateStatisticsDTO(hits, misses, ratio(hits, hits + misses),
+                statistics.getEntityLoadCount(), statistics.getEntityFetchCount(), statistics.getCollectionFetchCount(),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(), statistics.getFlushCount(),
+                statistics.getQueryExecutionMaxTimeQueryString(), statistics.getQueryExecutionMaxTime(),
+                top(limit));
+    }
+
+    long getPlanCacheAlertCount() {
+        return (long) planCacheAlerts.count();
+    }
+
+    synchronized void refresh() {
+        registerTopQueries();
+        checkPlanCache();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh hibernate query statistics", e);
+        }
+    }
+
+    private void registerTopQueries() {
+        Set<String> top = top(topQueries).stream()
+                .map(QueryStatisticsDTO::getQuery)
+                .collect(Collectors.toSet());
+        queryMeters.entrySet().removeIf(entry -> {
+            if (top.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().forEach(meterRegistry::remove);
+            return true;
+        });
+        top.forEach(query -> queryMeters.computeIfAbsent(query, this::register));
+    }
+
+    private List<Meter> register(String query) {
+        QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+        String hash = hash(query);
+        return List.of(
+                FunctionTimer.builder(QUERY_EXECUTIONS, queryStatistics,
+                                QueryStatistics::getExecutionCount, QueryStatistics::getExecutionTotalTime, TimeUnit.MILLISECONDS)
+                        .tag("query", hash)
+                        .description("Executions of one HQL query, see /actuator/hibernatequeries for the query text")
+                        .register(meterRegistry),
+                TimeGauge.builder(QUERY_MAX, queryStatistics, TimeUnit.MILLISECONDS, QueryStatistics::getExecutionMaxTime)
+                        .tag("query", hash)
+                        .register(meterRegistry),
+                FunctionCounter.builder(QUERY_ROWS, queryStatistics, QueryStatistics::getExecutionRowCount)
+                        .tag("query", hash)
+                        .register(meterRegistry));
+    }
+
+    private void checkPlanCache() {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        long windowHits = hits - lastPlanCacheHits;
+        long windowMisses = misses - lastPlanCacheMisses;
+        lastPlanCacheHits = hits;
+        lastPlanCacheMisses = misses;
+        if (windowMisses >= minMisses && ratio(windowMisses, windowHits + windowMisses) >= missRatio) {
+            planCacheAlerts.increment();
+            log.warn("Query plan cache misses spiked: {} of {} lookups missed since last refresh, "
+                    + "check for queries built with literals instead of parameters", windowMisses, windowHits + windowMisses);
+        }
+    }
+
+    private static QueryStatisticsDTO toDTO(String query, QueryStatistics queryStatistics) {
+        return new QueryStatisticsDTO(hash(query), query,
+                queryStatistics.getExecutionCount(), queryStatistics.getExecutionTotalTime(),
+                queryStatistics.getExecutionMaxTime(), queryStatistics.getExecutionAvgTime(),
+                queryStatistics.getExecutionRowCount(),
+                queryStatistics.getPlanCacheHitCount(), queryStatistics.getPlanCacheMissCount());
+    }
+
+    static String hash(String query) {
+        return DigestUtils.md5DigestAsHex(query.getBytes(StandardCharsets.UTF_8)).substring(0, HASH_LENGTH);
+    }
+
+    static String shortRole(String role) {
+        int entityStart = role.lastIndexOf('.', role.lastIndexOf('.') - 1);
+        return role.substring(entityStart + 1);
+    }
+
+    private static double ratio(long part, long total) {
+        return total == 0 ? 0 : (double) part / total;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.roy.querydsl.statistics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+
+/**
+ * querydsl.hibernate-stats.enabled=true 일 때 Hibernate 통계를 켜고 메트릭, 요청별 로드 수, /actuator/hibernatequeries 를 등록한다.
+ * 세션마다 통계를 로그로 남기는 리스너는 끄고, 쿼리별 통계는 max-queries 개까지만 보관한다.
+ * 전역 로드, fetch, 2차 캐시, flush, 플랜 캐시 수치는 Spring Boot 가 hibernate.* 메트릭으로 등록한다.
+ * 기본값은 꺼져 있다. 엔드포인트는 HQL 원문을 돌려주므로 웹에 노출하지 않으며,
+ * 필요하면 보호된 환경에서만 management.endpoints.web.exposure.include 에 hibernatequeries 를 추가한다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "querydsl.hibernate-stats.enabled", havingValue = "true")
+public class HibernateStatisticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer(
+            @Value("${querydsl.hibernate-stats.max-queries:500}") int maxQueries) {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, "false");
+            properties.put(AvailableSettings.QUERY_STATISTICS_MAX_SIZE, String.valueOf(maxQueries));
+        };
+    }
+
+    @Bean
+    public HibernateQueryStatistics hibernateQueryStatistics(
+            EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry,
+            @Value("${querydsl.hibernate-stats.refresh-interval:10s}") Duration refreshInterval,
+            @Value("${querydsl.hibernate-stats.top-queries:50}") int topQueries,
+            @Value("${querydsl.hibernate-stats.plan-cache-alert.min-misses:100}") long minMisses,
+            @Value("${querydsl.hibernate-stats.plan-cache-alert.miss-ratio:0.2}") double missRatio) {
+        return new HibernateQueryStatistics(entityManagerFactory, meterRegistry, refreshInterval, topQueries, minMisses, missRatio);
+    }
+
+    @Bean
+    public HibernateQueriesEndpoint hibernateQueriesEndpoint(HibernateQueryStatistics hibernateQueryStatistics) {
+        return new HibernateQueriesEndpoint(hibernateQueryStatistics);
+    }
+
+    @Bean
+    public WebMvcConfigurer requestStatisticsConfigurer(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        RequestStatisticsInterceptor interceptor = new RequestStatisticsInterceptor(entityManagerFactory, meterRegistry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.roy.querydsl.statistics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 컨트롤러 요청 하나가 일으킨 엔티티 로드, 프록시 초기화(fetch), 컬렉션 역할별 지연 로딩 수를 요청 스레드에서 센다.
+ * 요청 밖에서는 리스너가 아무것도 하지 않으며, 다른 스레드로 넘긴 조회(AsyncQueryExecutor 등)는 포함하지 않는다.
+ */
+class RequestStatisticsInterceptor implements HandlerInterceptor,
+        PostLoadEventListener, LoadEventListener, InitializeCollectionEventListener {
+
+    static final String ENTITY_LOADS = "hibernate.request.entity.loads";
+    static final String ENTITY_FETCHES = "hibernate.request.entity.fetches";
+    static final String COLLECTION_FETCHES = "hibernate.request.collection.fetches";
+
+    private static final ThreadLocal<RequestCounts> COUNTS = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final List<String> roles;
+
+    RequestStatisticsInterceptor(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.meterRegistry = meterRegistry;
+        this.roles = List.of(sessionFactory.getStatistics().getCollectionRoleNames());
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, this);
+        listeners.appendListeners(EventType.LOAD, this);
+        listeners.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            COUNTS.set(new RequestCounts());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestCounts counts = COUNTS.get();
+        if (Objects.isNull(counts)) {
+            return;
+        }
+        COUNTS.remove();
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String method = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        DistributionSummary.builder(ENTITY_LOADS).tag("method", method).register(meterRegistry)
+                .record(counts.entityLoads);
+        DistributionSummary.builder(ENTITY_FETCHES).tag("method", method).register(meterRegistry)
+                .record(counts.entityFetches);
+        for (String role : roles) {
+            DistributionSummary.builder(COLLECTION_FETCHES)
+                    .tag("method", method)
+                    .tag("role", HibernateQueryStatistics.shortRole(role))
+                    .register(meterRegistry)
+                    .record(counts.collectionFetches.getOrDefault(role, 0L));
+        }
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestCounts counts = COUNTS.get();
+        if (Objects.nonNull(counts)) {
+            counts.entityLoads++;
+        }
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) {
+        RequestCounts counts = COUNTS.get();
+        if (Objects.nonNull(counts) && loadType == IMMEDIATE_LOAD) {
+            counts.entityFetches++;
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        RequestCounts counts = COUNTS.get();
+        if (Objects.nonNull(counts)) {
+            counts.collectionFetches.merge(event.getCollection().getRole(), 1L, Long::sum);
+        }
+    }
+
+    private static class RequestCounts {
+        private long entityLoads;
+        private long entityFetches;
+        private final Map<String, Long> collectionFetches = new HashMap<>();
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.roy.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerUpsertDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SoccerPlayerControllerTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("TeamA");
+            Team teamB = new Team("TeamB");
+            List<SoccerPlayer> players = List.of(
+                    new SoccerPlayer("Roy", 173, 73, teamA),
+                    new SoccerPlayer("Perry", 175, 75, teamA),
+                    new SoccerPlayer("Sally", 160, 60, teamB),
+                    new SoccerPlayer("Dice", 183, 83, teamB)
+            );
+            players.forEach(i -> entityManager.persist(i));
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM SoccerPlayer").executeUpdate();
+            entityManager.createQuery("DELETE FROM Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("ETag 가 같으면 DB 를 읽지 않고 304 를 돌려준다")
+    void notModifiedTest() throws Exception {
+        String etag = etag("Roy");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+
+        mockMvc.perform(get("/soccer-player").param("name", "Roy").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertNotEquals(etag, etag("Perry"));
+    }
+
+    @Test
+    @DisplayName("값을 나누는 방식만 다른 요청도 ETag 가 다르다")
+    void distinctParamsTest() throws Exception {
+        String joined = mockMvc.perform(get("/soccer-player").param("team.name", "TeamA, TeamB", "TeamC"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String split = mockMvc.perform(get("/soccer-player").param("team.name", "TeamA", "TeamB, TeamC"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String reordered = mockMvc.perform(get("/soccer-player").param("page", "0").param("name", "Roy"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(joined, split);
+        assertEquals(reordered, mockMvc.perform(get("/soccer-player").param("name", "Roy").param("page", "0"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("엔티티 변경이 커밋되면 ETag 가 바뀐다")
+    void entityWriteTest() throws Exception {
+        String etag = etag("Roy");
+
+        transactionTemplate.executeWithoutResult(status -> new JPAQueryFactory(entityManager)
+                .selectFrom(soccerPlayer)
+                .where(soccerPlayer.name.eq("Roy"))
+                .fetchOne()
+                .setWeight(74));
+
+        assertModified(etag);
+    }
+
+    @Test
+    @DisplayName("벌크 수정과 upsert 도 ETag 를 바꾼다")
+    void bulkWriteTest() throws Exception {
+        String etag = etag("Roy");
+        transactionTemplate.executeWithoutResult(status -> new JPAQueryFactory(entityManager)
+                .update(soccerPlayer)
+                .set(soccerPlayer.weight, soccerPlayer.weight.add(1))
+                .execute());
+        String afterBulk = assertModified(etag);
+
+        soccerPlayerRepository.upsertPlayers(List.of(new SoccerPlayerUpsertDTO("Roy", 173, 80, "TeamA")));
+
+        assertModified(afterBulk);
+    }
+
+    @Test
+    @DisplayName("이름은 앞부분 일치, 키와 몸무게는 범위, 여러 팀은 in 으로 바인딩한다")
+    void bindingTest() throws Exception {
+        mockMvc.perform(get("/soccer-player").param("name", "P"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", containsInAnyOrder("Perry")));
+        mockMvc.perform(get("/soccer-player").param("height", "176", "170"))
+                .andExpect(jsonPath("$.content[*].name", containsInAnyOrder("Roy", "Perry")));
+        mockMvc.perform(get("/soccer-player").param("height", "173", "160", "183"))
+                .andExpect(jsonPath("$.content[*].name", containsInAnyOrder("Roy", "Sally", "Dice")));
+        mockMvc.perform(get("/soccer-player").param("weight", "75", "").param("team.name", "TeamA", "TeamB"))
+                .andExpect(jsonPath("$.content[*].name", containsInAnyOrder("Perry", "Dice")));
+        mockMvc.perform(get("/soccer-player").param("weight", "", "73").param("team.name", "TeamA"))
+                .andExpect(jsonPath("$.content[*].name", containsInAnyOrder("Roy")));
+    }
+
+    @Test
+    @DisplayName("인덱스가 없는 경로나 전체를 읽게 되는 조건은 400 으로 거절한다")
+    void rejectTest() throws Exception {
+        mockMvc.perform(get("/soccer-player").param("team.soccerPlayers.name", "Roy"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/soccer-player").param("id", "1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/soccer-player").param("name", ""))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/soccer-player").param("weight", "70", ""))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/soccer-player").param("weight", "70", "80").param("page", "0"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/soccer-player").param("name", "R").param("sort", "team.soccerPlayers.name"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/soccer-player").param("name", "R").param("sort", "team.name,desc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/soccer-player").param("name", "R").param("sort", "height,desc").param("sort", "name"))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String name) throws Exception {
+        String etag = mockMvc.perform(get("/soccer-player").param("name", name))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private String assertModified(String etag) throws Exception {
+        String changed = mockMvc.perform(get("/soccer-player").param("name", "Roy").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+        return changed;
+    }
+
+}
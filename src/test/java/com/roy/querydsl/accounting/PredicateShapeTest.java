@@ -0,0 +1,36 @@
+package com.roy.querydsl.accounting;
+
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredicateShapeTest {
+
+    @Test
+    @DisplayName("값만 다른 Predicate 는 같은 모양이다")
+    void predicateTest() {
+        String roy = PredicateShape.of(soccerPlayer.name.eq("Roy").and(soccerPlayer.height.gt(170)));
+        String perry = PredicateShape.of(soccerPlayer.name.eq("Perry").and(soccerPlayer.height.gt(180)));
+
+        assertEquals("AND(EQ(soccerPlayer.name, ?), GT(soccerPlayer.height, ?))", roy);
+        assertEquals(roy, perry);
+        assertNotEquals(roy, PredicateShape.of(soccerPlayer.name.eq("Roy")));
+    }
+
+    @Test
+    @DisplayName("검색 DTO 는 값이 있는 필드 이름으로 나타낸다")
+    void dtoTest() {
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        assertEquals(PredicateShape.NONE, PredicateShape.of(new Object[]{dto, PageRequest.of(0, 10)}));
+
+        dto.setTeamName("TeamA");
+        dto.setHeightGt(170);
+        assertEquals("heightGt,teamName", PredicateShape.of(new Object[]{dto, PageRequest.of(0, 10)}));
+        assertEquals(PredicateShape.NONE, PredicateShape.of(new Object[]{1L}));
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.roy.querydsl.accounting;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import com.roy.querydsl.repository.SoccerPlayerSupportedRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "querydsl.accounting.enabled=true")
+class ResourceAccountingTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+    @Autowired
+    private SoccerPlayerSupportedRepository soccerPlayerSupportedRepository;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("레포지토리 호출은 메서드와 조건 모양별로 기록한다")
+    void repositoryTest() {
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        dto.setTeamName("TeamA");
+        soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(0, 10));
+        soccerPlayerRepository.findAll(soccerPlayer.name.eq("Roy"));
+        soccerPlayerSupportedRepository.selectAll();
+
+        DistributionSummary search = meterRegistry.get(ResourceAccounting.ALLOCATED)
+                .tags("layer", "repository", "method", "SoccerPlayerRepository.searchComplexPage", "shape", "teamName")
+                .summary();
+        assertEquals(1, search.count());
+        assertTrue(search.totalAmount() > 0);
+
+        Timer findAll = meterRegistry.get(ResourceAccounting.CPU)
+                .tags("method", "SoccerPlayerRepository.findAll", "shape", "EQ(soccerPlayer.name, ?)")
+                .timer();
+        assertEquals(1, findAll.count());
+
+        assertEquals(1, meterRegistry.get(ResourceAccounting.ALLOCATED)
+                .tags("method", "SoccerPlayerSupportedRepository.selectAll")
+                .summary().count());
+    }
+
+    @Test
+    @DisplayName("컨트롤러 요청은 요청 파라미터 이름별로 기록한다")
+    void requestTest() throws Exception {
+        mockMvc.perform(get("/soccer-player").param("name", "Roy").param("size", "1"))
+                .andExpect(status().isOk());
+
+        DistributionSummary request = meterRegistry.get(ResourceAccounting.ALLOCATED)
+                .tags("layer", "request", "method", "SoccerPlayerController.test", "shape", "name")
+                .summary();
+        assertEquals(1, request.count());
+        assertTrue(request.totalAmount() > 0);
+    }
+
+}
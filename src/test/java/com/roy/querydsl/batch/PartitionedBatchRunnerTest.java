@@ -0,0 +1,122 @@
+package com.roy.querydsl.batch;
+
+import com.roy.querydsl.datagen.SoccerPlayerDataGenerator;
+import com.roy.querydsl.domain.SoccerPlayer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PartitionedBatchRunnerTest {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PartitionedBatchRunner batchRunner;
+
+    @BeforeEach
+    void before() {
+        new SoccerPlayerDataGenerator(5, 5_000, 100, 1.1, 7L).loadWithJdbcBatch(dataSource);
+    }
+
+    @AfterEach
+    void after() {
+        jdbcTemplate.update("DELETE FROM soccer_player");
+        jdbcTemplate.update("DELETE FROM team");
+    }
+
+    @Test
+    @DisplayName("모든 선수를 한 번씩 처리하고 변경을 커밋한다")
+    void runTest() {
+        Integer weightBefore = jdbcTemplate.queryForObject("SELECT SUM(weight) FROM soccer_player", Integer.class);
+
+        BatchReport report = batchRunner.run("weight", soccerPlayer, soccerPlayer.id, 3,
+                (chunk, entityManager) -> chunk.forEach(player -> player.setWeight(player.getWeight() + 1)));
+
+        Integer weightAfter = jdbcTemplate.queryForObject("SELECT SUM(weight) FROM soccer_player", Integer.class);
+        assertTrue(report.isSuccessful());
+        assertEquals(5_000, report.getRows());
+        assertEquals(12, report.getPartitions().size());
+        assertEquals(weightBefore + 5_000, weightAfter);
+    }
+
+    @Test
+    @DisplayName("실패한 파티션은 실패로 기록되고 나머지 파티션은 커밋된다")
+    void partitionFailureTest() {
+        BatchReport report = batchRunner.run("failure", soccerPlayer, soccerPlayer.id, 2,
+                (chunk, entityManager) -> {
+                    for (SoccerPlayer player : chunk) {
+                        if (player.getId() == 100L) {
+                            throw new IllegalStateException("boom");
+                        }
+                        player.setName("done");
+                    }
+                });
+
+        List<PartitionResult> failed = report.getPartitions().stream()
+                .filter(partition -> !partition.isSuccessful())
+                .collect(Collectors.toList());
+        Long done = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM soccer_player WHERE name = 'done'", Long.class);
+
+        assertFalse(report.isSuccessful());
+        assertEquals(1, failed.size());
+        assertTrue(failed.get(0).getRange().getFrom() <= 100L);
+        assertEquals(5_000L - (failed.get(0).getRange().getTo() - failed.get(0).getRange().getFrom() + 1), done);
+    }
+
+    @Test
+    @DisplayName("청크가 파티션보다 작으면 실패 전에 커밋된 청크는 남고 rows 로 보고된다")
+    void committedPrefixTest() {
+        PartitionedBatchRunner runner = new PartitionedBatchRunner(entityManagerFactory, 1, 100, 1);
+        Long failAt = jdbcTemplate.queryForObject(
+                "SELECT soccer_player_id FROM soccer_player ORDER BY soccer_player_id LIMIT 1 OFFSET 250", Long.class);
+
+        BatchReport report = runner.run("prefix", soccerPlayer, soccerPlayer.id, 1,
+                (chunk, entityManager) -> {
+                    for (SoccerPlayer player : chunk) {
+                        if (player.getId().equals(failAt)) {
+                            throw new IllegalStateException("boom");
+                        }
+                        player.setName("done");
+                    }
+                });
+
+        PartitionResult partition = report.getPartitions().get(0);
+        Long done = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM soccer_player WHERE name = 'done'", Long.class);
+
+        assertEquals(1, report.getPartitions().size());
+        assertFalse(partition.isSuccessful());
+        assertEquals(200, partition.getRows());
+        assertEquals(2, partition.getChunks());
+        assertEquals(200L, done);
+    }
+
+    @Test
+    @DisplayName("식별자 범위는 겹치지 않게 나누어진다")
+    void splitTest() {
+        List<IdRange> ranges = IdRange.split(1, 10, 3);
+
+        assertEquals(3, ranges.size());
+        assertEquals(1, ranges.get(0).getFrom());
+        assertEquals(10, ranges.get(2).getTo());
+        assertEquals(ranges.get(0).getTo() + 1, ranges.get(1).getFrom());
+        assertEquals(1, IdRange.split(5, 5, 8).size());
+    }
+
+}
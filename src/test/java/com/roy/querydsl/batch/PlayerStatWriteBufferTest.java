@@ -0,0 +1,164 @@
+package com.roy.querydsl.batch;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class PlayerStatWriteBufferTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void before() {
+        ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("TeamA");
+            Team teamB = new Team("TeamB");
+            List<SoccerPlayer> players = List.of(
+                    new SoccerPlayer("Roy", 173, 73, teamA),
+                    new SoccerPlayer("Perry", 175, 75, teamA),
+                    new SoccerPlayer("Sally", 160, 60, teamB),
+                    new SoccerPlayer("Dice", 183, 83, teamB)
+            );
+            players.forEach(i -> entityManager.persist(i));
+            return players.stream().map(SoccerPlayer::getId).collect(Collectors.toList());
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM SoccerPlayer").executeUpdate();
+            entityManager.createQuery("DELETE FROM Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("같은 선수의 변경은 하나로 합쳐서 쓴다")
+    void coalesceTest() throws Exception {
+        PlayerStatWriteBuffer buffer = buffer(10, Duration.ofSeconds(1));
+        try {
+            buffer.set(ids.get(0), PlayerStat.HEIGHT, 180);
+            buffer.set(ids.get(0), PlayerStat.HEIGHT, 181);
+            buffer.add(ids.get(0), PlayerStat.HEIGHT, 2);
+            buffer.add(ids.get(1), PlayerStat.WEIGHT, 1);
+            buffer.add(ids.get(1), PlayerStat.WEIGHT, 1);
+            buffer.set(ids.get(2), PlayerStat.WEIGHT, 58);
+            assertEquals(3, buffer.pending());
+
+            assertEquals(3, buffer.flush());
+
+            assertEquals(0, buffer.pending());
+            assertPlayer(ids.get(0), 183, 73);
+            assertPlayer(ids.get(1), 175, 77);
+            assertPlayer(ids.get(2), 160, 58);
+            assertPlayer(ids.get(3), 183, 83);
+        } finally {
+            buffer.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 flush 로 자리가 날 때까지 기다린다")
+    void backPressureTest() throws Exception {
+        PlayerStatWriteBuffer buffer = buffer(2, Duration.ofSeconds(5));
+        try {
+            buffer.add(ids.get(0), PlayerStat.HEIGHT, 1);
+            buffer.add(ids.get(1), PlayerStat.HEIGHT, 1);
+            buffer.add(ids.get(2), PlayerStat.HEIGHT, 1);
+
+            assertEquals(1, buffer.pending());
+            assertPlayer(ids.get(0), 174, 73);
+            assertPlayer(ids.get(1), 176, 75);
+        } finally {
+            buffer.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("종료 시 남은 변경을 모두 쓰고 이후의 변경은 거절한다")
+    void shutdownTest() throws Exception {
+        PlayerStatWriteBuffer buffer = buffer(10, Duration.ofSeconds(1));
+        buffer.set(ids.get(3), PlayerStat.WEIGHT, 90);
+
+        buffer.destroy();
+
+        assertPlayer(ids.get(3), 183, 90);
+        assertThrows(IllegalStateException.class, () -> buffer.add(ids.get(3), PlayerStat.WEIGHT, 1));
+    }
+
+    @Test
+    @DisplayName("flush 가 자리를 만들지 못하면 기다린 뒤 거절한다")
+    void rejectTest() throws Exception {
+        PlayerStatWriteBuffer buffer = buffer(0, Duration.ofMillis(50));
+        try {
+            assertThrows(RejectedExecutionException.class, () -> buffer.add(ids.get(0), PlayerStat.HEIGHT, 1));
+        } finally {
+            buffer.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("계속 실패하는 변경은 max-attempts 번 다시 시도한 뒤 버리고 자리를 돌려준다")
+    void dropAfterMaxAttemptsTest() throws Exception {
+        EntityManagerFactory failing = mock(EntityManagerFactory.class);
+        when(failing.createEntityManager()).thenThrow(new PersistenceException("unavailable"));
+        PlayerStatWriteBuffer buffer = new PlayerStatWriteBuffer(failing, Duration.ofHours(1), 1, 2, Duration.ofMillis(50), 2);
+        try {
+            buffer.add(ids.get(0), PlayerStat.HEIGHT, 1);
+
+            assertThrows(PersistenceException.class, buffer::flush);
+            assertEquals(1, buffer.pending());
+            assertThrows(PersistenceException.class, buffer::flush);
+            assertEquals(0, buffer.pending());
+
+            buffer.add(ids.get(1), PlayerStat.HEIGHT, 1);
+            assertEquals(1, buffer.pending());
+        } finally {
+            doAnswer(invocation -> entityManagerFactory.createEntityManager()).when(failing).createEntityManager();
+            buffer.destroy();
+        }
+    }
+
+    private PlayerStatWriteBuffer buffer(int maxPending, Duration offerTimeout) {
+        return new PlayerStatWriteBuffer(entityManagerFactory, Duration.ofHours(1), maxPending, 2, offerTimeout, 5);
+    }
+
+    private void assertPlayer(Long id, int height, int weight) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            SoccerPlayer player = em.find(SoccerPlayer.class, id);
+            assertEquals(height, player.getHeight());
+            assertEquals(weight, player.getWeight());
+        } finally {
+            em.close();
+        }
+    }
+
+}
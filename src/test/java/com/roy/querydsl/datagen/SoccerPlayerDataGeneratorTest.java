@@ -0,0 +1,67 @@
+package com.roy.querydsl.datagen;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SoccerPlayerDataGeneratorTest {
+
+    private static final String SNAPSHOT_QUERY =
+            "SELECT soccer_player_id, name, height, weight, team_id FROM soccer_player ORDER BY soccer_player_id";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void after() {
+        jdbcTemplate.update("DELETE FROM soccer_player");
+        jdbcTemplate.update("DELETE FROM team");
+    }
+
+    @Test
+    @DisplayName("같은 시드는 적재 방식과 무관하게 같은 데이터를 만든다")
+    void deterministicTest(@TempDir Path workDir) {
+        SoccerPlayerDataGenerator generator = new SoccerPlayerDataGenerator(5, 2_000, 100, 1.1, 7L);
+
+        generator.loadWithJdbcBatch(dataSource);
+        List<Map<String, Object>> jdbcRows = jdbcTemplate.queryForList(SNAPSHOT_QUERY);
+        after();
+
+        generator.loadWithCsvRead(dataSource, workDir);
+        List<Map<String, Object>> csvRows = jdbcTemplate.queryForList(SNAPSHOT_QUERY);
+
+        assertEquals(2_000, jdbcRows.size());
+        assertEquals(jdbcRows, csvRows);
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM team", Integer.class));
+    }
+
+    @Test
+    @DisplayName("팀 규모는 치우치고 이름은 지정한 카디널리티를 넘지 않는다")
+    void distributionTest() {
+        new SoccerPlayerDataGenerator(10, 5_000, 50, 1.1, 7L).loadWithJdbcBatch(dataSource);
+
+        Long largestTeam = jdbcTemplate.queryForObject(
+                "SELECT team_id FROM soccer_player GROUP BY team_id ORDER BY COUNT(*) DESC LIMIT 1", Long.class);
+        Integer names = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT name) FROM soccer_player", Integer.class);
+        Double averageHeight = jdbcTemplate.queryForObject("SELECT AVG(CAST(height AS DOUBLE)) FROM soccer_player", Double.class);
+
+        assertEquals(1L, largestTeam);
+        assertTrue(names <= 50);
+        assertEquals(178.0, averageHeight, 1.0);
+    }
+
+}
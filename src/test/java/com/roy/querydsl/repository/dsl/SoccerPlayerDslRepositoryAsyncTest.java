@@ -0,0 +1,109 @@
+package com.roy.querydsl.repository.dsl;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import com.roy.querydsl.repository.support.AsyncQueryExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SoccerPlayerDslRepositoryAsyncTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+    @Autowired
+    private AsyncQueryExecutor asyncQueryExecutor;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("TeamA");
+            Team teamB = new Team("TeamB");
+            List<SoccerPlayer> players = List.of(
+                    new SoccerPlayer("Roy", 173, 73, teamA),
+                    new SoccerPlayer("Perry", 175, 75, teamA),
+                    new SoccerPlayer("Sally", 160, 60, teamB),
+                    new SoccerPlayer("Dice", 183, 83, teamB)
+            );
+            players.forEach(i -> entityManager.persist(i));
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM SoccerPlayer").executeUpdate();
+            entityManager.createQuery("DELETE FROM Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("비동기 검색 결과는 동기 검색 결과와 같다")
+    void searchComplexPageAsyncTest() throws Exception {
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        dto.setTeamName("TeamA");
+        PageRequest pageable = PageRequest.of(0, 10);
+
+        CompletableFuture<Page<SoccerPlayerTeamDTO>> simple = soccerPlayerRepository.searchSimplePageAsync(dto, pageable);
+        CompletableFuture<Page<SoccerPlayerTeamDTO>> complex = soccerPlayerRepository.searchComplexPageAsync(dto, pageable);
+
+        assertEquals(2, simple.get().getTotalElements());
+        assertEquals(complex.get().getContent(), soccerPlayerRepository.searchComplexPage(dto, pageable).getContent());
+    }
+
+    @Test
+    @DisplayName("비동기 작업에 MDC 가 전파된다")
+    void mdcPropagationTest() throws Exception {
+        MDC.put("traceId", "trace-1");
+        try {
+            String traceId = asyncQueryExecutor.submit(em -> MDC.get("traceId")).get();
+            assertEquals("trace-1", traceId);
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+
+    @Test
+    @DisplayName("타임아웃이 지나면 TimeoutException 으로 완료된다")
+    void timeoutTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> future = asyncQueryExecutor.submit(em -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }, Duration.ofMillis(100));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertTrue(exception.getCause() instanceof TimeoutException);
+        release.countDown();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.roy.querydsl.repository.dsl;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SoccerPlayerFacetCacheTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+
+    private Team teamA;
+
+    @BeforeEach
+    void before() {
+        teamA = transactionTemplate.execute(status -> {
+            Team teamA = new Team("TeamA");
+            Team teamB = new Team("TeamB");
+            List<SoccerPlayer> players = List.of(
+                    new SoccerPlayer("Roy", 173, 73, teamA),
+                    new SoccerPlayer("Perry", 175, 75, teamA),
+                    new SoccerPlayer("Sally", 160, 60, teamB),
+                    new SoccerPlayer("Dice", 183, 83, teamB)
+            );
+            players.forEach(i -> entityManager.persist(i));
+            return teamA;
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM SoccerPlayer").executeUpdate();
+            entityManager.createQuery("DELETE FROM Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("선수가 바뀌면 캐시된 facet 대신 새로 집계한 total 을 돌려준다")
+    void refreshAfterWriteTest() {
+        assertEquals(4, total());
+
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.persist(new SoccerPlayer("Mike", 180, 80, entityManager.merge(teamA))));
+
+        assertEquals(5, total());
+    }
+
+    @Test
+    @DisplayName("쓰기를 한 트랜잭션의 facet 은 캐시하지 않는다")
+    void dirtyTransactionTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.persist(new SoccerPlayer("Mike", 180, 80, entityManager.merge(teamA)));
+            entityManager.flush();
+            assertEquals(5, total());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(4, total());
+    }
+
+    private long total() {
+        return soccerPlayerRepository.searchWithFacets(new SoccerPlayerSearchDTO(), PageRequest.of(0, 2)).getTotalElements();
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.roy.querydsl.repository.dsl;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.FacetBucketDTO;
+import com.roy.querydsl.dto.SoccerPlayerFacetsDTO;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import com.roy.querydsl.repository.support.FacetedPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class SoccerPlayerFacetSearchTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB),
+                new SoccerPlayer("Free", 195, 95)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("페이지와 함께 팀, 키, 몸무게 facet 을 돌려준다")
+    void searchWithFacetsTest() {
+        FacetedPage<SoccerPlayerTeamDTO, SoccerPlayerFacetsDTO> page =
+                soccerPlayerRepository.searchWithFacets(new SoccerPlayerSearchDTO(), PageRequest.of(0, 2));
+        SoccerPlayerFacetsDTO facets = page.getFacets();
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(5, page.getTotalElements());
+        assertEquals(List.of(2L, 2L, 1L), counts(facets.getTeams()));
+        assertEquals(List.of(0L, 1L, 2L, 1L, 1L), counts(facets.getHeights()));
+        assertEquals("160cm ~ 170cm", facets.getHeights().get(1).getLabel());
+        assertEquals(List.of(0L, 1L, 2L, 1L, 1L), counts(facets.getWeights()));
+    }
+
+    @Test
+    @DisplayName("facet 은 검색 조건을 적용하여 집계한다")
+    void facetsWithConditionTest() {
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        dto.setTeamName("TeamB");
+
+        SoccerPlayerFacetsDTO facets = soccerPlayerRepository.searchWithFacets(dto, PageRequest.of(0, 10)).getFacets();
+
+        assertEquals(2, facets.getTotal());
+        assertEquals(1, facets.getTeams().size());
+        assertEquals("TeamB", facets.getTeams().get(0).getLabel());
+        assertEquals(List.of(0L, 1L, 0L, 1L, 0L), counts(facets.getHeights()));
+    }
+
+    private List<Long> counts(List<FacetBucketDTO> buckets) {
+        return buckets.stream().map(FacetBucketDTO::getCount).collect(Collectors.toList());
+    }
+
+}
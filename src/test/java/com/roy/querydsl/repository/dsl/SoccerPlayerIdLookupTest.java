@@ -0,0 +1,95 @@
+package com.roy.querydsl.repository.dsl;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = "querydsl.in-list.max-chunk=2")
+class SoccerPlayerIdLookupTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void before() {
+        ids = transactionTemplate.execute(status -> {
+            Team teamA = new Team("TeamA");
+            Team teamB = new Team("TeamB");
+            List<SoccerPlayer> players = List.of(
+                    new SoccerPlayer("Roy", 173, 73, teamA),
+                    new SoccerPlayer("Perry", 175, 75, teamA),
+                    new SoccerPlayer("Sally", 160, 60, teamB),
+                    new SoccerPlayer("Dice", 183, 83, teamB)
+            );
+            players.forEach(i -> entityManager.persist(i));
+            return players.stream().map(SoccerPlayer::getId).collect(Collectors.toList());
+        });
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM SoccerPlayer").executeUpdate();
+            entityManager.createQuery("DELETE FROM Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("여러 조각으로 나눠 조회해도 입력 순서대로 돌려준다")
+    void findAllByIdInOrderTest() {
+        List<Long> request = new ArrayList<>(ids);
+        Collections.reverse(request);
+        request.add(2, -1L);
+        request.add(ids.get(0));
+
+        List<SoccerPlayer> result = soccerPlayerRepository.findAllByIdInOrder(request);
+
+        assertEquals(List.of("Dice", "Sally", "Perry", "Roy", "Roy"),
+                result.stream().map(SoccerPlayer::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("조회한 선수는 일반 영속 엔티티라서 변경이 반영된다")
+    void managedEntityTest() {
+        transactionTemplate.executeWithoutResult(status -> soccerPlayerRepository.findAllByIdInOrder(ids.subList(0, 1))
+                .get(0)
+                .setName("Roy2"));
+
+        assertEquals("Roy2", soccerPlayerRepository.findById(ids.get(0)).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("병렬 조회 결과는 팀과 함께 입력 순서대로 돌려준다")
+    void findAllByIdInOrderAsyncTest() {
+        List<SoccerPlayer> result = soccerPlayerRepository.findAllByIdInOrderAsync(ids).join();
+
+        assertEquals(List.of("Roy", "Perry", "Sally", "Dice"),
+                result.stream().map(SoccerPlayer::getName).collect(Collectors.toList()));
+        assertEquals(List.of("TeamA", "TeamA", "TeamB", "TeamB"),
+                result.stream().map(player -> player.getTeam().getName()).collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.roy.querydsl.repository.dsl;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.repository.dsl.impl.SoccerPlayerDslRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class SoccerPlayerRepositorySupportTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SoccerPlayerDslRepositoryImpl soccerPlayerDslRepository;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB),
+                new SoccerPlayer("Mike", 180, 80)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("팀이 없는 선수도 내용과 total 에 함께 포함한다")
+    void teamlessPlayerTest() {
+        Page<SoccerPlayerTeamDTO> page = soccerPlayerDslRepository
+                .searchWithRepositorySupport(new SoccerPlayerSearchDTO(), PageRequest.of(0, 3, Sort.by("height")));
+
+        assertEquals(5, page.getTotalElements());
+        assertEquals(List.of("Sally", "Roy", "Perry"),
+                page.getContent().stream().map(SoccerPlayerTeamDTO::getPlayerName).collect(Collectors.toList()));
+
+        Page<SoccerPlayerTeamDTO> last = soccerPlayerDslRepository
+                .searchWithRepositorySupport(new SoccerPlayerSearchDTO(), PageRequest.of(1, 3, Sort.by("height")));
+        assertEquals(List.of("Mike", "Dice"),
+                last.getContent().stream().map(SoccerPlayerTeamDTO::getPlayerName).collect(Collectors.toList()));
+        assertTrue(last.getContent().stream().anyMatch(player -> Objects.isNull(player.getTeamName())));
+    }
+
+}
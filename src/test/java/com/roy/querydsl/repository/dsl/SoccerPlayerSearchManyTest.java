@@ -0,0 +1,89 @@
+package com.roy.querydsl.repository.dsl;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class SoccerPlayerSearchManyTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("여러 검색 조건의 결과를 조건 순서대로 돌려준다")
+    void searchManyTest() {
+        SoccerPlayerSearchDTO teamA = new SoccerPlayerSearchDTO();
+        teamA.setTeamName("TeamA");
+        SoccerPlayerSearchDTO tall = new SoccerPlayerSearchDTO();
+        tall.setHeightGt(170);
+        SoccerPlayerSearchDTO nobody = new SoccerPlayerSearchDTO();
+        nobody.setPlayerName("Nobody");
+
+        List<Page<SoccerPlayerTeamDTO>> pages = soccerPlayerRepository.searchMany(List.of(teamA, tall, nobody), 2);
+
+        assertEquals(3, pages.size());
+        assertEquals(soccerPlayerRepository.searchComplexPage(teamA, PageRequest.of(0, 2)).getContent(), pages.get(0).getContent());
+        assertEquals(2, pages.get(0).getTotalElements());
+        assertEquals(2, pages.get(1).getContent().size());
+        assertEquals(3, pages.get(1).getTotalElements());
+        assertTrue(pages.get(2).getContent().isEmpty());
+        assertEquals(0, pages.get(2).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("아직 flush 하지 않은 변경도 결과에 포함한다")
+    void flushBeforeSearchTest() {
+        Team teamA = entityManager.createQuery("select t from Team t where t.name = 'TeamA'", Team.class).getSingleResult();
+        entityManager.persist(new SoccerPlayer("Mike", 180, 80, teamA));
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        dto.setTeamName("TeamA");
+
+        Page<SoccerPlayerTeamDTO> page = soccerPlayerRepository.searchMany(List.of(dto), 10).get(0);
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("Roy", "Perry", "Mike"),
+                page.getContent().stream().map(SoccerPlayerTeamDTO::getPlayerName).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("빈 조건 목록은 빈 결과를 돌려준다")
+    void emptyTest() {
+        assertTrue(soccerPlayerRepository.searchMany(List.of(), 10).isEmpty());
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.roy.querydsl.repository.dsl;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class SoccerPlayerTeamAssignmentTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+
+    private Team teamA;
+    private Team teamB;
+    private SoccerPlayer roy;
+    private SoccerPlayer sally;
+
+    @BeforeEach
+    void before() {
+        teamA = new Team("TeamA");
+        teamB = new Team("TeamB");
+        roy = new SoccerPlayer("Roy", 173, 73, teamA);
+        sally = new SoccerPlayer("Sally", 160, 60, teamB);
+        List.of(roy, new SoccerPlayer("Perry", 175, 75, teamA), sally, new SoccerPlayer("Dice", 183, 83, teamB))
+                .forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("팀 식별자로 선수를 등록하면 팀을 읽지 않는다")
+    void registerPlayerTest() {
+        SoccerPlayer player = soccerPlayerRepository.registerPlayer("Kane", 188, 86, teamA.getId());
+        entityManager.flush();
+
+        assertFalse(Hibernate.isInitialized(player.getTeam()));
+        entityManager.clear();
+        assertEquals("TeamA", entityManager.find(SoccerPlayer.class, player.getId()).getTeam().getName());
+    }
+
+    @Test
+    @DisplayName("팀을 옮겨도 두 팀의 선수 목록을 읽지 않는다")
+    void assignTeamTest() {
+        soccerPlayerRepository.assignTeam(roy.getId(), teamB.getId());
+        entityManager.flush();
+
+        SoccerPlayer player = entityManager.find(SoccerPlayer.class, roy.getId());
+        assertFalse(Hibernate.isInitialized(player.getTeam()));
+        assertFalse(Hibernate.isInitialized(entityManager.getReference(Team.class, teamA.getId())));
+
+        entityManager.clear();
+        assertEquals(teamB.getId(), entityManager.find(SoccerPlayer.class, roy.getId()).getTeam().getId());
+    }
+
+    @Test
+    @DisplayName("이미 로딩된 선수 목록은 함께 갱신한다")
+    void loadedRosterTest() {
+        Team loadedA = entityManager.find(Team.class, teamA.getId());
+        Team loadedB = entityManager.find(Team.class, teamB.getId());
+        assertEquals(2, loadedA.getSoccerPlayers().size());
+        assertEquals(2, loadedB.getSoccerPlayers().size());
+
+        soccerPlayerRepository.assignTeam(roy.getId(), teamB.getId());
+
+        assertEquals(1, loadedA.getSoccerPlayers().size());
+        assertEquals(3, loadedB.getSoccerPlayers().size());
+    }
+
+    @Test
+    @DisplayName("여러 선수의 팀을 한 번의 update 로 바꾼다")
+    void assignTeamBulkTest() {
+        long updated = soccerPlayerRepository.assignTeam(List.of(roy.getId(), sally.getId()), teamA.getId());
+        entityManager.clear();
+
+        assertEquals(2, updated);
+        assertEquals(teamA.getId(), entityManager.find(SoccerPlayer.class, sally.getId()).getTeam().getId());
+        assertEquals(0, soccerPlayerRepository.assignTeam(List.of(), teamA.getId()));
+    }
+
+}
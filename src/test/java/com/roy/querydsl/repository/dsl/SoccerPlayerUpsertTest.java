@@ -0,0 +1,91 @@
+package com.roy.querydsl.repository.dsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerUpsertDTO;
+import com.roy.querydsl.dto.UpsertResultDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static com.roy.querydsl.domain.QTeam.team;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class SoccerPlayerUpsertTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+
+    private JPAQueryFactory query;
+
+    @BeforeEach
+    void before() {
+        query = new JPAQueryFactory(entityManager);
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("이름과 팀이 같은 선수는 갱신하고 나머지는 추가한다")
+    void upsertTest() {
+        UpsertResultDTO result = soccerPlayerRepository.upsertPlayers(List.of(
+                new SoccerPlayerUpsertDTO("Roy", 174, 74, "TeamA"),
+                new SoccerPlayerUpsertDTO("Roy", 170, 70, "TeamB"),
+                new SoccerPlayerUpsertDTO("Kane", 188, 86, "TeamC"),
+                new SoccerPlayerUpsertDTO("Kane", 189, 87, "TeamC"),
+                new SoccerPlayerUpsertDTO("Free", 180, 80, null)
+        ));
+        entityManager.clear();
+
+        assertEquals(new UpsertResultDTO(3, 2), result);
+        assertEquals(7L, query.select(soccerPlayer.count()).from(soccerPlayer).fetchOne());
+        assertEquals(3L, query.select(team.count()).from(team).fetchOne());
+
+        SoccerPlayer roy = query.selectFrom(soccerPlayer)
+                .where(soccerPlayer.name.eq("Roy"), soccerPlayer.team.name.eq("TeamA"))
+                .fetchOne();
+        assertEquals(174, roy.getHeight());
+        assertEquals(74, roy.getWeight());
+        SoccerPlayer kane = query.selectFrom(soccerPlayer).where(soccerPlayer.name.eq("Kane")).fetchOne();
+        assertEquals(189, kane.getHeight());
+        assertEquals("TeamC", kane.getTeam().getName());
+        assertNull(query.selectFrom(soccerPlayer).where(soccerPlayer.name.eq("Free")).fetchOne().getTeam());
+    }
+
+    @Test
+    @DisplayName("청크 크기보다 많은 입력도 나누어 처리한다")
+    void chunkTest() {
+        List<SoccerPlayerUpsertDTO> players = IntStream.range(0, 2_500)
+                .mapToObj(i -> new SoccerPlayerUpsertDTO("Player" + i, 170, 70, "Team" + (i % 7)))
+                .collect(Collectors.toList());
+
+        assertEquals(new UpsertResultDTO(2_500, 0), soccerPlayerRepository.upsertPlayers(players));
+        assertEquals(new UpsertResultDTO(0, 2_500), soccerPlayerRepository.upsertPlayers(players));
+        assertEquals(2_504L, query.select(soccerPlayer.count()).from(soccerPlayer).fetchOne());
+    }
+
+}
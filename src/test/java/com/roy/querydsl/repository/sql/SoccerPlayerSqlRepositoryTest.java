@@ -0,0 +1,87 @@
+package com.roy.querydsl.repository.sql;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class SoccerPlayerSqlRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+    @Autowired
+    private SoccerPlayerSqlRepository soccerPlayerSqlRepository;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("같은 검색 조건이면 JPA 구현과 같은 DTO 와 total 을 돌려준다")
+    void sameResultTest() {
+        SoccerPlayerSearchDTO byTeam = new SoccerPlayerSearchDTO();
+        byTeam.setTeamName("TeamB");
+        SoccerPlayerSearchDTO byBody = new SoccerPlayerSearchDTO();
+        byBody.setHeightGt(170);
+        byBody.setWeightGt(74);
+
+        for (SoccerPlayerSearchDTO dto : List.of(byTeam, byBody, new SoccerPlayerSearchDTO())) {
+            Page<SoccerPlayerTeamDTO> jpa = soccerPlayerRepository.searchSimplePage(dto, PageRequest.of(0, 10));
+            Page<SoccerPlayerTeamDTO> sql = soccerPlayerSqlRepository.searchSimplePage(dto, PageRequest.of(0, 10));
+
+            assertEquals(jpa.getTotalElements(), sql.getTotalElements());
+            assertEquals(rows(jpa), rows(sql));
+        }
+    }
+
+    @Test
+    @DisplayName("count 가 필요한 페이지도 querydsl-sql 로 실행한다")
+    void complexPageTest() {
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        dto.setTeamName("TeamA");
+
+        Page<SoccerPlayerTeamDTO> page = soccerPlayerSqlRepository.searchComplexPage(dto, PageRequest.of(0, 1));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+        assertEquals("TeamA", page.getContent().get(0).getTeamName());
+    }
+
+    private static Set<List<Object>> rows(Page<SoccerPlayerTeamDTO> page) {
+        return page.getContent().stream()
+                .map(row -> List.<Object>of(row.getPlayerId(), row.getPlayerName(), row.getTeamId(), row.getTeamName()))
+                .collect(Collectors.toSet());
+    }
+
+}
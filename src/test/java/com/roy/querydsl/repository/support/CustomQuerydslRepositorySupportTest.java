@@ -0,0 +1,26 @@
+package com.roy.querydsl.repository.support;
+
+import com.roy.querydsl.repository.SoccerPlayerSupportedRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+
+import static org.mockito.Mockito.*;
+
+class CustomQuerydslRepositorySupportTest {
+
+    @Test
+    @DisplayName("주입과 검증 단계에서는 EntityManager 를 사용하지 않는다")
+    void deferredSupportTest() {
+        EntityManager entityManager = mock(EntityManager.class);
+        SoccerPlayerSupportedRepository repository = new SoccerPlayerSupportedRepository();
+
+        repository.setEntityManager(entityManager);
+        repository.setAsyncQueryExecutor(mock(AsyncQueryExecutor.class));
+        repository.validate();
+
+        verifyNoInteractions(entityManager);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.roy.querydsl.repository.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InListChunksTest {
+
+    @Test
+    @DisplayName("조각은 최대 크기를 넘지 않고 2의 거듭제곱 크기로 채워진다")
+    void splitTest() {
+        List<Long> ids = LongStream.rangeClosed(1, 21).boxed().collect(Collectors.toList());
+
+        List<List<Long>> chunks = InListChunks.split(ids, 8);
+
+        assertEquals(3, chunks.size());
+        assertEquals(LongStream.rangeClosed(1, 8).boxed().collect(Collectors.toList()), chunks.get(0));
+        assertEquals(8, chunks.get(2).size());
+        assertEquals(List.of(17L, 18L, 19L, 20L, 21L, 21L, 21L, 21L), chunks.get(2));
+    }
+
+    @Test
+    @DisplayName("중복된 값은 한 번만 넣는다")
+    void distinctTest() {
+        assertEquals(List.of(List.of(3L, 1L, 2L, 2L)), InListChunks.split(List.of(3L, 1L, 3L, 2L), 64));
+        assertTrue(InListChunks.split(List.<Long>of(), 64).isEmpty());
+    }
+
+    @Test
+    @DisplayName("채운 크기는 2의 거듭제곱이다")
+    void paddedSizeTest() {
+        assertEquals(1, InListChunks.paddedSize(1));
+        assertEquals(2, InListChunks.paddedSize(2));
+        assertEquals(4, InListChunks.paddedSize(3));
+        assertEquals(512, InListChunks.paddedSize(257));
+        assertThrows(IllegalArgumentException.class, () -> InListChunks.split(List.of(1L), 100));
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.roy.querydsl.repository.support;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.QSoccerPlayerTeamDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static com.roy.querydsl.domain.QTeam.team;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class JoinPlanTest {
+
+    private static final JoinPlan PLAN = JoinPlan.from(soccerPlayer)
+            .leftJoin(soccerPlayer.team, team);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private JPAQueryFactory query;
+
+    @BeforeEach
+    void before() {
+        query = new JPAQueryFactory(entityManager);
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB),
+                new SoccerPlayer("Free", 170, 70)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("팀 조건이 없으면 count 쿼리에 조인이 없다")
+    void countWithoutJoinTest() {
+        JPAQuery<Long> count = PLAN.count(query, soccerPlayer.height.gt(170), null);
+
+        assertFalse(count.toString().contains("join"));
+        assertEquals(3L, count.fetchOne());
+    }
+
+    @Test
+    @DisplayName("팀 이름 조건은 alias 로 한 번만 조인한다")
+    void countWithJoinTest() {
+        JPAQuery<Long> count = PLAN.count(query, soccerPlayer.team.name.eq("TeamA"));
+
+        assertTrue(count.toString().contains("left join soccerPlayer.team as team"));
+        assertTrue(count.toString().contains("team.name"));
+        assertEquals(2L, count.fetchOne());
+    }
+
+    @Test
+    @DisplayName("외래 키만 필요한 프로젝션은 조인하지 않는다")
+    void foreignKeyProjectionTest() {
+        JPAQuery<Long> content = PLAN.content(query, soccerPlayer.team.id, new Predicate[0]);
+
+        assertFalse(content.toString().contains("join"));
+        assertEquals(5, content.fetch().size());
+    }
+
+    @Test
+    @DisplayName("팀 이름 프로젝션은 left join 으로 팀이 없는 선수도 포함한다")
+    void leftJoinProjectionTest() {
+        List<SoccerPlayerTeamDTO> content = PLAN
+                .content(query, new QSoccerPlayerTeamDTO(
+                                soccerPlayer.id, soccerPlayer.name,
+                                soccerPlayer.team.id, soccerPlayer.team.name),
+                        new Predicate[0], soccerPlayer.name.asc())
+                .fetch();
+
+        assertEquals(5, content.size());
+        assertEquals("Dice", content.get(0).getPlayerName());
+        assertNull(content.get(1).getTeamName());
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.roy.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import com.roy.querydsl.repository.SoccerPlayerSupportedRepository;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class ReadOnlyQueryHintsTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+    @Autowired
+    private SoccerPlayerSupportedRepository supportedRepository;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("읽기 전용 조회 메서드는 스냅샷을 남기지 않는다")
+    void noSnapshotTest() {
+        assertReadOnly(supportedRepository.selectFromAll(), 4);
+        assertReadOnly(supportedRepository.selectAll(), 4);
+        assertReadOnly(supportedRepository.findPageByApplyPage(new SoccerPlayerSearchDTO(), PageRequest.of(0, 2)).getContent(), 2);
+        assertReadOnly(soccerPlayerRepository.findAll(soccerPlayer.height.gt(170)), 3);
+        assertReadOnly(soccerPlayerRepository.findAll(soccerPlayer.height.gt(0), PageRequest.of(0, 2)), 2);
+    }
+
+    @Test
+    @DisplayName("일반 조회는 스냅샷을 남긴다")
+    void snapshotTest() {
+        SoccerPlayer player = new JPAQueryFactory(entityManager)
+                .selectFrom(soccerPlayer)
+                .where(soccerPlayer.name.eq("Roy"))
+                .fetchOne();
+
+        assertFalse(entry(player).isReadOnly());
+        assertNotNull(entry(player).getLoadedState());
+    }
+
+    @Test
+    @DisplayName("읽기 전용으로 읽은 엔티티의 변경은 반영되지 않는다")
+    void readOnlyChangeIgnoredTest() {
+        supportedRepository.selectFromAll().forEach(player -> player.setHeight(0));
+        entityManager.flush();
+        entityManager.clear();
+
+        Long changed = new JPAQueryFactory(entityManager)
+                .select(soccerPlayer.count())
+                .from(soccerPlayer)
+                .where(soccerPlayer.height.eq(0))
+                .fetchOne();
+
+        assertEquals(0L, changed);
+    }
+
+    private void assertReadOnly(Iterable<SoccerPlayer> result, int expectedSize) {
+        List<SoccerPlayer> players = new ArrayList<>();
+        result.forEach(players::add);
+
+        assertEquals(expectedSize, players.size());
+        players.forEach(player -> {
+            assertTrue(entry(player).isReadOnly());
+            assertNull(entry(player).getLoadedState());
+        });
+        entityManager.clear();
+    }
+
+    private EntityEntry entry(SoccerPlayer player) {
+        return entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getEntry(player);
+    }
+
+}
@@ -0,0 +1,286 @@
+package com.roy.querydsl.repository.support;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.QSoccerPlayer;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class SubQueryRewriterTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private JPAQueryFactory query;
+    private SubQueryRewriter rewriter;
+
+    @BeforeEach
+    void before() {
+        query = new JPAQueryFactory(entityManager);
+        rewriter = new SubQueryRewriter(entityManager);
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        Team teamC = new Team("TeamC");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB),
+                new SoccerPlayer("Free", 170, 70)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.persist(teamC);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("WHERE 절의 비연관 서브 쿼리는 한 번 실행한 값으로 치환된다")
+    void hoistWhereSubQueryTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        JPAQuery<SoccerPlayer> original = query
+                .selectFrom(soccerPlayer)
+                .where(soccerPlayer.height.goe(
+                        select(subQPlayer.height.avg())
+                                .from(subQPlayer)))
+                .orderBy(soccerPlayer.name.asc());
+
+        JPAQuery<SoccerPlayer> rewritten = rewriter.rewrite(original);
+
+        assertFalse(executedQuery(rewritten).contains("subQPlayer"));
+        assertEquals(original.fetch(), rewritten.fetch());
+    }
+
+    @Test
+    @DisplayName("SELECT 절의 비연관 서브 쿼리는 원래 Tuple 키로 조회할 수 있다")
+    void hoistSelectSubQueryTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        JPQLQuery<Double> averageHeight = select(subQPlayer.height.avg()).from(subQPlayer);
+        JPAQuery<Tuple> original = query
+                .select(soccerPlayer.name, averageHeight)
+                .from(soccerPlayer)
+                .orderBy(soccerPlayer.name.asc());
+
+        JPAQuery<Tuple> rewritten = rewriter.rewrite(original);
+
+        assertFalse(executedQuery(rewritten).contains("subQPlayer"));
+        List<Tuple> expected = original.fetch();
+        List<Tuple> actual = rewritten.fetch();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).get(soccerPlayer.name), actual.get(i).get(soccerPlayer.name));
+            assertEquals(expected.get(i).get(averageHeight), actual.get(i).get(averageHeight));
+        }
+    }
+
+    @Test
+    @DisplayName("SELECT 절의 연관 집계 서브 쿼리는 그룹 조회 결과로 조인된다")
+    void groupedJoinTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        JPQLQuery<Double> teamAverage = select(subQPlayer.height.avg())
+                .from(subQPlayer)
+                .where(subQPlayer.team.id.eq(soccerPlayer.team.id),
+                        subQPlayer.height.gt(165));
+        NumberExpression<Long> teamCount = subQPlayer.count();
+        JPQLQuery<Long> teamSize = select(teamCount)
+                .from(subQPlayer)
+                .where(soccerPlayer.team.id.eq(subQPlayer.team.id));
+        JPAQuery<Tuple> original = query
+                .select(soccerPlayer.name, teamAverage, teamSize)
+                .from(soccerPlayer)
+                .orderBy(soccerPlayer.name.asc());
+
+        JPAQuery<Tuple> rewritten = rewriter.rewrite(original);
+
+        assertFalse(executedQuery(rewritten).contains("subQPlayer"));
+        List<Tuple> expected = original.fetch();
+        List<Tuple> actual = rewritten.fetch();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).get(soccerPlayer.name), actual.get(i).get(soccerPlayer.name));
+            assertEquals(expected.get(i).get(teamAverage), actual.get(i).get(teamAverage));
+            assertEquals(expected.get(i).get(teamSize), actual.get(i).get(teamSize));
+        }
+    }
+
+    @Test
+    @DisplayName("단순 동등 조건으로 연관되지 않은 서브 쿼리는 그대로 둔다")
+    void keepUnsupportedSubQueryTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        JPAQuery<SoccerPlayer> original = query
+                .selectFrom(soccerPlayer)
+                .where(soccerPlayer.name.in(
+                        select(subQPlayer.name)
+                                .from(subQPlayer)
+                                .where(subQPlayer.height.gt(soccerPlayer.height))));
+
+        JPAQuery<SoccerPlayer> rewritten = rewriter.rewrite(original);
+
+        assertTrue(executedQuery(rewritten).contains("subQPlayer"));
+        assertEquals(original.fetch(), rewritten.fetch());
+    }
+
+    @Test
+    @DisplayName("WHERE 절 서브 쿼리는 바깥 쿼리를 실행할 때의 Param 값과 데이터로 계산한다")
+    void hoistAtExecutionTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        Param<Integer> minHeight = new Param<>(Integer.class, "minHeight");
+        JPAQuery<SoccerPlayer> original = query
+                .selectFrom(soccerPlayer)
+                .where(soccerPlayer.height.goe(
+                        select(subQPlayer.height.avg())
+                                .from(subQPlayer)
+                                .where(subQPlayer.height.gt(minHeight))))
+                .orderBy(soccerPlayer.name.asc());
+
+        JPAQuery<SoccerPlayer> rewritten = rewriter.rewrite(original);
+        entityManager.persist(new SoccerPlayer("Giant", 200, 100));
+        entityManager.flush();
+        original.set(minHeight, 165);
+        rewritten.set(minHeight, 165);
+
+        List<SoccerPlayer> expected = original.fetch();
+        assertEquals(List.of("Dice", "Giant"), rewritten.fetch().stream().map(SoccerPlayer::getName).collect(Collectors.toList()));
+        assertEquals(expected, rewritten.fetch());
+    }
+
+    @Test
+    @DisplayName("연관이 없는 바깥 행도 그룹 조회 결과의 빈 그룹 값으로 남는다")
+    void groupedJoinNullAssociationTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        JPQLQuery<Long> teamSize = select(subQPlayer.count())
+                .from(subQPlayer)
+                .where(subQPlayer.team.id.eq(soccerPlayer.team.id));
+        JPQLQuery<Double> teamAverage = select(subQPlayer.height.avg())
+                .from(subQPlayer)
+                .where(subQPlayer.team.id.eq(soccerPlayer.team.id));
+        JPAQuery<Tuple> original = query
+                .select(soccerPlayer.name, teamSize, teamAverage)
+                .from(soccerPlayer)
+                .where(soccerPlayer.name.in("Roy", "Free"))
+                .orderBy(soccerPlayer.name.asc());
+
+        JPAQuery<Tuple> rewritten = rewriter.rewrite(original);
+
+        assertFalse(executedQuery(rewritten).contains("subQPlayer"));
+        List<Tuple> actual = rewritten.fetch();
+        assertEquals(2, actual.size());
+        assertEquals("Free", actual.get(0).get(soccerPlayer.name));
+        assertEquals(0L, actual.get(0).get(teamSize));
+        assertNull(actual.get(0).get(teamAverage));
+        assertEquals(2L, actual.get(1).get(teamSize));
+        assertEquals(174.0, actual.get(1).get(teamAverage));
+    }
+
+    @Test
+    @DisplayName("그룹 조회는 바깥 쿼리의 Param 값으로 실행한다")
+    void groupedJoinParamTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        Param<Integer> minHeight = new Param<>(Integer.class, "minHeight");
+        JPQLQuery<Long> tallTeammates = select(subQPlayer.count())
+                .from(subQPlayer)
+                .where(subQPlayer.team.id.eq(soccerPlayer.team.id),
+                        subQPlayer.height.gt(minHeight));
+        JPAQuery<Tuple> original = query
+                .select(soccerPlayer.name, tallTeammates)
+                .from(soccerPlayer)
+                .orderBy(soccerPlayer.name.asc());
+
+        JPAQuery<Tuple> rewritten = rewriter.rewrite(original);
+        original.set(minHeight, 174);
+        rewritten.set(minHeight, 174);
+
+        assertFalse(executedQuery(rewritten).contains("subQPlayer"));
+        List<Tuple> actual = rewritten.fetch();
+        assertEquals(original.fetch(), actual);
+        assertEquals(List.of(1L, 0L, 1L, 1L, 1L), actual.stream().map(row -> row.get(tallTeammates)).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("바깥 쿼리가 DISTINCT 이거나 GROUP BY 를 가지면 그룹 조회로 바꾸지 않는다")
+    void keepGroupedJoinForDistinctOrGroupByTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        JPQLQuery<Long> teamSize = select(subQPlayer.count())
+                .from(subQPlayer)
+                .where(subQPlayer.team.id.eq(soccerPlayer.team.id));
+        JPAQuery<Tuple> distinct = query
+                .select(Projections.tuple(teamSize))
+                .distinct()
+                .from(soccerPlayer);
+        JPAQuery<Tuple> grouped = query
+                .select(soccerPlayer.height.max(), teamSize)
+                .from(soccerPlayer)
+                .groupBy(soccerPlayer.team.id)
+                .orderBy(soccerPlayer.height.max().asc());
+
+        JPAQuery<Tuple> rewrittenDistinct = rewriter.rewrite(distinct);
+        JPAQuery<Tuple> rewrittenGrouped = rewriter.rewrite(grouped);
+
+        assertTrue(executedQuery(rewrittenDistinct).contains("subQPlayer"));
+        assertEquals(2, rewrittenDistinct.fetch().size());
+        assertTrue(executedQuery(rewrittenGrouped).contains("subQPlayer"));
+        assertEquals(grouped.fetch(), rewrittenGrouped.fetch());
+    }
+
+    @Test
+    @DisplayName("식별자가 아닌 key 로 연관된 서브 쿼리는 조인으로 행이 빠지지 않도록 그대로 둔다")
+    void keepNonIdKeyTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        JPQLQuery<Long> teamSize = select(subQPlayer.count())
+                .from(subQPlayer)
+                .where(subQPlayer.team.name.eq(soccerPlayer.team.name));
+        JPAQuery<Tuple> original = query
+                .select(soccerPlayer.name, teamSize)
+                .from(soccerPlayer)
+                .orderBy(soccerPlayer.name.asc());
+
+        JPAQuery<Tuple> rewritten = rewriter.rewrite(original);
+
+        assertTrue(executedQuery(rewritten).contains("subQPlayer"));
+        List<Tuple> actual = rewritten.fetch();
+        assertEquals(5, actual.size());
+        assertEquals(original.fetch(), actual);
+    }
+
+    @Test
+    @DisplayName("모든 SELECT 대상이 서브 쿼리면 프로젝션은 바꾸지 않는다")
+    void keepProjectionWithoutArgsTest() {
+        QSoccerPlayer subQPlayer = new QSoccerPlayer("subQPlayer");
+        JPQLQuery<Double> averageHeight = select(subQPlayer.height.avg()).from(subQPlayer);
+        JPAQuery<Tuple> original = query
+                .select(Projections.tuple(averageHeight))
+                .from(soccerPlayer);
+
+        JPAQuery<Tuple> rewritten = rewriter.rewrite(original);
+
+        assertEquals(original.fetch(), rewritten.fetch());
+    }
+
+    private static String executedQuery(JPAQuery<?> query) {
+        Query jpaQuery = query.createQuery();
+        return jpaQuery.unwrap(org.hibernate.query.Query.class).getQueryString();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.roy.querydsl.repository.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+
+    @Test
+    @DisplayName("만료 전에는 같은 키의 값을 다시 읽지 않는다")
+    void cacheTest() {
+        TtlCache<String, Integer> cache = new TtlCache<>(Duration.ofMinutes(1), 1);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", loads::incrementAndGet);
+        cache.get("a", loads::incrementAndGet);
+        cache.get("b", loads::incrementAndGet);
+        cache.get("a", loads::incrementAndGet);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("만료 시간이 0 이면 캐시하지 않는다")
+    void disabledTest() {
+        TtlCache<String, Integer> cache = new TtlCache<>(Duration.ZERO, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", loads::incrementAndGet);
+        cache.get("a", loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+}
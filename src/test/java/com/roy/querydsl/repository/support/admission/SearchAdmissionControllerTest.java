@@ -0,0 +1,183 @@
+package com.roy.querydsl.repository.support.admission;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(properties = {
+        "querydsl.admission.expensive.max-concurrent=1",
+        "querydsl.admission.expensive.queue-timeout=50ms",
+        "querydsl.admission.moderate.max-concurrent=1",
+        "querydsl.admission.moderate.queue-timeout=50ms",
+        "querydsl.admission.cheap.query-timeout=1500ms"
+})
+class SearchAdmissionControllerTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+    @Autowired
+    private SearchAdmissionController admission;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("조건, offset 깊이, 정렬 인덱스로 비용 등급을 매긴다")
+    void estimateTest() {
+        SoccerPlayerSearchDTO byName = new SoccerPlayerSearchDTO();
+        byName.setPlayerName("Roy");
+        SoccerPlayerSearchDTO byHeight = new SoccerPlayerSearchDTO();
+        byHeight.setHeightGt(170);
+        SoccerPlayerSearchDTO unfiltered = new SoccerPlayerSearchDTO();
+
+        assertEquals(QueryCost.CHEAP, admission.estimate(byName, PageRequest.of(0, 20, Sort.by("name"))));
+        assertEquals(QueryCost.MODERATE, admission.estimate(byName, PageRequest.of(0, 20, Sort.by("team.name"))));
+        assertEquals(QueryCost.MODERATE, admission.estimate(byHeight, PageRequest.of(0, 20, Sort.by("height"))));
+        assertEquals(QueryCost.MODERATE, admission.estimate(unfiltered, PageRequest.of(0, 20)));
+        assertEquals(QueryCost.EXPENSIVE, admission.estimate(byHeight, PageRequest.of(100, 20, Sort.by("team.name"))));
+        assertEquals(QueryCost.EXPENSIVE, admission.estimate(unfiltered, PageRequest.of(500, 20, Sort.by("name"))));
+        assertEquals(QueryCost.EXPENSIVE, admission.estimate(unfiltered, Pageable.unpaged()));
+    }
+
+    @Test
+    @DisplayName("비싼 검색의 자리가 차면 거절하고 싼 검색은 그대로 실행한다")
+    void shedTest() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> admission.admit(QueryCost.EXPENSIVE, timeout -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        running.await();
+        double rejected = meterRegistry.get(SearchAdmissionController.REJECTED).tag("cost", "expensive").counter().count();
+
+        try {
+            SearchRejectedException e = assertThrows(SearchRejectedException.class, () -> soccerPlayerRepository
+                    .searchComplexPage(new SoccerPlayerSearchDTO(), PageRequest.of(500, 20)));
+            assertEquals(QueryCost.EXPENSIVE, e.getCost());
+            assertEquals(rejected + 1, meterRegistry.get(SearchAdmissionController.REJECTED)
+                    .tag("cost", "expensive").counter().count());
+
+            SoccerPlayerSearchDTO byName = new SoccerPlayerSearchDTO();
+            byName.setPlayerName("Roy");
+            Page<SoccerPlayerTeamDTO> page = soccerPlayerRepository.searchComplexPage(byName, PageRequest.of(0, 20));
+            assertEquals(1, page.getTotalElements());
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    @Test
+    @DisplayName("여러 조건을 한 번에 검색하면 가장 비싼 조건의 자리에서 실행한다")
+    void searchManyShedTest() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> admission.admit(QueryCost.MODERATE, timeout -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        running.await();
+        SoccerPlayerSearchDTO byName = new SoccerPlayerSearchDTO();
+        byName.setPlayerName("Roy");
+
+        try {
+            SearchRejectedException e = assertThrows(SearchRejectedException.class,
+                    () -> soccerPlayerRepository.searchMany(List.of(byName, new SoccerPlayerSearchDTO()), 20));
+            assertEquals(QueryCost.MODERATE, e.getCost());
+
+            List<Page<SoccerPlayerTeamDTO>> pages = soccerPlayerRepository.searchMany(List.of(byName), 20);
+            assertEquals(1, pages.get(0).getTotalElements());
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    @Test
+    @DisplayName("자리를 기다리다 인터럽트되면 거절로 세지 않고 인터럽트 상태를 남긴다")
+    void interruptTest() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> admission.admit(QueryCost.EXPENSIVE, timeout -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        running.await();
+        double rejected = meterRegistry.get(SearchAdmissionController.REJECTED).tag("cost", "expensive").counter().count();
+
+        try {
+            Thread.currentThread().interrupt();
+            assertThrows(CancellationException.class, () -> admission.admit(QueryCost.EXPENSIVE, timeout -> timeout));
+            assertTrue(Thread.interrupted());
+            assertEquals(rejected, meterRegistry.get(SearchAdmissionController.REJECTED)
+                    .tag("cost", "expensive").counter().count());
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    @Test
+    @DisplayName("쿼리 타임아웃은 초 단위로 올림한다")
+    void queryTimeoutTest() {
+        assertEquals(Duration.ofSeconds(2), admission.admit(QueryCost.CHEAP, timeout -> timeout));
+        assertEquals(Duration.ofSeconds(10), admission.admit(QueryCost.EXPENSIVE, timeout -> timeout));
+        assertEquals(0.0, meterRegistry.get(SearchAdmissionController.ACTIVE).tag("cost", "cheap").gauge().value());
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.roy.querydsl.repository.support.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapSlabStoreTest {
+
+    @Test
+    @DisplayName("여러 블록에 걸친 값을 저장하고 읽는다")
+    void putGetTest() {
+        OffHeapSlabStore<String> store = new OffHeapSlabStore<>(1024, 256, 16);
+        byte[] value = new byte[100];
+        Arrays.fill(value, (byte) 7);
+        value[99] = 1;
+
+        assertTrue(store.put("a", value));
+
+        assertArrayEquals(value, store.get("a"));
+        assertNull(store.get("b"));
+        assertFalse(store.put("huge", new byte[2048]));
+    }
+
+    @Test
+    @DisplayName("공간이 모자라면 가장 오래 읽지 않은 값부터 내보낸다")
+    void evictionTest() {
+        OffHeapSlabStore<String> store = new OffHeapSlabStore<>(64, 32, 16);
+        store.put("a", new byte[16]);
+        store.put("b", new byte[16]);
+        store.put("c", new byte[16]);
+        store.put("d", new byte[16]);
+        store.get("a");
+
+        store.put("e", new byte[20]);
+
+        assertNotNull(store.get("a"));
+        assertNull(store.get("b"));
+        assertNull(store.get("c"));
+        assertNotNull(store.get("e"));
+        assertEquals(2, store.getEvictions());
+        assertEquals(64, store.getAllocatedBytes());
+
+        store.clear();
+        assertEquals(0, store.size());
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.roy.querydsl.repository.support.cache;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import com.roy.querydsl.repository.SoccerPlayerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "querydsl.page-cache.max-bytes=1MB")
+class SearchPageCacheTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private SoccerPlayerRepository soccerPlayerRepository;
+    @Autowired
+    private SearchPageCache searchPageCache;
+
+    @BeforeEach
+    void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("TeamA");
+            Team teamB = new Team("TeamB");
+            List<SoccerPlayer> players = List.of(
+                    new SoccerPlayer("Roy", 173, 73, teamA),
+                    new SoccerPlayer("Perry", 175, 75, teamA),
+                    new SoccerPlayer("Sally", 160, 60, teamB),
+                    new SoccerPlayer("Dice", 183, 83, teamB)
+            );
+            players.forEach(i -> entityManager.persist(i));
+        });
+        searchPageCache.invalidateAll();
+    }
+
+    @AfterEach
+    void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM SoccerPlayer").executeUpdate();
+            entityManager.createQuery("DELETE FROM Team").executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("같은 검색의 앞쪽 페이지는 캐시에서 복원한다")
+    void hitTest() {
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        dto.setTeamName("TeamA");
+        long hits = searchPageCache.getHitCount();
+
+        Page<SoccerPlayerTeamDTO> first = soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(0, 10));
+        Page<SoccerPlayerTeamDTO> second = soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(0, 10));
+        soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(5, 10));
+        soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(5, 10));
+
+        assertEquals(hits + 1, searchPageCache.getHitCount());
+        assertEquals(first.getContent(), second.getContent());
+        assertEquals(first.getTotalElements(), second.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("선수 변경이 커밋되면 캐시를 비운다")
+    void invalidationTest() {
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        dto.setTeamName("TeamA");
+        soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(0, 10));
+        long misses = searchPageCache.getMissCount();
+
+        transactionTemplate.executeWithoutResult(status -> new JPAQueryFactory(entityManager)
+                .selectFrom(soccerPlayer)
+                .where(soccerPlayer.name.eq("Roy"))
+                .fetchOne()
+                .setName("Roy2"));
+
+        assertTrue(soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(0, 10)).getContent().stream()
+                .anyMatch(row -> "Roy2".equals(row.getPlayerName())));
+        assertEquals(misses + 1, searchPageCache.getMissCount());
+        assertEquals(1, searchPageCache.getStore().size());
+    }
+
+    @Test
+    @DisplayName("벌크 수정이 커밋되어도 이전 페이지를 읽지 않는다")
+    void bulkInvalidationTest() {
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        dto.setTeamName("TeamA");
+        soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(0, 10));
+
+        transactionTemplate.executeWithoutResult(status -> new JPAQueryFactory(entityManager)
+                .update(soccerPlayer)
+                .set(soccerPlayer.name, "Roy2")
+                .where(soccerPlayer.name.eq("Roy"))
+                .execute());
+
+        assertTrue(soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(0, 10)).getContent().stream()
+                .anyMatch(row -> "Roy2".equals(row.getPlayerName())));
+    }
+
+    @Test
+    @DisplayName("쓰기를 한 트랜잭션 안의 검색 결과는 캐시에 남기지 않는다")
+    void dirtyTransactionTest() {
+        SoccerPlayerSearchDTO dto = new SoccerPlayerSearchDTO();
+        dto.setTeamName("TeamA");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            new JPAQueryFactory(entityManager)
+                    .update(soccerPlayer)
+                    .set(soccerPlayer.name, "Roy2")
+                    .where(soccerPlayer.name.eq("Roy"))
+                    .execute();
+            assertTrue(soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(0, 10)).getContent().stream()
+                    .anyMatch(row -> "Roy2".equals(row.getPlayerName())));
+            assertEquals(0, searchPageCache.getStore().size());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(soccerPlayerRepository.searchComplexPage(dto, PageRequest.of(0, 10)).getContent().stream()
+                .anyMatch(row -> "Roy".equals(row.getPlayerName())));
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.roy.querydsl.repository.support.cache;
+
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeamPageCodecTest {
+
+    @Test
+    @DisplayName("인코딩한 페이지를 그대로 복원한다")
+    void roundTripTest() {
+        PageRequest pageable = PageRequest.of(1, 4);
+        List<SoccerPlayerTeamDTO> rows = List.of(
+                new SoccerPlayerTeamDTO(1L, "Roy", 10L, "TeamA"),
+                new SoccerPlayerTeamDTO(300_000L, "손흥민", 10L, "TeamA"),
+                new SoccerPlayerTeamDTO(-5L, null, null, null),
+                new SoccerPlayerTeamDTO(null, "", 11L, "TeamB"));
+        Page<SoccerPlayerTeamDTO> page = new PageImpl<>(rows, pageable, 1_234L);
+
+        byte[] encoded = TeamPageCodec.encode(page);
+        Page<SoccerPlayerTeamDTO> decoded = TeamPageCodec.decode(encoded, pageable);
+
+        assertEquals(rows, decoded.getContent());
+        assertEquals(1_234L, decoded.getTotalElements());
+        assertEquals(pageable, decoded.getPageable());
+        assertTrue(encoded.length < 60);
+    }
+
+}
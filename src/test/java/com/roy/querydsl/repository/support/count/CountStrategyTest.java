@@ -0,0 +1,142 @@
+package com.roy.querydsl.repository.support.count;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerSearchDTO;
+import com.roy.querydsl.repository.SoccerPlayerSupportedRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static com.roy.querydsl.domain.QTeam.team;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class CountStrategyTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SoccerPlayerSupportedRepository supportedRepository;
+
+    private JPAQueryFactory query;
+
+    @BeforeEach
+    void before() {
+        query = new JPAQueryFactory(entityManager);
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("정렬과 페이징이 있는 쿼리도 전체 행 수를 센다")
+    void exactCountTest() {
+        JPAQuery<SoccerPlayer> content = query.selectFrom(soccerPlayer)
+                .where(soccerPlayer.height.gt(170))
+                .orderBy(soccerPlayer.name.asc())
+                .offset(1).limit(1);
+
+        Count count = CountStrategy.exact().count(content, entityManager);
+
+        assertTrue(count.isExact());
+        assertEquals(3L, count.getValue());
+    }
+
+    @Test
+    @DisplayName("group by 쿼리는 그룹 수를 센다")
+    void exactGroupByCountTest() {
+        JPAQuery<String> grouped = query.select(team.name)
+                .from(soccerPlayer)
+                .join(soccerPlayer.team, team)
+                .where(soccerPlayer.height.gt(150))
+                .groupBy(team.name)
+                .having(soccerPlayer.height.avg().gt(170));
+
+        assertEquals(2L, CountStrategy.exact().count(grouped, entityManager).getValue());
+    }
+
+    @Test
+    @DisplayName("distinct 쿼리는 중복을 제외하고 센다")
+    void exactDistinctCountTest() {
+        JPAQuery<Long> single = query.select(soccerPlayer.team.id).distinct().from(soccerPlayer);
+        JPAQuery<?> multiple = query.select(soccerPlayer.team.id, team.name).distinct()
+                .from(soccerPlayer).join(soccerPlayer.team, team);
+
+        assertEquals(2L, CountStrategy.exact().count(single, entityManager).getValue());
+        assertEquals(2L, CountStrategy.exact().count(multiple, entityManager).getValue());
+    }
+
+    @Test
+    @DisplayName("fetch join 한 내용 쿼리도 일반 join 으로 바꿔 센다")
+    void exactFetchJoinCountTest() {
+        JPAQuery<SoccerPlayer> content = query.selectFrom(soccerPlayer)
+                .leftJoin(soccerPlayer.team, team).fetchJoin()
+                .where(team.name.eq("TeamA"))
+                .orderBy(soccerPlayer.name.asc())
+                .offset(0).limit(1);
+        JPAQuery<SoccerPlayer> distinct = query.selectFrom(soccerPlayer).distinct()
+                .join(soccerPlayer.team, team).fetchJoin();
+
+        assertEquals(2L, CountStrategy.exact().count(content, entityManager).getValue());
+        assertEquals(4L, CountStrategy.exact().count(distinct, entityManager).getValue());
+        assertEquals(1, content.fetch().size());
+    }
+
+    @Test
+    @DisplayName("상한을 넘으면 하한으로 표시한다")
+    void cappedCountTest() {
+        Count capped = CountStrategy.capped(2).count(query.selectFrom(soccerPlayer), entityManager);
+        Count underCap = CountStrategy.capped(10).count(query.selectFrom(soccerPlayer), entityManager);
+
+        assertFalse(capped.isExact());
+        assertEquals("2+", capped.toString());
+        assertTrue(underCap.isExact());
+        assertEquals(4L, underCap.getValue());
+    }
+
+    @Test
+    @DisplayName("조건이 있으면 추정 대신 정확한 count 를 사용한다")
+    void estimatedCountTest() {
+        Count filtered = CountStrategy.estimated()
+                .count(query.selectFrom(soccerPlayer).where(soccerPlayer.height.gt(170)), entityManager);
+        Count unfiltered = CountStrategy.estimated().count(query.selectFrom(soccerPlayer), entityManager);
+
+        assertTrue(filtered.isExact());
+        assertEquals(3L, filtered.getValue());
+        assertFalse(unfiltered.isExact());
+        assertEquals(4.0, unfiltered.getValue(), 1.0);
+    }
+
+    @Test
+    @DisplayName("호출마다 count 전략을 선택한다")
+    void pageWithStrategyTest() {
+        CountedPage<SoccerPlayer> page = supportedRepository.applyPagination(
+                new SoccerPlayerSearchDTO(), PageRequest.of(0, 2), CountStrategy.capped(2));
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(2L, page.getTotalElements());
+        assertFalse(page.isTotalExact());
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.roy.querydsl.repository.support.projection;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.SoccerPlayerDTO;
+import com.roy.querydsl.dto.StrangeSoccerPlayerDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest
+class HandleProjectionsTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private JPAQueryFactory query;
+
+    @BeforeEach
+    void before() {
+        query = new JPAQueryFactory(entityManager);
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("setter 로 DTO 를 조회한다")
+    void beanTest() {
+        SoccerPlayerDTO dto = query
+                .select(HandleProjections.bean(SoccerPlayerDTO.class,
+                        soccerPlayer.name, soccerPlayer.height))
+                .from(soccerPlayer)
+                .where(soccerPlayer.name.eq("Roy"))
+                .fetchOne();
+
+        assertEquals(new SoccerPlayerDTO("Roy", 173), dto);
+    }
+
+    @Test
+    @DisplayName("alias 로 필드명이 다른 DTO 를 조회한다")
+    void fieldsWithAliasTest() {
+        StrangeSoccerPlayerDTO dto = query
+                .select(HandleProjections.fields(StrangeSoccerPlayerDTO.class,
+                        soccerPlayer.name.as("whatYourName"),
+                        ExpressionUtils.as(soccerPlayer.height, "howTallAreYou")))
+                .from(soccerPlayer)
+                .where(soccerPlayer.name.eq("Roy"))
+                .fetchOne();
+
+        assertEquals("Roy", dto.getWhatYourName());
+        assertEquals(173, dto.getHowTallAreYou());
+    }
+
+    @Test
+    @DisplayName("생성자로 DTO 를 조회한다")
+    void constructorTest() {
+        List<SoccerPlayerDTO> dtos = query
+                .select(HandleProjections.constructor(SoccerPlayerDTO.class,
+                        soccerPlayer.name, soccerPlayer.height))
+                .from(soccerPlayer)
+                .orderBy(soccerPlayer.name.asc())
+                .fetch();
+
+        assertEquals(4, dtos.size());
+        assertEquals(new SoccerPlayerDTO("Dice", 183), dtos.get(0));
+    }
+
+    @Test
+    @DisplayName("null 값은 채우지 않는다")
+    void nullValueTest() {
+        HandleBean<SoccerPlayerDTO> projection = HandleProjections.bean(SoccerPlayerDTO.class,
+                soccerPlayer.name, soccerPlayer.height);
+
+        SoccerPlayerDTO dto = projection.newInstance(null, null);
+
+        assertNull(dto.getName());
+        assertEquals(0, dto.getHeight());
+    }
+
+}
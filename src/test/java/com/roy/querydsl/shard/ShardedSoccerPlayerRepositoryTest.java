@@ -0,0 +1,152 @@
+package com.roy.querydsl.shard;
+
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.QSoccerPlayerTeamDTO;
+import com.roy.querydsl.dto.SoccerPlayerTeamDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static com.roy.querydsl.domain.QTeam.team;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"querydsl.shards.enabled=true", "querydsl.shards.count=3"})
+class ShardedSoccerPlayerRepositoryTest {
+
+    private static final QSoccerPlayerTeamDTO PROJECTION = new QSoccerPlayerTeamDTO(
+            soccerPlayer.id, soccerPlayer.name, team.id, team.name);
+
+    @Autowired
+    private Shards shards;
+    @Autowired
+    private ShardedSoccerPlayerRepository shardedRepository;
+
+    private List<SoccerPlayer> players;
+
+    @BeforeEach
+    void before() {
+        players = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            Team team = new Team("Team" + i);
+            for (int j = 0; j < 5; j++) {
+                players.add(new SoccerPlayer("Player" + i + "-" + j, 160 + (i * 7 + j * 13) % 30, 60 + j, team));
+            }
+        }
+        players.add(new SoccerPlayer("Free", null, 70, null));
+        shardedRepository.saveAll(players);
+    }
+
+    @AfterEach
+    void after() {
+        shards.getAll().forEach(entityManagerFactory -> {
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            EntityTransaction transaction = entityManager.getTransaction();
+            transaction.begin();
+            entityManager.createQuery("DELETE FROM SoccerPlayer").executeUpdate();
+            entityManager.createQuery("DELETE FROM Team").executeUpdate();
+            transaction.commit();
+            entityManager.close();
+        });
+    }
+
+    @Test
+    @DisplayName("선수는 팀의 샤드에 저장되고 식별자로 샤드를 알 수 있다")
+    void placementTest() {
+        ShardRouter router = shardedRepository.getRouter();
+
+        for (SoccerPlayer player : players) {
+            int shard = router.shardOf(player.getTeam());
+            assertEquals(shard, router.shardOfTeamId(player.getId()));
+            if (Objects.nonNull(player.getTeam())) {
+                assertEquals(shard, router.shardOfTeamName(player.getTeam().getName()));
+                assertEquals(shard, router.shardOfTeamId(player.getTeam().getId()));
+            }
+        }
+        assertEquals(3, players.stream().map(player -> router.shardOf(player.getTeam())).distinct().count());
+        assertEquals(0, router.shardOfTeamName(null));
+        assertEquals(0, router.shardOf(new Team(null)));
+    }
+
+    @Test
+    @DisplayName("팀 이름이나 팀 식별자 조건은 해당 샤드로만 보낸다")
+    void routeTest() {
+        ShardRouter router = shardedRepository.getRouter();
+        Team team3 = players.get(15).getTeam();
+
+        assertEquals(Set.of(0, 1, 2), router.route(null));
+        assertEquals(Set.of(0, 1, 2), router.route(soccerPlayer.height.gt(170)));
+        assertEquals(Set.of(router.shardOfTeamName("Team3")), router.route(soccerPlayer.team.name.eq("Team3").and(soccerPlayer.height.gt(170))));
+        assertEquals(Set.of(router.shardOfTeamId(team3.getId())), router.route(soccerPlayer.team.id.eq(team3.getId())));
+        assertEquals(Set.of(router.shardOfTeamName("Team1"), router.shardOfTeamName("Team2")),
+                router.route(soccerPlayer.team.name.in("Team1", "Team2")));
+        assertEquals(Set.of(0, 1, 2), router.route(soccerPlayer.team.name.eq("Team1").or(soccerPlayer.height.gt(170))));
+
+        Page<SoccerPlayerTeamDTO> page = shardedRepository.findAll(soccerPlayer.team.name.eq("Team3"),
+                PageRequest.of(1, 2, Sort.by("name")), PROJECTION);
+        assertEquals(5, page.getTotalElements());
+        assertEquals(List.of("Player3-2", "Player3-3"), names(page.getContent()));
+    }
+
+    @Test
+    @DisplayName("여러 샤드의 정렬된 결과를 합쳐도 전체를 정렬한 것과 같은 페이지가 나온다")
+    void scatterGatherTest() {
+        Sort sort = Sort.by(Sort.Order.desc("height"), Sort.Order.asc("name"));
+        List<String> expected = players.stream()
+                .sorted(Comparator.comparing(SoccerPlayer::getHeight, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+                        .thenComparing(SoccerPlayer::getName)
+                        .thenComparing(SoccerPlayer::getId))
+                .map(SoccerPlayer::getName)
+                .collect(Collectors.toList());
+
+        List<String> actual = new ArrayList<>();
+        Page<SoccerPlayerTeamDTO> page = shardedRepository.findAll(null, PageRequest.of(0, 7, sort), PROJECTION);
+        actual.addAll(names(page.getContent()));
+        while (page.hasNext()) {
+            page = shardedRepository.findAll(null, page.nextPageable(), PROJECTION);
+            actual.addAll(names(page.getContent()));
+        }
+
+        assertEquals(46, page.getTotalElements());
+        assertEquals(7, page.getTotalPages());
+        assertEquals(expected, actual);
+        assertEquals(46, shardedRepository.count(null));
+    }
+
+    @Test
+    @DisplayName("연관 엔티티 경로로 정렬하고 조건에 맞는 행만 센다")
+    void nestedSortTest() {
+        Page<SoccerPlayerTeamDTO> page = shardedRepository.findAll(soccerPlayer.height.goe(180),
+                PageRequest.of(0, 3, Sort.by(Sort.Order.desc("team.name"), Sort.Order.asc("height"))), PROJECTION);
+
+        List<SoccerPlayer> matching = players.stream()
+                .filter(player -> Objects.nonNull(player.getHeight()) && player.getHeight() >= 180)
+                .sorted(Comparator.comparing((SoccerPlayer player) -> player.getTeam().getName()).reversed()
+                        .thenComparing(SoccerPlayer::getHeight)
+                        .thenComparing(SoccerPlayer::getId))
+                .collect(Collectors.toList());
+        assertEquals(matching.size(), page.getTotalElements());
+        assertEquals(matching.stream().limit(3).map(SoccerPlayer::getName).collect(Collectors.toList()), names(page.getContent()));
+    }
+
+    private static List<String> names(List<SoccerPlayerTeamDTO> rows) {
+        return rows.stream().map(SoccerPlayerTeamDTO::getPlayerName).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.roy.querydsl.shard;
+
+import com.querydsl.core.types.OrderSpecifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedMergeTest {
+
+    @Test
+    @DisplayName("정렬된 목록을 합친 뒤 offset 과 limit 으로 자른다")
+    void mergeTest() {
+        List<List<Integer>> sorted = List.of(List.of(1, 4, 7), List.of(2, 5, 8), List.of(), List.of(3, 6, 9));
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), SortedMerge.merge(sorted, Comparator.naturalOrder(), 0, 100));
+        assertEquals(List.of(4, 5, 6), SortedMerge.merge(sorted, Comparator.naturalOrder(), 3, 3));
+        assertEquals(List.of(), SortedMerge.merge(sorted, Comparator.naturalOrder(), 9, 3));
+    }
+
+    @Test
+    @DisplayName("정렬 방향과 null 처리를 OrderSpecifier 대로 비교한다")
+    void comparatorTest() {
+        List<OrderSpecifier<?>> orders = List.of(
+                SortedMerge.explicit(soccerPlayer.height.desc()),
+                SortedMerge.explicit(soccerPlayer.name.asc()));
+        Comparator<Object[]> comparator = SortedMerge.comparator(orders, row -> row);
+        List<Object[]> rows = new ArrayList<>(List.of(
+                new Object[]{null, "Roy"},
+                new Object[]{173, "Roy"},
+                new Object[]{183, "Dice"},
+                new Object[]{173, "Perry"}));
+
+        rows.sort(comparator);
+
+        assertEquals(List.of(
+                List.of(183, "Dice"),
+                List.of(173, "Perry"),
+                List.of(173, "Roy"),
+                Arrays.asList(null, "Roy")
+        ), rows.stream().map(Arrays::asList).collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.roy.querydsl.startup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTimelineTest {
+
+    @Test
+    @DisplayName("빈 생성 시간에서 의존하는 빈의 생성 시간을 뺀 self 시간을 구한다")
+    void beanInitTimesTest() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        StartupStep controller = startup.start(StartupTimeline.BEAN_INSTANTIATE).tag("beanName", "controller");
+        StartupStep repository = startup.start(StartupTimeline.BEAN_INSTANTIATE).tag("beanName", "repository");
+        Thread.sleep(50);
+        repository.end();
+        Thread.sleep(5);
+        controller.end();
+        startup.start("spring.context.refresh").end();
+
+        List<BeanInitTime> beans = StartupTimeline.drainBeanInitTimes(startup);
+
+        assertEquals(2, beans.size());
+        assertEquals("repository", beans.get(0).getBeanName());
+        BeanInitTime controllerTime = beans.get(1);
+        assertEquals("controller", controllerTime.getBeanName());
+        assertTrue(controllerTime.getTotal().compareTo(beans.get(0).getTotal()) > 0);
+        assertTrue(controllerTime.getSelf().compareTo(beans.get(0).getSelf()) < 0);
+        assertTrue(StartupTimeline.drainBeanInitTimes(startup).isEmpty());
+    }
+
+}
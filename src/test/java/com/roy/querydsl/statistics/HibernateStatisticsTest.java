@@ -0,0 +1,153 @@
+package com.roy.querydsl.statistics;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.roy.querydsl.domain.SoccerPlayer;
+import com.roy.querydsl.domain.Team;
+import com.roy.querydsl.dto.HibernateStatisticsDTO;
+import com.roy.querydsl.dto.QueryStatisticsDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.roy.querydsl.domain.QSoccerPlayer.soccerPlayer;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "querydsl.hibernate-stats.enabled=true",
+        "querydsl.hibernate-stats.refresh-interval=1h",
+        "querydsl.hibernate-stats.plan-cache-alert.min-misses=5",
+        "querydsl.hibernate-stats.plan-cache-alert.miss-ratio=0.5",
+        "management.endpoints.web.exposure.include=hibernatequeries"
+})
+class HibernateStatisticsTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private HibernateQueryStatistics hibernateQueryStatistics;
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long teamAId;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        List<SoccerPlayer> players = List.of(
+                new SoccerPlayer("Roy", 173, 73, teamA),
+                new SoccerPlayer("Perry", 175, 75, teamA),
+                new SoccerPlayer("Sally", 160, 60, teamB),
+                new SoccerPlayer("Dice", 183, 83, teamB)
+        );
+        players.forEach(i -> entityManager.persist(i));
+        entityManager.flush();
+        entityManager.clear();
+        teamAId = teamA.getId();
+    }
+
+    @Test
+    @DisplayName("누적 실행 시간 순 상위 쿼리를 해시 태그 메트릭으로 등록한다")
+    void topQueriesTest() {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(entityManager);
+        for (int i = 0; i < 3; i++) {
+            queryFactory.selectFrom(soccerPlayer).where(soccerPlayer.name.eq("Roy")).fetch();
+        }
+
+        HibernateStatisticsDTO report = hibernateQueryStatistics.report(100);
+        QueryStatisticsDTO query = report.getQueries().stream()
+                .filter(i -> i.getQuery().contains("soccerPlayer.name = ?1"))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(query.getExecutions() >= 3);
+        assertTrue(query.getRows() >= 3);
+        assertEquals(report.getQueries().stream()
+                        .sorted(Comparator.comparingLong(QueryStatisticsDTO::getTotalMillis).reversed())
+                        .collect(Collectors.toList()),
+                report.getQueries());
+
+        hibernateQueryStatistics.refresh();
+        assertTrue(meterRegistry.get(HibernateQueryStatistics.QUERY_EXECUTIONS)
+                .tag("query", query.getHash())
+                .functionTimer().count() >= 3);
+    }
+
+    @Test
+    @DisplayName("플랜 캐시 miss 가 급증하면 알림 카운터를 올린다")
+    void planCacheAlertTest() {
+        hibernateQueryStatistics.refresh();
+        long alerts = hibernateQueryStatistics.getPlanCacheAlertCount();
+
+        for (int i = 0; i < 10; i++) {
+            entityManager.createQuery("select p from SoccerPlayer p where p.name = 'Literal" + i + "'", SoccerPlayer.class)
+                    .getResultList();
+        }
+        hibernateQueryStatistics.refresh();
+
+        assertEquals(alerts + 1, hibernateQueryStatistics.getPlanCacheAlertCount());
+    }
+
+    @Test
+    @DisplayName("컬렉션 지연 로딩은 역할별로 센다")
+    void collectionFetchTest() {
+        FunctionCounter fetches = meterRegistry.get(HibernateQueryStatistics.COLLECTION_FETCHES)
+                .tag("role", "Team.soccerPlayers")
+                .functionCounter();
+        double before = fetches.count();
+
+        assertEquals(2, entityManager.find(Team.class, teamAId).getSoccerPlayers().size());
+
+        assertEquals(before + 1, fetches.count());
+    }
+
+    @Test
+    @DisplayName("요청마다 엔티티 로드와 프록시 초기화 수를 기록한다")
+    void requestTest() throws Exception {
+        mockMvc.perform(get("/soccer-player").param("team.name", "TeamA"))
+                .andExpect(status().isOk());
+
+        DistributionSummary loads = meterRegistry.get(RequestStatisticsInterceptor.ENTITY_LOADS)
+                .tag("method", "SoccerPlayerController.test")
+                .summary();
+        assertEquals(1, loads.count());
+        assertTrue(loads.totalAmount() >= 2);
+        assertTrue(meterRegistry.get(RequestStatisticsInterceptor.ENTITY_FETCHES)
+                .tag("method", "SoccerPlayerController.test")
+                .summary().totalAmount() >= 1);
+        assertEquals(1, meterRegistry.get(RequestStatisticsInterceptor.COLLECTION_FETCHES)
+                .tags("method", "SoccerPlayerController.test", "role", "Team.soccerPlayers")
+                .summary().count());
+    }
+
+    @Test
+    @DisplayName("actuator 에서 상위 쿼리를 조회한다")
+    void endpointTest() throws Exception {
+        new JPAQueryFactory(entityManager).selectFrom(soccerPlayer).fetch();
+
+        mockMvc.perform(get("/actuator/hibernatequeries").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queries[0].hash").exists())
+                .andExpect(jsonPath("$.planCacheMisses").exists());
+    }
+
+}
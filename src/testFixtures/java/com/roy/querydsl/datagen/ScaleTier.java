@@ -0,0 +1,32 @@
+package com.roy.querydsl.datagen;
+
+public enum ScaleTier {
+
+    TINY(20, 10_000L, 2_000),
+    SMALL(1_000, 1_000_000L, 50_000),
+    MEDIUM(5_000, 10_000_000L, 200_000),
+    LARGE(20_000, 100_000_000L, 1_000_000);
+
+    private final int teams;
+    private final long players;
+    private final int nameCardinality;
+
+    ScaleTier(int teams, long players, int nameCardinality) {
+        this.teams = teams;
+        this.players = players;
+        this.nameCardinality = nameCardinality;
+    }
+
+    public int getTeams() {
+        return teams;
+    }
+
+    public long getPlayers() {
+        return players;
+    }
+
+    public int getNameCardinality() {
+        return nameCardinality;
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.roy.querydsl.datagen;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 규모별 벤치마크용 Team / SoccerPlayer 데이터를 생성한다.
+ * 같은 설정과 시드는 항상 같은 행을 만들며, JPA 를 거치지 않고 JDBC batch 또는 H2 CSVREAD 로 적재한다.
+ * 팀 규모는 Zipf 분포로 치우치고, 키와 몸무게는 정규 분포(몸무게는 키와 상관)를 따르며, 이름은 nameCardinality 개 중에서 중복되어 뽑힌다.
+ * Team id 는 1..teams, SoccerPlayer id 는 teams + 1 부터 순서대로 부여한다.
+ */
+public class SoccerPlayerDataGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_INTERVAL = 50_000;
+    private static final int CSV_CHUNK_SIZE = 1_000_000;
+    private static final double DEFAULT_TEAM_SKEW = 1.1;
+
+    private final int teams;
+    private final long players;
+    private final int nameCardinality;
+    private final long seed;
+    private final double[] cumulativeTeamWeights;
+
+    public SoccerPlayerDataGenerator(int teams, long players, int nameCardinality, double teamSkew, long seed) {
+        this.teams = teams;
+        this.players = players;
+        this.nameCardinality = nameCardinality;
+        this.seed = seed;
+        this.cumulativeTeamWeights = new double[teams];
+        double total = 0;
+        for (int rank = 0; rank < teams; rank++) {
+            total += 1.0 / Math.pow(rank + 1, teamSkew);
+            cumulativeTeamWeights[rank] = total;
+        }
+    }
+
+    public static SoccerPlayerDataGenerator of(ScaleTier tier, long seed) {
+        return new SoccerPlayerDataGenerator(tier.getTeams(), tier.getPlayers(), tier.getNameCardinality(), DEFAULT_TEAM_SKEW, seed);
+    }
+
+    public void loadWithJdbcBatch(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                insertTeams(connection);
+                insertPlayers(connection);
+                connection.commit();
+                restartSequence(connection);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load generated data", e);
+        }
+    }
+
+    public void loadWithCsvRead(DataSource dataSource, Path workDir) {
+        try (Connection connection = dataSource.getConnection()) {
+            insertTeams(connection);
+            Files.createDirectories(workDir);
+            Path csv = workDir.resolve("soccer_player-" + seed + ".csv");
+            try (Statement statement = connection.createStatement()) {
+                PlayerRows rows = new PlayerRows();
+                while (rows.hasNext()) {
+                    writeCsvChunk(rows, csv);
+                    statement.executeUpdate("INSERT INTO soccer_player (soccer_player_id, name, height, weight, team_id) "
+                            + "SELECT * FROM CSVREAD('" + csv.toString().replace("'", "''") + "', NULL, 'charset=UTF-8')");
+                }
+            } finally {
+                Files.deleteIfExists(csv);
+            }
+            restartSequence(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load generated data", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String randomPlayerName(Random random) {
+        return playerName(1 + random.nextInt(nameCardinality));
+    }
+
+    public String randomTeamName(Random random) {
+        return teamName(1 + random.nextInt(teams));
+    }
+
+    public int getTeams() {
+        return teams;
+    }
+
+    public long getPlayers() {
+        return players;
+    }
+
+    public static String playerName(long nameIndex) {
+        return "player-" + nameIndex;
+    }
+
+    public static String teamName(long teamId) {
+        return "team-" + teamId;
+    }
+
+    private void insertTeams(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO team (team_id, name) VALUES (?, ?)")) {
+            for (long teamId = 1; teamId <= teams; teamId++) {
+                statement.setLong(1, teamId);
+                statement.setString(2, teamName(teamId));
+                statement.addBatch();
+                if (teamId % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void insertPlayers(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO soccer_player (soccer_player_id, name, height, weight, team_id) VALUES (?, ?, ?, ?, ?)")) {
+            PlayerRows rows = new PlayerRows();
+            long count = 0;
+            while (rows.hasNext()) {
+                rows.next();
+                statement.setLong(1, rows.id);
+                statement.setString(2, rows.name);
+                statement.setInt(3, rows.height);
+                statement.setInt(4, rows.weight);
+                statement.setLong(5, rows.teamId);
+                statement.addBatch();
+                if (++count % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+                if (count % COMMIT_INTERVAL == 0) {
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void writeCsvChunk(PlayerRows rows, Path csv) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, UTF_8)) {
+            writer.write("SOCCER_PLAYER_ID,NAME,HEIGHT,WEIGHT,TEAM_ID");
+            writer.newLine();
+            for (int i = 0; i < CSV_CHUNK_SIZE && rows.hasNext(); i++) {
+                rows.next();
+                writer.write(rows.id + "," + rows.name + "," + rows.height + "," + rows.weight + "," + rows.teamId);
+                writer.newLine();
+            }
+        }
+    }
+
+    private void restartSequence(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE hibernate_sequence RESTART WITH " + (teams + players + 1));
+        }
+    }
+
+    private long pickTeam(SplittableRandom random) {
+        double target = random.nextDouble() * cumulativeTeamWeights[teams - 1];
+        int index = Arrays.binarySearch(cumulativeTeamWeights, target);
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+
+    private static double nextGaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private static int clamp(long value, int min, int max) {
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+    private class PlayerRows {
+
+        private final SplittableRandom random = new SplittableRandom(seed);
+        private long generated;
+        private long id;
+        private String name;
+        private int height;
+        private int weight;
+        private long teamId;
+
+        private boolean hasNext() {
+            return generated < players;
+        }
+
+        private void next() {
+            id = teams + 1 + generated++;
+            name = playerName(1 + random.nextInt(nameCardinality));
+            double heightDeviation = nextGaussian(random) * 7;
+            height = clamp(Math.round(178 + heightDeviation), 150, 210);
+            weight = clamp(Math.round(74 + heightDeviation * 0.8 + nextGaussian(random) * 6), 45, 130);
+            teamId = pickTeam(random);
+        }
+    }
+
+}